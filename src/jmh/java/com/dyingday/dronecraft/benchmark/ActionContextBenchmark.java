@@ -0,0 +1,84 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.benchmark;
+
+import com.dyingday.dronecraft.api.context.ActionContext;
+import com.dyingday.dronecraft.api.context.ResourceLimits;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import com.dyingday.dronecraft.api.context.VariableLayout;
+import com.dyingday.dronecraft.benchmark.sim.InMemoryWorld;
+import com.dyingday.dronecraft.benchmark.sim.SimulatedExecutor;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Variable, local data and energy access through {@link ActionContext} */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionContextBenchmark {
+  private static final String TARGET = "target_tree";
+  private static final VariableKey<BlockPos> TARGET_KEY = VariableKey.of(TARGET, BlockPos.class);
+
+  private ActionContext context;
+  private BlockPos target;
+
+  @Setup
+  public void setup() {
+    target = new BlockPos(12, 64, -7);
+    context =
+        new ActionContext.Builder(new SimulatedExecutor(BlockPos.ZERO))
+            .world(new InMemoryWorld(0, 16, 0L))
+            .withVariable("harvested", 0)
+            .withVariable("home", BlockPos.ZERO)
+            .resourceLimits(ResourceLimits.UNLIMITED)
+            .build();
+    context.useVariableLayout(new VariableLayout(List.of(TARGET_KEY)));
+    context.setVariable(TARGET, target);
+    context.setLocalData(TARGET, target);
+  }
+
+  @Benchmark
+  public Optional<BlockPos> getVariable() {
+    return context.getVariable(TARGET, BlockPos.class);
+  }
+
+  @Benchmark
+  public void setVariable() {
+    context.setVariable(TARGET, target);
+  }
+
+  @Benchmark
+  public BlockPos getVariableByKey() {
+    return context.getVariable(TARGET_KEY);
+  }
+
+  @Benchmark
+  public void setVariableByKey() {
+    context.setVariable(TARGET_KEY, target);
+  }
+
+  @Benchmark
+  public Optional<BlockPos> getLocalData() {
+    return context.getLocalData(TARGET, BlockPos.class);
+  }
+
+  @Benchmark
+  public boolean consumeEnergy() {
+    context.resetResourceLimits();
+    return context.consumeEnergy(1);
+  }
+}
@@ -0,0 +1,48 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.benchmark;
+
+import com.dyingday.dronecraft.api.behavior.action.ActionCategory;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.registry.ActionRegistry;
+import com.dyingday.dronecraft.benchmark.sim.MinecraftBootstrap;
+import com.dyingday.dronecraft.registration.DCActions;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.resources.Identifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Action creation and category lookups in {@link ActionRegistry} */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionRegistryBenchmark {
+  @Setup
+  public void setup() {
+    MinecraftBootstrap.ensureBootstrapped();
+    if (!ActionRegistry.isRegistered(DCActions.FIND_TREE)) {
+      DCActions.register();
+    }
+  }
+
+  @Benchmark
+  public IAction createAction() {
+    return ActionRegistry.createAction(DCActions.HARVEST_TREE);
+  }
+
+  @Benchmark
+  public List<Identifier> getActionsForCategory() {
+    return ActionRegistry.getActionsForCategory(ActionCategory.INTERACTION);
+  }
+}
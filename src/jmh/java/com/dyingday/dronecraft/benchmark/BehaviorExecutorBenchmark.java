@@ -0,0 +1,120 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.benchmark;
+
+import com.dyingday.dronecraft.DroneCraft;
+import com.dyingday.dronecraft.api.behavior.Behavior;
+import com.dyingday.dronecraft.api.behavior.BehaviorExecutor;
+import com.dyingday.dronecraft.api.behavior.action.ActionCategory;
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import com.dyingday.dronecraft.api.profiling.ActionProfiler;
+import com.dyingday.dronecraft.benchmark.sim.InMemoryWorld;
+import com.dyingday.dronecraft.benchmark.sim.SimulatedExecutor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.Identifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-tick dispatch overhead of {@link BehaviorExecutor}. Every action completes immediately, so
+ * the measured time is the executor's own bookkeeping: action lookup, resource budget reset,
+ * timing, history and result handling.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BehaviorExecutorBenchmark {
+  @Param({"1", "8"})
+  public int actionCount;
+
+  @Param({"false", "true"})
+  public boolean trackHistory;
+
+  @Param({"false", "true"})
+  public boolean profiling;
+
+  private BehaviorExecutor executor;
+
+  @Setup
+  public void setup() {
+    List<IAction> actions = new ArrayList<>();
+    for (int i = 0; i < actionCount; i++) {
+      actions.add(new CompleteAction());
+    }
+    Behavior behavior =
+        new Behavior(Identifier.fromNamespaceAndPath(DroneCraft.MODID, "benchmark"), actions, true);
+    ActionContext context =
+        new ActionContext.Builder(new SimulatedExecutor(BlockPos.ZERO))
+            .world(new InMemoryWorld(0, 16, 0L))
+            .trackHistory(trackHistory)
+            .build();
+    executor = new BehaviorExecutor(behavior, context);
+    ActionProfiler.setEnabled(profiling);
+  }
+
+  @TearDown
+  public void tearDown() {
+    ActionProfiler.setEnabled(false);
+    ActionProfiler.reset();
+  }
+
+  @Benchmark
+  public void tick() {
+    executor.tick();
+  }
+
+  /** Action that succeeds as soon as it is executed */
+  static final class CompleteAction implements IAction {
+    @Override
+    public ActionResult execute(ActionContext context) {
+      return ActionResult.SUCCESS;
+    }
+
+    @Override
+    public boolean canExecute(ActionContext context) {
+      return true;
+    }
+
+    @Override
+    public Component getDisplayName() {
+      return Component.literal("Complete");
+    }
+
+    @Override
+    public ActionCategory getCategory() {
+      return ActionCategory.LOGIC;
+    }
+
+    @Override
+    public CompoundTag serializeNBT() {
+      return new CompoundTag();
+    }
+
+    @Override
+    public void deserializeNBT(CompoundTag nbt) {}
+
+    @Override
+    public IAction copy() {
+      return new CompleteAction();
+    }
+  }
+}
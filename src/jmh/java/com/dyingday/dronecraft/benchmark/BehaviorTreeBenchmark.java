@@ -0,0 +1,117 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.benchmark;
+
+import com.dyingday.dronecraft.DroneCraft;
+import com.dyingday.dronecraft.api.behavior.BehaviorExecutor;
+import com.dyingday.dronecraft.api.behavior.action.ActionCategory;
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.behavior.tree.ActionNode;
+import com.dyingday.dronecraft.api.behavior.tree.BehaviorNode;
+import com.dyingday.dronecraft.api.behavior.tree.BehaviorTree;
+import com.dyingday.dronecraft.api.behavior.tree.ConditionNode;
+import com.dyingday.dronecraft.api.behavior.tree.SelectorNode;
+import com.dyingday.dronecraft.api.behavior.tree.SequenceNode;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import com.dyingday.dronecraft.benchmark.sim.InMemoryWorld;
+import com.dyingday.dronecraft.benchmark.sim.SimulatedExecutor;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.Identifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-tick overhead of running a {@link BehaviorTree}. The running leaf sits at the bottom of a
+ * chain of selectors, each guarded by a reactive condition on a variable that never changes, and
+ * keeps running forever. Resuming the leaf should cost the same at any depth, since neither the
+ * tree nor the guards are walked while their inputs stay the same.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BehaviorTreeBenchmark {
+  private static final VariableKey<Boolean> ALARM = VariableKey.of("alarm", Boolean.class);
+
+  @Param({"1", "8", "32"})
+  public int depth;
+
+  private BehaviorExecutor executor;
+
+  @Setup
+  public void setup() {
+    BehaviorNode node = new ActionNode(new RunningAction());
+    for (int i = 0; i < depth; i++) {
+      // Higher priority branch that only runs while the alarm is set
+      BehaviorNode alarm =
+          new SequenceNode(
+              ConditionNode.isSet(ALARM).reactive(), new ActionNode(new RunningAction()));
+      node = new SelectorNode(alarm, node);
+    }
+    BehaviorTree tree = new BehaviorTree(node);
+    ActionContext context =
+        new ActionContext.Builder(new SimulatedExecutor(BlockPos.ZERO))
+            .world(new InMemoryWorld(0, 16, 0L))
+            .build();
+    executor =
+        new BehaviorExecutor(
+            tree.toBehavior(Identifier.fromNamespaceAndPath(DroneCraft.MODID, "benchmark"), true),
+            context);
+  }
+
+  @Benchmark
+  public void tick() {
+    executor.tick();
+  }
+
+  /** Action that never finishes */
+  static final class RunningAction implements IAction {
+    @Override
+    public ActionResult execute(ActionContext context) {
+      return ActionResult.CONTINUE;
+    }
+
+    @Override
+    public boolean canExecute(ActionContext context) {
+      return true;
+    }
+
+    @Override
+    public Component getDisplayName() {
+      return Component.literal("Running");
+    }
+
+    @Override
+    public ActionCategory getCategory() {
+      return ActionCategory.LOGIC;
+    }
+
+    @Override
+    public CompoundTag serializeNBT() {
+      return new CompoundTag();
+    }
+
+    @Override
+    public void deserializeNBT(CompoundTag nbt) {}
+
+    @Override
+    public IAction copy() {
+      return new RunningAction();
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.benchmark;
+
+import com.dyingday.dronecraft.api.context.BlockIndex;
+import com.dyingday.dronecraft.api.context.FloodFill;
+import com.dyingday.dronecraft.api.context.ParallelBlockSearch;
+import com.dyingday.dronecraft.api.context.WorldSnapshot;
+import com.dyingday.dronecraft.benchmark.sim.ForestGenerator;
+import com.dyingday.dronecraft.benchmark.sim.InMemoryWorld;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.core.BlockPos;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.util.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Scan kernels of the tree farm actions, run against a generated forest in an {@link
+ * InMemoryWorld}.
+ *
+ * <ul>
+ *   <li>{@link #harvestFloodFill} is the log flood fill of {@code HarvestTreeAction}
+ *   <li>{@link #findTreeVolumeScan} reads every block in the search volume of {@code
+ *       FindTreeAction} and keeps the nearest log, which is the per-block work the block index
+ *       does once when it indexes a mixed section
+ *   <li>{@link #findTreeIndexed} is the nearest-log lookup {@code FindTreeAction} makes in the
+ *       world's {@link BlockIndex} once the area is indexed
+ *   <li>{@link #findTreeParallel} is the same nearest-log lookup made by a {@link
+ *       ParallelBlockSearch} over a snapshot of the search volume
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanBenchmark {
+  private static final int FOREST_SIZE = 96;
+  private static final int FOREST_HEIGHT = 32;
+
+  @Param({"6", "12"})
+  public int treeSpacing;
+
+  @Param({"16"})
+  public int searchRadius;
+
+  private final FloodFill floodFill = new FloodFill();
+  private InMemoryWorld world;
+  private List<BlockPos> trunks;
+  private BlockPos center;
+  private WorldSnapshot snapshot;
+  private int nextTrunk = 0;
+
+  @Setup
+  public void setup() {
+    world = new InMemoryWorld(0, FOREST_HEIGHT, 42L);
+    trunks =
+        ForestGenerator.generate(
+            world, FOREST_SIZE, FOREST_SIZE, treeSpacing, RandomSource.create(42L));
+    center = new BlockPos(FOREST_SIZE / 2, ForestGenerator.GROUND_Y + 1, FOREST_SIZE / 2);
+    snapshot =
+        WorldSnapshot.capture(
+            world.getSnapshotCache(),
+            center.offset(-searchRadius, -searchRadius, -searchRadius),
+            center.offset(searchRadius, searchRadius, searchRadius));
+  }
+
+  @Benchmark
+  public int harvestFloodFill(Blackhole blackhole) {
+    BlockPos trunk = trunks.get(nextTrunk);
+    nextTrunk = (nextTrunk + 1) % trunks.size();
+    return floodFill.fill(
+        world,
+        trunk,
+        state -> state.is(BlockTags.LOGS),
+        FloodFill.Connectivity.FACES,
+        4096,
+        blackhole::consume);
+  }
+
+  @Benchmark
+  public long findTreeVolumeScan() {
+    BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+    long nearest = Long.MAX_VALUE;
+    int nearestDistance = Integer.MAX_VALUE;
+    int minY = Math.max(center.getY() - searchRadius, 0);
+    int maxY = Math.min(center.getY() + searchRadius, FOREST_HEIGHT - 1);
+    for (int y = minY; y <= maxY; y++) {
+      for (int z = center.getZ() - searchRadius; z <= center.getZ() + searchRadius; z++) {
+        for (int x = center.getX() - searchRadius; x <= center.getX() + searchRadius; x++) {
+          if (world.getBlockState(pos.set(x, y, z)).is(BlockTags.LOGS)) {
+            int distance = (int) center.distSqr(pos);
+            if (distance < nearestDistance) {
+              nearestDistance = distance;
+              nearest = pos.asLong();
+            }
+          }
+        }
+      }
+    }
+    return nearest;
+  }
+
+  @Benchmark
+  public Optional<BlockPos> findTreeIndexed() {
+    return world.findNearestIndexed(
+        BlockIndex.LOGS,
+        center,
+        center.offset(-searchRadius, -searchRadius, -searchRadius),
+        center.offset(searchRadius, searchRadius, searchRadius));
+  }
+
+  @Benchmark
+  public Optional<BlockPos> findTreeParallel() {
+    return ParallelBlockSearch.around(
+            snapshot, center, searchRadius, state -> state.is(BlockTags.LOGS))
+        .findNearest(center);
+  }
+}
@@ -0,0 +1,44 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.benchmark;
+
+import com.dyingday.dronecraft.benchmark.sim.TreeFarmSimulation;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One server tick of many tree farm executors in a {@link TreeFarmSimulation}. The simulation keeps
+ * running across iterations, so the measurement covers every phase of the farm loop. Use {@link
+ * com.dyingday.dronecraft.benchmark.sim.SimulationDriver} for a breakdown per action.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4G")
+public class SimulationBenchmark {
+  @Param({"100", "1000", "10000"})
+  public int executors;
+
+  private TreeFarmSimulation simulation;
+
+  @Setup
+  public void setup() {
+    simulation = new TreeFarmSimulation(executors, 6, 600, 42L);
+  }
+
+  @Benchmark
+  public void tick() {
+    simulation.tick();
+  }
+}
@@ -0,0 +1,71 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.benchmark.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+/** Procedurally generates oak forests on flat grass in an {@link InMemoryWorld} */
+public final class ForestGenerator {
+  public static final int GROUND_Y = 0;
+
+  private ForestGenerator() {}
+
+  /**
+   * Cover an area with grass and grow a tree roughly every {@code treeSpacing} blocks along each
+   * axis, with each tree nudged by up to one block.
+   *
+   * @return The bottom log of every tree grown
+   */
+  public static List<BlockPos> generate(
+      InMemoryWorld world, int sizeX, int sizeZ, int treeSpacing, RandomSource random) {
+    BlockState grass = Blocks.GRASS_BLOCK.defaultBlockState();
+    for (int x = 0; x < sizeX; x++) {
+      for (int z = 0; z < sizeZ; z++) {
+        world.setBlockQuietly(x, GROUND_Y, z, grass);
+      }
+    }
+
+    List<BlockPos> trunks = new ArrayList<>();
+    int offset = treeSpacing / 2;
+    for (int x = offset; x < sizeX; x += treeSpacing) {
+      for (int z = offset; z < sizeZ; z += treeSpacing) {
+        BlockPos trunk =
+            new BlockPos(x + random.nextInt(3) - 1, GROUND_Y + 1, z + random.nextInt(3) - 1);
+        growTree(world, trunk, random);
+        trunks.add(trunk);
+      }
+    }
+    return trunks;
+  }
+
+  /** Grow an oak tree with its bottom log at a position, replacing whatever is there */
+  public static void growTree(InMemoryWorld world, BlockPos base, RandomSource random) {
+    BlockState log = Blocks.OAK_LOG.defaultBlockState();
+    BlockState leaves = Blocks.OAK_LEAVES.defaultBlockState();
+    int x = base.getX();
+    int z = base.getZ();
+    int top = base.getY() + 3 + random.nextInt(4);
+
+    for (int y = top - 2; y <= top + 1; y++) {
+      int radius = y > top - 1 ? 1 : 2;
+      for (int dx = -radius; dx <= radius; dx++) {
+        for (int dz = -radius; dz <= radius; dz++) {
+          boolean corner = Math.abs(dx) == radius && Math.abs(dz) == radius;
+          if (corner && (y == top + 1 || random.nextInt(2) == 0)) {
+            continue;
+          }
+          if (world.stateAt(x + dx, y, z + dz).isAir()) {
+            world.setBlockQuietly(x + dx, y, z + dz, leaves);
+          }
+        }
+      }
+    }
+    for (int y = base.getY(); y <= top; y++) {
+      world.setBlockQuietly(x, y, z, log);
+    }
+  }
+}
@@ -0,0 +1,317 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.benchmark.sim;
+
+import com.dyingday.dronecraft.api.context.BlockIndex;
+import com.dyingday.dronecraft.api.context.IWorldAccess;
+import com.dyingday.dronecraft.api.context.SnapshotCache;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.gameevent.GameEvent;
+import net.minecraft.world.level.material.FluidState;
+import net.neoforged.neoforge.capabilities.BlockCapability;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link IWorldAccess} held entirely in memory, for running actions and executors without a
+ * Minecraft server. Blocks are stored per 16x16x16 section as one byte palette index per block,
+ * with sections allocated on first write, so worlds large enough for thousands of executors stay
+ * small. The world is unbounded horizontally and spans a fixed height.
+ *
+ * <p>Every {@link #getBlockState(BlockPos)} and {@link #setBlock(BlockPos, BlockState, int)} is
+ * counted, so simulations can report how many world reads and writes each action performs.
+ *
+ * <p>Index queries go through a real {@link BlockIndex}, which reads sections through {@link
+ * #getSectionView(int, int, int)} without counting those reads, and is told about every block
+ * change. Saplings grow into trees a fixed number of ticks after they are placed, see {@link
+ * #tick()}.
+ */
+public final class InMemoryWorld implements IWorldAccess {
+  private static final int MAX_PALETTE_SIZE = 256;
+
+  private final int minY;
+  private final int height;
+  private final RandomSource random;
+  private final Long2ObjectOpenHashMap<byte[]> sections = new Long2ObjectOpenHashMap<>();
+  private final List<BlockState> palette = new ArrayList<>();
+  private final Reference2IntOpenHashMap<BlockState> paletteIds = new Reference2IntOpenHashMap<>();
+  private final Map<BlockCapability<?, ?>, Long2ObjectOpenHashMap<Object>> capabilities =
+      new HashMap<>();
+
+  /** Index of this world, updated on every block change */
+  private final BlockIndex blockIndex;
+
+  /** Planted saplings and the game time they grow at, in planting order */
+  private final LongArrayList saplings = new LongArrayList();
+
+  private final LongArrayList saplingGrowTimes = new LongArrayList();
+  private int nextSapling = 0;
+  private int saplingGrowthTicks = 0;
+
+  private final SnapshotCache snapshotCache = new SnapshotCache(this);
+  private long gameTime = 0;
+  private long reads = 0;
+  private long writes = 0;
+
+  public InMemoryWorld(int minY, int height, long seed) {
+    MinecraftBootstrap.ensureBootstrapped();
+    this.minY = minY;
+    this.height = height;
+    this.random = RandomSource.create(seed);
+    paletteId(Blocks.AIR.defaultBlockState());
+    this.blockIndex = BlockIndex.create(this);
+  }
+
+  /** Make saplings grow into trees this many ticks after they are placed, 0 to never grow them */
+  public void setSaplingGrowthTicks(int ticks) {
+    saplingGrowthTicks = ticks;
+  }
+
+  /** Attach a capability to a position, returned for any side */
+  public <T> void setCapability(BlockCapability<@NotNull T, ?> capability, BlockPos pos, T value) {
+    capabilities
+        .computeIfAbsent(capability, c -> new Long2ObjectOpenHashMap<>())
+        .put(pos.asLong(), value);
+  }
+
+  /** Advance the game time by one tick and grow any saplings that are due */
+  public void tick() {
+    gameTime++;
+    while (nextSapling < saplings.size() && saplingGrowTimes.getLong(nextSapling) <= gameTime) {
+      BlockPos pos = BlockPos.of(saplings.getLong(nextSapling++));
+      if (stateAt(pos.getX(), pos.getY(), pos.getZ()).is(BlockTags.SAPLINGS)) {
+        ForestGenerator.growTree(this, pos, random);
+      }
+    }
+    if (nextSapling > 4096 && nextSapling * 2 > saplings.size()) {
+      saplings.removeElements(0, nextSapling);
+      saplingGrowTimes.removeElements(0, nextSapling);
+      nextSapling = 0;
+    }
+  }
+
+  public long getReads() {
+    return reads;
+  }
+
+  public long getWrites() {
+    return writes;
+  }
+
+  public void resetCounters() {
+    reads = 0;
+    writes = 0;
+  }
+
+  public int getAllocatedSections() {
+    return sections.size();
+  }
+
+  /** Set a block without counting the write, growing saplings or notifying neighbors */
+  public void setBlockQuietly(int x, int y, int z, BlockState state) {
+    if (y < minY || y >= minY + height) {
+      return;
+    }
+    long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+    byte[] section = sections.get(key);
+    int id = paletteId(state);
+    if (section == null) {
+      if (id == 0) {
+        return;
+      }
+      section = new byte[4096];
+      sections.put(key, section);
+    }
+    section[indexInSection(x, y, z)] = (byte) id;
+    BlockPos pos = new BlockPos(x, y, z);
+    snapshotCache.invalidate(pos);
+    blockIndex.onBlockChanged(pos);
+  }
+
+  /** Read a block without counting the read */
+  public BlockState stateAt(int x, int y, int z) {
+    if (y < minY || y >= minY + height) {
+      return Blocks.AIR.defaultBlockState();
+    }
+    byte[] section = sections.get(SectionPos.asLong(x >> 4, y >> 4, z >> 4));
+    if (section == null) {
+      return Blocks.AIR.defaultBlockState();
+    }
+    return palette.get(section[indexInSection(x, y, z)] & 0xFF);
+  }
+
+  @Override
+  public BlockState getBlockState(BlockPos pos) {
+    reads++;
+    return stateAt(pos.getX(), pos.getY(), pos.getZ());
+  }
+
+  @Override
+  public FluidState getFluidState(BlockPos pos) {
+    return getBlockState(pos).getFluidState();
+  }
+
+  @Override
+  public @Nullable BlockEntity getBlockEntity(BlockPos pos) {
+    return null;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getMinY() {
+    return minY;
+  }
+
+  @Override
+  public boolean setBlock(BlockPos pos, BlockState state, int flags) {
+    if (!isLoaded(pos)) {
+      return false;
+    }
+    writes++;
+    setBlockQuietly(pos.getX(), pos.getY(), pos.getZ(), state);
+    if (saplingGrowthTicks > 0 && state.is(BlockTags.SAPLINGS)) {
+      saplings.add(pos.asLong());
+      saplingGrowTimes.add(gameTime + saplingGrowthTicks);
+    }
+    return true;
+  }
+
+  @Override
+  public boolean destroyBlock(BlockPos pos, boolean dropBlock) {
+    BlockState state = getBlockState(pos);
+    if (state.isAir()) {
+      return false;
+    }
+    return setBlock(pos, state.getFluidState().createLegacyBlock(), Block.UPDATE_ALL);
+  }
+
+  @Override
+  public void levelEvent(int type, BlockPos pos, int data) {}
+
+  @Override
+  public void gameEvent(Holder<GameEvent> event, BlockPos pos, GameEvent.Context context) {}
+
+  @Override
+  public void updateNeighborsAt(BlockPos pos, Block block) {}
+
+  @Override
+  public SnapshotCache getSnapshotCache() {
+    return snapshotCache;
+  }
+
+  @Override
+  public boolean isLoaded(BlockPos pos) {
+    return pos.getY() >= minY && pos.getY() < minY + height;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @Nullable <T, C> T getCapability(
+      BlockCapability<@NotNull T, C> capability, BlockPos pos, @Nullable C context) {
+    Long2ObjectOpenHashMap<Object> values = capabilities.get(capability);
+    return values == null ? null : (T) values.get(pos.asLong());
+  }
+
+  @Override
+  public long getGameTime() {
+    return gameTime;
+  }
+
+  @Override
+  public RandomSource getRandom() {
+    return random;
+  }
+
+  @Override
+  public BlockIndex getBlockIndex() {
+    return blockIndex;
+  }
+
+  @Override
+  public boolean prepareIndex(BlockPos from, BlockPos to, int budget) {
+    return blockIndex.prepare(from, to, budget);
+  }
+
+  @Override
+  public Optional<BlockPos> findNearestIndexed(
+      BlockIndex.Category category, BlockPos center, BlockPos from, BlockPos to) {
+    return blockIndex.findNearest(category, center, from, to);
+  }
+
+  @Override
+  public List<BlockPos> findAllIndexed(BlockIndex.Category category, BlockPos from, BlockPos to) {
+    return blockIndex.findAll(category, from, to);
+  }
+
+  @Override
+  public @Nullable SectionView getSectionView(int sectionX, int sectionY, int sectionZ) {
+    int bottom = SectionPos.sectionToBlockCoord(sectionY);
+    if (bottom + 15 < minY || bottom >= minY + height) {
+      return null;
+    }
+    byte[] section = sections.get(SectionPos.asLong(sectionX, sectionY, sectionZ));
+    if (section == null) {
+      BlockState air = Blocks.AIR.defaultBlockState();
+      return new SectionView() {
+        @Override
+        public BlockState get(int x, int y, int z) {
+          return air;
+        }
+
+        @Override
+        public boolean maybeHas(Predicate<BlockState> predicate) {
+          return predicate.test(air);
+        }
+      };
+    }
+    return new SectionView() {
+      @Override
+      public BlockState get(int x, int y, int z) {
+        return palette.get(section[indexInSection(x, y, z)] & 0xFF);
+      }
+
+      @Override
+      public boolean maybeHas(Predicate<BlockState> predicate) {
+        // The palette is shared by every section, so this only rules out states never placed
+        return palette.stream().anyMatch(predicate);
+      }
+    };
+  }
+
+  private int paletteId(BlockState state) {
+    int id = paletteIds.getOrDefault(state, -1);
+    if (id < 0) {
+      if (palette.size() == MAX_PALETTE_SIZE) {
+        throw new IllegalStateException("In-memory world palette is full");
+      }
+      id = palette.size();
+      palette.add(state);
+      paletteIds.put(state, id);
+    }
+    return id;
+  }
+
+  private static int indexInSection(int x, int y, int z) {
+    return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+  }
+}
@@ -0,0 +1,103 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.benchmark.sim;
+
+import com.dyingday.dronecraft.api.behavior.action.ActionCategory;
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import java.util.List;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+
+/**
+ * Wraps an action to count its executions and the world reads and writes they perform. The action
+ * must run against an {@link InMemoryWorld}. Wrappers can share a {@link Meter} to aggregate over
+ * many executors.
+ */
+public final class MeteredAction implements IAction {
+  private final IAction action;
+  private final Meter meter;
+
+  public MeteredAction(IAction action, Meter meter) {
+    this.action = action;
+    this.meter = meter;
+  }
+
+  @Override
+  public ActionResult execute(ActionContext context) {
+    InMemoryWorld world = (InMemoryWorld) context.getWorld();
+    long reads = world.getReads();
+    long writes = world.getWrites();
+    ActionResult result = action.execute(context);
+    meter.executions++;
+    meter.reads += world.getReads() - reads;
+    meter.writes += world.getWrites() - writes;
+    return result;
+  }
+
+  @Override
+  public boolean canExecute(ActionContext context) {
+    return action.canExecute(context);
+  }
+
+  @Override
+  public Component getDisplayName() {
+    return action.getDisplayName();
+  }
+
+  @Override
+  public ActionCategory getCategory() {
+    return action.getCategory();
+  }
+
+  @Override
+  public CompoundTag serializeNBT() {
+    return action.serializeNBT();
+  }
+
+  @Override
+  public void deserializeNBT(CompoundTag nbt) {
+    action.deserializeNBT(nbt);
+  }
+
+  @Override
+  public Object createState() {
+    return action.createState();
+  }
+
+  @Override
+  public List<VariableKey<?>> getVariableKeys() {
+    return action.getVariableKeys();
+  }
+
+  @Override
+  public IAction copy() {
+    return new MeteredAction(action.copy(), meter);
+  }
+
+  /** Executions, reads and writes of one action type */
+  public static final class Meter {
+    long executions;
+    long reads;
+    long writes;
+
+    public long getExecutions() {
+      return executions;
+    }
+
+    public long getReads() {
+      return reads;
+    }
+
+    public long getWrites() {
+      return writes;
+    }
+
+    public void reset() {
+      executions = 0;
+      reads = 0;
+      writes = 0;
+    }
+  }
+}
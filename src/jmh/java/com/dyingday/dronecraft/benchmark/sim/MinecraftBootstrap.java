@@ -0,0 +1,53 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.benchmark.sim;
+
+import java.util.List;
+import java.util.Map;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.tags.TagKey;
+import net.minecraft.tags.TagLoader;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+
+/**
+ * Initialises the vanilla registries so benchmarks and simulations can use real blocks without a
+ * server. Block tags normally come from data packs, so the tags the tree farm actions check are
+ * bound here by hand to the blocks the simulated forests use.
+ */
+public final class MinecraftBootstrap {
+  private static boolean bootstrapped = false;
+
+  private MinecraftBootstrap() {}
+
+  public static synchronized void ensureBootstrapped() {
+    if (bootstrapped) {
+      return;
+    }
+    SharedConstants.tryDetectVersion();
+    Bootstrap.bootStrap();
+    bindTreeFarmTags();
+    bootstrapped = true;
+  }
+
+  private static void bindTreeFarmTags() {
+    Map<TagKey<Block>, List<Holder<Block>>> tags =
+        Map.of(
+            BlockTags.LOGS, List.of(holder(Blocks.OAK_LOG)),
+            BlockTags.LEAVES, List.of(holder(Blocks.OAK_LEAVES)),
+            BlockTags.SAPLINGS, List.of(holder(Blocks.OAK_SAPLING)),
+            BlockTags.DIRT, List.of(holder(Blocks.DIRT), holder(Blocks.GRASS_BLOCK)));
+    BuiltInRegistries.BLOCK
+        .prepareTagReload(new TagLoader.LoadResult<>(Registries.BLOCK, tags))
+        .apply();
+  }
+
+  @SuppressWarnings("deprecation")
+  private static Holder<Block> holder(Block block) {
+    return block.builtInRegistryHolder();
+  }
+}
@@ -0,0 +1,115 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.benchmark.sim;
+
+import com.dyingday.dronecraft.DroneCraft;
+import com.dyingday.dronecraft.api.context.executor.IExecutor;
+import java.util.UUID;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.Identifier;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.neoforge.capabilities.BlockCapability;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.capabilities.EntityCapability;
+import net.neoforged.neoforge.capabilities.ItemCapability;
+import net.neoforged.neoforge.transfer.energy.SimpleEnergyHandler;
+import net.neoforged.neoforge.transfer.transaction.Transaction;
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Fake executor that exists outside of any level, for use with an {@link InMemoryWorld} given to
+ * the action context. It reports itself as block-based so the action context resolves its energy
+ * capability, which starts out full with an effectively unlimited capacity.
+ */
+public final class SimulatedExecutor implements IExecutor {
+  public static final Identifier TYPE =
+      Identifier.fromNamespaceAndPath(DroneCraft.MODID, "simulated");
+
+  private final UUID id = UUID.randomUUID();
+  private final BlockPos pos;
+  private final SimpleEnergyHandler energy =
+      new SimpleEnergyHandler(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+  public SimulatedExecutor(BlockPos pos) {
+    this.pos = pos;
+    try (Transaction transaction = Transaction.openRoot()) {
+      energy.insert(Integer.MAX_VALUE, transaction);
+      transaction.commit();
+    }
+  }
+
+  @Override
+  public @Nullable Level getLevel() {
+    return null;
+  }
+
+  @Override
+  public BlockPos getBlockPos() {
+    return pos;
+  }
+
+  @Override
+  public Vec3 getPosition() {
+    return Vec3.atCenterOf(pos);
+  }
+
+  @Override
+  public boolean isRemoved() {
+    return false;
+  }
+
+  @Override
+  public UUID getExecutorId() {
+    return id;
+  }
+
+  @Override
+  public Identifier getExecutorType() {
+    return TYPE;
+  }
+
+  @Override
+  public Direction getFacing() {
+    return Direction.NORTH;
+  }
+
+  @Override
+  public Vec3 getLookVector() {
+    return Vec3.ZERO;
+  }
+
+  @Override
+  public Object getUnderlyingExecutor() {
+    return this;
+  }
+
+  @Override
+  public boolean isBlockBased() {
+    return true;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> @Nullable T getCapability(
+      BlockCapability<@NotNull T, @Nullable Direction> capability, @Nullable Direction side) {
+    return capability == Capabilities.Energy.BLOCK ? (T) energy : null;
+  }
+
+  @Override
+  public <T> @Nullable T getCapability(EntityCapability<@NotNull T, Void> capability) {
+    return null;
+  }
+
+  @Override
+  public <T> @Nullable T getCapability(
+      EntityCapability<@NotNull T, @Nullable Direction> capability, @Nullable Direction side) {
+    return null;
+  }
+
+  @Override
+  public <T> @Nullable T getCapability(ItemCapability<@NotNull T, ?> capability) {
+    return null;
+  }
+}
@@ -0,0 +1,112 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.benchmark.sim;
+
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.registry.ActionRegistry;
+import com.dyingday.dronecraft.registration.DCActions;
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import net.minecraft.resources.Identifier;
+
+/**
+ * Runs a {@link TreeFarmSimulation} offline and reports executor ticks per second, bytes
+ * allocated per tick and world reads and writes per action execution.
+ *
+ * <p>Options, all optional: {@code --executors N}, {@code --ticks N}, {@code --warmup N}, {@code
+ * --spacing N}, {@code --growth N}, {@code --seed N} and {@code --optimize 0|1}.
+ */
+public final class SimulationDriver {
+  private SimulationDriver() {}
+
+  public static void main(String[] args) {
+    Map<String, Long> options = new LinkedHashMap<>();
+    options.put("executors", 10_000L);
+    options.put("ticks", 1_200L);
+    options.put("warmup", 200L);
+    options.put("spacing", 6L);
+    options.put("growth", 600L);
+    options.put("seed", 42L);
+    options.put("optimize", 1L);
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      String name = args[i].replaceFirst("^--", "");
+      if (!options.containsKey(name)) {
+        throw new IllegalArgumentException("Unknown option: " + args[i]);
+      }
+      options.put(name, Long.parseLong(args[i + 1]));
+    }
+
+    MinecraftBootstrap.ensureBootstrapped();
+    if (!ActionRegistry.isRegistered(DCActions.FIND_TREE)) {
+      DCActions.register();
+    }
+
+    Map<Identifier, MeteredAction.Meter> meters = new LinkedHashMap<>();
+    int executorCount = options.get("executors").intValue();
+    TreeFarmSimulation simulation =
+        new TreeFarmSimulation(
+            executorCount,
+            options.get("spacing").intValue(),
+            options.get("growth").intValue(),
+            options.get("seed"),
+            options.get("optimize") != 0,
+            action -> meter(action, meters));
+
+    long warmup = options.get("warmup");
+    for (long tick = 0; tick < warmup; tick++) {
+      simulation.tick();
+    }
+    meters.values().forEach(MeteredAction.Meter::reset);
+
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long ticks = options.get("ticks");
+    long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+    long start = System.nanoTime();
+    for (long tick = 0; tick < ticks; tick++) {
+      simulation.tick();
+    }
+    long elapsed = System.nanoTime() - start;
+    long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+    double seconds = elapsed / 1e9;
+    System.out.printf(
+        Locale.ROOT,
+        "Simulated %d executors for %d ticks after %d warmup ticks%n",
+        executorCount,
+        ticks,
+        warmup);
+    System.out.printf(
+        Locale.ROOT, "  executor ticks/sec   %,.0f%n", executorCount * ticks / seconds);
+    System.out.printf(Locale.ROOT, "  mean tick           %.3f ms%n", elapsed / 1e6 / ticks);
+    System.out.printf(Locale.ROOT, "  allocated per tick  %,d bytes%n", allocated / ticks);
+    System.out.printf(
+        Locale.ROOT,
+        "  allocated per executor tick  %.1f bytes%n",
+        (double) allocated / ticks / executorCount);
+    System.out.printf(
+        Locale.ROOT,
+        "%n  %-28s %12s %12s %12s%n",
+        "action",
+        "executions",
+        "reads/exec",
+        "writes/exec");
+    meters.forEach(
+        (id, meter) ->
+            System.out.printf(
+                Locale.ROOT,
+                "  %-28s %,12d %12.1f %12.2f%n",
+                id,
+                meter.getExecutions(),
+                meter.getExecutions() == 0 ? 0 : (double) meter.getReads() / meter.getExecutions(),
+                meter.getExecutions() == 0
+                    ? 0
+                    : (double) meter.getWrites() / meter.getExecutions()));
+  }
+
+  private static IAction meter(IAction action, Map<Identifier, MeteredAction.Meter> meters) {
+    Identifier id = ActionRegistry.getId(action).orElse(ActionRegistry.UNREGISTERED);
+    return new MeteredAction(action, meters.computeIfAbsent(id, i -> new MeteredAction.Meter()));
+  }
+}
@@ -0,0 +1,125 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.benchmark.sim;
+
+import com.dyingday.dronecraft.DroneCraft;
+import com.dyingday.dronecraft.api.behavior.Behavior;
+import com.dyingday.dronecraft.api.behavior.BehaviorExecutor;
+import com.dyingday.dronecraft.api.behavior.FailurePolicy;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import com.dyingday.dronecraft.api.context.ResourceLimits;
+import com.dyingday.dronecraft.behavior.BehaviorPasses;
+import com.dyingday.dronecraft.behavior.action.FindTreeAction;
+import com.dyingday.dronecraft.behavior.action.HarvestTreeAction;
+import com.dyingday.dronecraft.behavior.action.PlantSaplingAction;
+import com.dyingday.dronecraft.behavior.action.WaitAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.Identifier;
+import net.minecraft.util.RandomSource;
+
+/**
+ * A grid of tree farm executors working a generated forest in an {@link InMemoryWorld}. Each
+ * executor runs the same behavior as a drone station, in a square cell of its own, though its
+ * search radius reaches into the neighbouring cells.
+ */
+public final class TreeFarmSimulation {
+  public static final int CELL_SIZE = 16;
+  public static final int WORLD_HEIGHT = 32;
+
+  private final InMemoryWorld world;
+  private final List<BehaviorExecutor> executors = new ArrayList<>();
+
+  /**
+   * @param executorCount Number of executors, laid out on a square grid
+   * @param treeSpacing Distance between trees along each axis
+   * @param saplingGrowthTicks Ticks for a planted sapling to grow back into a tree
+   * @param seed Seed of the forest and the world's random source
+   * @param optimize Whether to run the behavior optimizer over the behavior first
+   * @param wrapAction Applied to every action of the behavior once it is optimized
+   */
+  public TreeFarmSimulation(
+      int executorCount,
+      int treeSpacing,
+      int saplingGrowthTicks,
+      long seed,
+      boolean optimize,
+      UnaryOperator<IAction> wrapAction) {
+    world = new InMemoryWorld(0, WORLD_HEIGHT, seed);
+    world.setSaplingGrowthTicks(saplingGrowthTicks);
+
+    // Every executor shares one program, like drone stations do
+    Behavior behavior = createBehavior(optimize, wrapAction);
+    int side = (int) Math.ceil(Math.sqrt(executorCount));
+    ForestGenerator.generate(
+        world, side * CELL_SIZE, side * CELL_SIZE, treeSpacing, RandomSource.create(seed));
+
+    for (int i = 0; i < executorCount; i++) {
+      BlockPos pos =
+          new BlockPos(
+              (i % side) * CELL_SIZE + CELL_SIZE / 2,
+              ForestGenerator.GROUND_Y + 1,
+              (i / side) * CELL_SIZE + CELL_SIZE / 2);
+      ActionContext context =
+          new ActionContext.Builder(new SimulatedExecutor(pos))
+              .world(world)
+              .maxTicksPerAction(1000)
+              .resourceLimits(ResourceLimits.DEFAULT)
+              .build();
+      executors.add(new BehaviorExecutor(behavior, context));
+    }
+    world.resetCounters();
+  }
+
+  public TreeFarmSimulation(int executorCount, int treeSpacing, int saplingGrowthTicks, long seed) {
+    this(executorCount, treeSpacing, saplingGrowthTicks, seed, true, UnaryOperator.identity());
+  }
+
+  /** The behavior a drone station runs, see {@code DroneStationBE} */
+  private static Behavior createBehavior(boolean optimize, UnaryOperator<IAction> wrapAction) {
+    Identifier id = Identifier.fromNamespaceAndPath(DroneCraft.MODID, "tree_farm");
+    Behavior behavior =
+        new Behavior(
+                id,
+                List.of(
+                    new FindTreeAction(),
+                    new HarvestTreeAction(),
+                    new PlantSaplingAction(),
+                    new WaitAction(100)),
+                true)
+            .withFailurePolicy(0, FailurePolicy.retryThenSkip(8, 20, 1200))
+            .withFailurePolicy(2, FailurePolicy.retryThenSkip(3, 10, 40));
+    if (optimize) {
+      behavior = BehaviorPasses.OPTIMIZER.optimize(behavior).behavior();
+    }
+
+    // The program stays a plain list of actions, so it can be rebuilt around the wrapped actions
+    List<IAction> actions = new ArrayList<>();
+    for (IAction action : behavior.getProgram().getActions()) {
+      actions.add(wrapAction.apply(action));
+    }
+    Behavior wrapped = new Behavior(id, actions, true);
+    for (int i = 0; i < actions.size(); i++) {
+      wrapped = wrapped.withFailurePolicy(i, behavior.getFailurePolicy(i));
+    }
+    return wrapped;
+  }
+
+  /** Advance the world one tick, then tick every executor once */
+  public void tick() {
+    world.tick();
+    for (int i = 0; i < executors.size(); i++) {
+      executors.get(i).tick();
+    }
+  }
+
+  public InMemoryWorld getWorld() {
+    return world;
+  }
+
+  public List<BehaviorExecutor> getExecutors() {
+    return executors;
+  }
+}
@@ -1,24 +1,61 @@
 /* (C)2025 */
 package com.dyingday.dronecraft;
 
+import com.dyingday.dronecraft.api.behavior.DroneTickScheduler;
+import com.dyingday.dronecraft.api.behavior.async.AsyncActions;
+import com.dyingday.dronecraft.api.context.BlockIndex;
+import com.dyingday.dronecraft.api.context.SnapshotCache;
+import com.dyingday.dronecraft.api.profiling.ActionProfiler;
 import com.dyingday.dronecraft.blockentity.DroneStationBE;
+import com.dyingday.dronecraft.command.DCCommands;
+import com.dyingday.dronecraft.config.DCConfig;
 import com.dyingday.dronecraft.registration.*;
+import net.neoforged.bus.api.EventPriority;
 import net.neoforged.bus.api.IEventBus;
+import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.common.Mod;
+import net.neoforged.fml.config.ModConfig;
+import net.neoforged.fml.event.config.ModConfigEvent;
 import net.neoforged.neoforge.capabilities.RegisterCapabilitiesEvent;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
 
 @Mod(DroneCraft.MODID)
 public class DroneCraft {
   public static final String MODID = "dronecraft";
 
-  public DroneCraft(IEventBus modBus) {
+  public DroneCraft(IEventBus modBus, ModContainer modContainer) {
     DCBlocks.BLOCKS.register(modBus);
     DCBlockEntities.BLOCK_ENTITIES.register(modBus);
     DCItems.ITEMS.register(modBus);
     DCEntities.ENTITIES.register(modBus);
     DCCreativeTab.CREATIVE_MOD_TABS.register(modBus);
+    DCActions.register();
+
+    if (DCGameTests.isEnabled()) {
+      DCGameTests.TEST_FUNCTIONS.register(modBus);
+      modBus.addListener(DCGameTests::registerTests);
+    }
+
+    modContainer.registerConfig(ModConfig.Type.SERVER, DCConfig.SPEC);
 
     modBus.addListener(this::registerCapabilities);
+    modBus.addListener(ModConfigEvent.Loading.class, DCConfig::onConfigChanged);
+    modBus.addListener(ModConfigEvent.Reloading.class, DCConfig::onConfigChanged);
+
+    NeoForge.EVENT_BUS.addListener(AsyncActions::onServerTick);
+    NeoForge.EVENT_BUS.addListener(AsyncActions::onServerStopped);
+    NeoForge.EVENT_BUS.addListener(DroneTickScheduler::onLevelTick);
+    NeoForge.EVENT_BUS.addListener(DroneTickScheduler::onLevelUnload);
+    NeoForge.EVENT_BUS.addListener(BlockIndex::onNeighborNotify);
+    NeoForge.EVENT_BUS.addListener(BlockIndex::onChunkUnload);
+    NeoForge.EVENT_BUS.addListener(BlockIndex::onLevelUnload);
+    NeoForge.EVENT_BUS.addListener(SnapshotCache::onNeighborNotify);
+    NeoForge.EVENT_BUS.addListener(
+        EventPriority.LOWEST, LevelTickEvent.Post.class, SnapshotCache::onLevelTick);
+    NeoForge.EVENT_BUS.addListener(SnapshotCache::onLevelUnload);
+    NeoForge.EVENT_BUS.addListener(ActionProfiler::onServerTick);
+    NeoForge.EVENT_BUS.addListener(DCCommands::register);
   }
 
   private void registerCapabilities(RegisterCapabilitiesEvent event) {
@@ -0,0 +1,17 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior;
+
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.context.ActionContext;
+
+/** Executes the actions of one program by index, see {@link ProgramCompiler} */
+interface ActionDispatcher {
+  /**
+   * Execute an action of the program.
+   *
+   * @param actionIndex Index of the action in the program's action pool
+   * @param context The execution context
+   * @return The result of the action
+   */
+  ActionResult execute(int actionIndex, ActionContext context);
+}
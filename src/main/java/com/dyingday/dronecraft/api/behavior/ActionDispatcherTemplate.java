@@ -0,0 +1,73 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior;
+
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+/**
+ * Bytecode template of the dispatchers {@link ProgramCompiler} generates. This class is never
+ * loaded as is: its class file is defined again as a hidden class for every compiled program, with
+ * the program's actions as class data. Each copy has its own static final fields, which the JIT
+ * treats as constants, so every call site below only ever sees one action and is inlined into a
+ * direct call of that action's {@code execute}.
+ */
+final class ActionDispatcherTemplate implements ActionDispatcher {
+  /** Number of actions called through constant method handles */
+  static final int SLOTS = 8;
+
+  private static final MethodHandle ACTION_0;
+  private static final MethodHandle ACTION_1;
+  private static final MethodHandle ACTION_2;
+  private static final MethodHandle ACTION_3;
+  private static final MethodHandle ACTION_4;
+  private static final MethodHandle ACTION_5;
+  private static final MethodHandle ACTION_6;
+  private static final MethodHandle ACTION_7;
+
+  /** All actions of the program, for those past the slots */
+  private static final IAction[] ACTIONS;
+
+  static {
+    try {
+      // Class data: one execute handle per slot, followed by the action array
+      List<?> data = MethodHandles.classData(MethodHandles.lookup(), "_", List.class);
+      ACTION_0 = (MethodHandle) data.get(0);
+      ACTION_1 = (MethodHandle) data.get(1);
+      ACTION_2 = (MethodHandle) data.get(2);
+      ACTION_3 = (MethodHandle) data.get(3);
+      ACTION_4 = (MethodHandle) data.get(4);
+      ACTION_5 = (MethodHandle) data.get(5);
+      ACTION_6 = (MethodHandle) data.get(6);
+      ACTION_7 = (MethodHandle) data.get(7);
+      ACTIONS = (IAction[]) data.get(SLOTS);
+    } catch (IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  @Override
+  public ActionResult execute(int actionIndex, ActionContext context) {
+    try {
+      return switch (actionIndex) {
+        case 0 -> (ActionResult) ACTION_0.invokeExact(context);
+        case 1 -> (ActionResult) ACTION_1.invokeExact(context);
+        case 2 -> (ActionResult) ACTION_2.invokeExact(context);
+        case 3 -> (ActionResult) ACTION_3.invokeExact(context);
+        case 4 -> (ActionResult) ACTION_4.invokeExact(context);
+        case 5 -> (ActionResult) ACTION_5.invokeExact(context);
+        case 6 -> (ActionResult) ACTION_6.invokeExact(context);
+        case 7 -> (ActionResult) ACTION_7.invokeExact(context);
+        default -> ACTIONS[actionIndex].execute(context);
+      };
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      // IAction.execute declares no checked exceptions
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import java.util.function.Predicate;
+
+/**
+ * Condition that holds while an action can execute, see {@link IAction#canExecute(ActionContext)}.
+ * Programs check it before running the action, see {@link
+ * BehaviorProgram.Builder#guardedAction(IAction)}, and the {@link BehaviorOptimizer} recognizes it
+ * so checks that can never fail are resolved when a behavior is loaded.
+ *
+ * @param action The action whose check this is
+ */
+@ApiStatus.Experimental
+public record ActionGuard(IAction action) implements Predicate<ActionContext> {
+  @Override
+  public boolean test(ActionContext context) {
+    return action.canExecute(context);
+  }
+}
@@ -2,14 +2,28 @@
 package com.dyingday.dronecraft.api.behavior;
 
 import com.dyingday.dronecraft.api.behavior.action.IAction;
-import java.util.Collections;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import com.dyingday.dronecraft.api.context.VariableLayout;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import net.minecraft.resources.Identifier;
 
 /**
  * Represents a sequence of actions that can be executed by a drone or executor. A behavior is an
- * ordered list of actions that execute sequentially, with optional looping behavior. The behavior
- * tracks the current execution position and can be reset to start from the beginning.
+ * ordered list of actions that execute sequentially, with optional looping behavior.
+ *
+ * <p>Behaviors are immutable programs. The execution position and the state of the running action
+ * are kept by each {@link BehaviorExecutor} in its {@link ExecutionFrame}, so one behavior can be
+ * shared by any number of executors. Actions must therefore keep execution state in the state
+ * object they create through {@link IAction#createState()}, not in their own fields.
+ *
+ * <p>A behavior is compiled into a {@link BehaviorProgram} when it is created, which is what the
+ * executor actually runs. Behaviors with jumps, conditions or variable changes between their
+ * actions can be created from a program directly.
  *
  * <p>Behaviors are typically created through the visual programming interface and stored/loaded via
  * codecs for persistence.
@@ -21,11 +35,23 @@ public class Behavior {
   /** Ordered list of actions to execute */
   private final List<IAction> actions;
 
+  /** The compiled instructions */
+  private final BehaviorProgram program;
+
   /** Whether this behavior should loop back to the start when complete */
   private final boolean looping;
 
-  /** Current position in the action sequence (0-indexed) */
-  private int currentActionIndex = 0;
+  /** Failure policies of individual actions, keyed by action index */
+  private final Map<Integer, FailurePolicy> failurePolicies;
+
+  /** Slots of the context variables the actions declare */
+  private final VariableLayout variableLayout;
+
+  /** Failure policy of actions without their own policy */
+  private final FailurePolicy defaultFailurePolicy;
+
+  /** Failure policy of every action, indexed by action index */
+  private final FailurePolicy[] resolvedFailurePolicies;
 
   /**
    * Create a new behavior with the specified actions.
@@ -35,9 +61,63 @@ public class Behavior {
    * @param looping Whether the behavior should loop
    */
   public Behavior(Identifier id, List<IAction> actions, boolean looping) {
+    this(id, BehaviorProgram.of(actions, looping));
+  }
+
+  /**
+   * Create a new behavior running a program.
+   *
+   * @param id Unique identifier for this behavior
+   * @param program The program to run
+   */
+  public Behavior(Identifier id, BehaviorProgram program) {
+    this(id, program, Map.of());
+  }
+
+  /** Create a behavior running a program with failure policies, keyed by action index */
+  Behavior(Identifier id, BehaviorProgram program, Map<Integer, FailurePolicy> failurePolicies) {
     this.id = id;
-    this.actions = actions;
-    this.looping = looping;
+    this.program = program;
+    this.actions = program.getActions();
+    this.looping = program.isLooping();
+    this.failurePolicies = failurePolicies;
+    this.defaultFailurePolicy = FailurePolicy.SKIP;
+    this.resolvedFailurePolicies = resolveFailurePolicies();
+
+    Set<VariableKey<?>> keys = new LinkedHashSet<>();
+    for (IAction action : actions) {
+      keys.addAll(action.getVariableKeys());
+    }
+    keys.addAll(program.getVariableKeys());
+    this.variableLayout = new VariableLayout(keys);
+  }
+
+  /** Copy a behavior with different failure policies */
+  private Behavior(
+      Behavior behavior,
+      Map<Integer, FailurePolicy> failurePolicies,
+      FailurePolicy defaultFailurePolicy) {
+    this.id = behavior.id;
+    this.program = behavior.program;
+    this.actions = behavior.actions;
+    this.looping = behavior.looping;
+    this.variableLayout = behavior.variableLayout;
+    this.failurePolicies = failurePolicies;
+    this.defaultFailurePolicy = defaultFailurePolicy;
+    this.resolvedFailurePolicies = resolveFailurePolicies();
+  }
+
+  /** Look up the policy of every action once, so failures need no map lookup */
+  private FailurePolicy[] resolveFailurePolicies() {
+    FailurePolicy[] policies = new FailurePolicy[actions.size()];
+    Arrays.fill(policies, defaultFailurePolicy);
+    failurePolicies.forEach(
+        (index, policy) -> {
+          if (index >= 0 && index < policies.length) {
+            policies[index] = policy;
+          }
+        });
+    return policies;
   }
 
   /**
@@ -52,10 +132,19 @@ public class Behavior {
   /**
    * Get the ordered list of actions in this behavior.
    *
-   * @return Unmodifiable view of the action list
+   * @return Unmodifiable action list
    */
   public List<IAction> getActions() {
-    return Collections.unmodifiableList(actions);
+    return actions;
+  }
+
+  /**
+   * Get the compiled program of this behavior.
+   *
+   * @return The program the executor runs
+   */
+  public BehaviorProgram getProgram() {
+    return program;
   }
 
   /**
@@ -68,30 +157,79 @@ public class Behavior {
   }
 
   /**
-   * Get the current execution position in the action sequence.
+   * Get the slots of the context variables used by this behavior's actions.
    *
-   * @return The 0-indexed position of the action currently being executed
+   * @return The variable layout
    */
-  public int getCurrentActionIndex() {
-    return currentActionIndex;
+  public VariableLayout getVariableLayout() {
+    return variableLayout;
+  }
+
+  /**
+   * Get the failure policy of an action.
+   *
+   * @param actionIndex The 0-indexed position of the action
+   * @return The action's own policy, or the default policy if it has none
+   */
+  public FailurePolicy getFailurePolicy(int actionIndex) {
+    return actionIndex >= 0 && actionIndex < resolvedFailurePolicies.length
+        ? resolvedFailurePolicies[actionIndex]
+        : defaultFailurePolicy;
   }
 
   /**
-   * Set the current execution position in the action sequence. This allows jumping to specific
-   * actions or resuming from a saved state.
+   * Copy this behavior with a failure policy for an action, deciding how often it is retried and
+   * what happens once it keeps failing.
    *
-   * @param currentActionIndex The 0-indexed position to set (should be within bounds of action
-   *     list)
+   * @param actionIndex The 0-indexed position of the action
+   * @param policy The policy to use for that action
+   * @return A behavior with the policy set
    */
-  public void setCurrentActionIndex(int currentActionIndex) {
-    this.currentActionIndex = currentActionIndex;
+  public Behavior withFailurePolicy(int actionIndex, FailurePolicy policy) {
+    Map<Integer, FailurePolicy> policies = new HashMap<>(failurePolicies);
+    policies.put(actionIndex, policy);
+    return new Behavior(this, Map.copyOf(policies), defaultFailurePolicy);
   }
 
   /**
-   * Reset the behavior to start execution from the beginning. This sets the current action index
-   * back to 0.
+   * Copy this behavior with a failure policy for every action without its own policy. Defaults to
+   * {@link FailurePolicy#SKIP}.
+   *
+   * @param policy The default policy
+   * @return A behavior with the default policy set
    */
-  public void reset() {
-    currentActionIndex = 0;
+  public Behavior withDefaultFailurePolicy(FailurePolicy policy) {
+    return new Behavior(this, failurePolicies, policy);
   }
+
+  /**
+   * Get the current execution position in the action sequence.
+   *
+   * @return Always 0, since behaviors no longer keep an execution position
+   * @deprecated Behaviors are shared by every executor running them, so the position is kept by
+   *     each executor, see {@link ExecutionFrame#getActionIndex()}
+   */
+  @Deprecated
+  public int getCurrentActionIndex() {
+    return 0;
+  }
+
+  /**
+   * Set the current execution position in the action sequence. Has no effect.
+   *
+   * @param currentActionIndex The 0-indexed position to set
+   * @deprecated Behaviors are shared by every executor running them, so the position is kept by
+   *     each executor and cannot be set through the behavior
+   */
+  @Deprecated
+  public void setCurrentActionIndex(int currentActionIndex) {}
+
+  /**
+   * Reset the behavior to start execution from the beginning. Has no effect.
+   *
+   * @deprecated Behaviors are shared by every executor running them, use {@link
+   *     BehaviorExecutor#reset()} to restart one executor
+   */
+  @Deprecated
+  public void reset() {}
 }
@@ -4,18 +4,34 @@ package com.dyingday.dronecraft.api.behavior;
 import com.dyingday.dronecraft.api.behavior.action.ActionResult;
 import com.dyingday.dronecraft.api.behavior.action.IAction;
 import com.dyingday.dronecraft.api.context.ActionContext;
-import java.util.List;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import com.dyingday.dronecraft.api.profiling.ActionExecuteEvent;
+import com.dyingday.dronecraft.api.profiling.ActionProfiler;
+import com.dyingday.dronecraft.api.profiling.ExecutorTickEvent;
+import com.dyingday.dronecraft.api.registry.ActionRegistry;
+import jdk.jfr.EventType;
+import net.minecraft.resources.Identifier;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Manages the execution of a behavior's action sequence. The executor handles the sequential
  * execution of actions, state transitions, looping behavior, and execution control
- * (pause/resume/stop). It processes one action per tick and manages the progression through the
- * action list based on action results.
+ * (pause/resume/stop). It interprets the behavior's compiled {@link BehaviorProgram}, processing
+ * one action per tick and moving through the program based on action results.
  *
- * <p>The executor maintains its own execution state separate from the behavior itself, allowing
- * multiple executors to run the same behavior independently.
+ * <p>The executor keeps its execution position and the state of the running action in its own
+ * {@link ExecutionFrame}, separate from the behavior itself, allowing any number of executors to
+ * share the same behavior and run it independently.
+ *
+ * <p>Executors are normally driven by the {@link DroneTickScheduler} of their level rather than
+ * ticked directly by their owner, which keeps the total cost of all executors within a budget.
  */
 public class BehaviorExecutor {
+  /** Flight recorder event types, checked so no event is created while a type is disabled */
+  private static final EventType TICK_EVENT = EventType.getEventType(ExecutorTickEvent.class);
+
+  private static final EventType EXECUTE_EVENT = EventType.getEventType(ActionExecuteEvent.class);
+
   /** The behavior being executed */
   private final Behavior behavior;
 
@@ -25,6 +41,46 @@ public class BehaviorExecutor {
   /** Current execution state of this executor */
   private BehaviorExecutorState state;
 
+  /** Game time at which a sleeping executor wakes up, or -1 if it is not sleeping */
+  private long wakeGameTime = -1;
+
+  /** Signal a blocked executor is waiting for, or null if it is not waiting for a signal */
+  @Nullable private Identifier wakeSignal;
+
+  /** Action position and action state of this executor */
+  private final ExecutionFrame frame = new ExecutionFrame();
+
+  /** Cancels the async work started by the current run, replaced when the executor is reset */
+  private CancellationToken cancellationToken = new CancellationToken();
+
+  /** Compiled dispatcher of the behavior's program, or null until it has one */
+  @Nullable private ActionDispatcher dispatcher;
+
+  /** Whether the program failed to compile, so only the interpreter is used */
+  private boolean interpretOnly = false;
+
+  /// Scheduler bookkeeping, owned by DroneTickScheduler
+  /** The scheduler currently ticking this executor, or null if it is ticked manually */
+  DroneTickScheduler scheduler;
+
+  /** Previous executor in the scheduler's runnable list or timing wheel slot */
+  BehaviorExecutor prev;
+
+  /** Next executor in the scheduler's runnable list or timing wheel slot */
+  BehaviorExecutor next;
+
+  /** Whether this executor is in the scheduler's runnable list */
+  boolean active;
+
+  /** Timing wheel slot this executor is parked in, or -1 if it is not in the wheel */
+  int wheelSlot = -1;
+
+  /** Timing wheel tick this executor expires on */
+  long wheelDeadline;
+
+  /** Last scheduler tick this executor was visited in */
+  long lastTickNumber = -1;
+
   /**
    * Create a new behavior executor. The executor starts in the RUNNING state and begins execution
    * on the first tick.
@@ -35,84 +91,336 @@ public class BehaviorExecutor {
   public BehaviorExecutor(Behavior behavior, ActionContext context) {
     this.behavior = behavior;
     this.context = context;
+    context.useVariableLayout(behavior.getVariableLayout());
+    context.useCancellationToken(cancellationToken);
     state = BehaviorExecutorState.RUNNING;
   }
 
   /**
    * Execute one tick of the behavior. This processes the current action and handles state
-   * transitions based on the result. Only executes when in the RUNNING state.
+   * transitions based on the result. Only executes when in the RUNNING state, or when in the
+   * WAITING state and the wake-up time has been reached.
    *
    * <p>Action result handling:
    *
    * <ul>
    *   <li>SUCCESS: Advances to the next action and resets execution state
-   *   <li>FAILURE: Currently advances to next action (TODO: implement failure handling)
+   *   <li>FAILURE: Applies the action's {@link FailurePolicy}: retries the action after a backoff
+   *       sleep until its retries are used up, then skips to the next action or aborts
    *   <li>CONTINUE: Keeps executing the same action on the next tick
-   *   <li>BLOCKING: Currently no special handling (TODO: implement blocking states)
+   *   <li>BLOCKING: Parks the executor in the WAITING state if the action asked to sleep or wait
+   *       for a signal through the context, otherwise retries the same action on the next tick.
+   *       The same action is executed again once the executor wakes up.
    * </ul>
    *
-   * <p>When the end of the action list is reached:
+   * <p>Instructions between actions, such as jumps, condition checks and variable changes, run in
+   * the same tick as the action they lead up to. When the end of the program is reached:
    *
    * <ul>
    *   <li>Looping behaviors reset to the beginning and clear persistent data
    *   <li>Non-looping behaviors transition to COMPLETED state
    * </ul>
+   *
+   * <p>Each tick and action execution emits an {@link ExecutorTickEvent} and {@link
+   * ActionExecuteEvent} for Java Flight Recorder while a recording has them enabled. Otherwise the
+   * events are not even created.
    */
   public void tick() {
+    if (state == BehaviorExecutorState.WAITING) {
+      // Only reached when ticked manually, the scheduler does not tick parked executors
+      if (wakeGameTime < 0 || context.getWorld().getGameTime() < wakeGameTime) {
+        return;
+      }
+      wake();
+    }
+
     if (state != BehaviorExecutorState.RUNNING) {
       return;
     }
 
-    List<IAction> actions = behavior.getActions();
-    if (actions.isEmpty()) {
-      state = BehaviorExecutorState.COMPLETED;
+    if (!TICK_EVENT.isEnabled()) {
+      runProgram();
       return;
     }
+    ExecutorTickEvent tickEvent = new ExecutorTickEvent();
+    tickEvent.begin();
+    runProgram();
+    tickEvent.end();
+    if (tickEvent.shouldCommit()) {
+      tickEvent.executorType = context.getExecutor().getExecutorType().toString();
+      tickEvent.behaviorId = behavior.getId().toString();
+      tickEvent.actionIndex = frame.getActionIndex();
+      tickEvent.state = state.name();
+      tickEvent.commit();
+    }
+  }
 
-    int currentIndex = behavior.getCurrentActionIndex();
-    if (currentIndex >= actions.size()) {
-      if (behavior.isLooping()) {
-        behavior.reset();
-        context.clearPersistentData();
-        currentIndex = 0;
-      } else {
-        state = BehaviorExecutorState.COMPLETED;
-        return;
+  /**
+   * Interpret the behavior's program up to the next action and execute that action. Jumps,
+   * condition checks and variable changes leading up to it run within the same tick.
+   */
+  private void runProgram() {
+    BehaviorProgram program = behavior.getProgram();
+    int[] code = program.code;
+    int pc = frame.getProgramCounter();
+    for (int steps = 0; steps < BehaviorProgram.MAX_STEPS_PER_TICK; steps++) {
+      switch (code[pc]) {
+        case BehaviorProgram.ACTION -> {
+          moveTo(pc);
+          int actionIndex = code[pc + 1];
+          runAction(actionIndex, program.actions[actionIndex], pc + 2);
+          return;
+        }
+        case BehaviorProgram.JUMP -> pc = code[pc + 1];
+        case BehaviorProgram.JUMP_UNLESS ->
+            pc = program.conditions[code[pc + 1]].test(context) ? pc + 3 : code[pc + 2];
+        case BehaviorProgram.SET_VARIABLE -> {
+          setVariable(program.keys[code[pc + 1]], program.values[code[pc + 2]]);
+          pc += 3;
+        }
+        case BehaviorProgram.REMOVE_VARIABLE -> {
+          context.removeVariable(program.keys[code[pc + 1]]);
+          pc += 2;
+        }
+        case BehaviorProgram.RESTART -> {
+          frame.reset();
+          context.clearPersistentData();
+          pc = 0;
+        }
+        case BehaviorProgram.HALT -> {
+          moveTo(pc);
+          state = BehaviorExecutorState.COMPLETED;
+          return;
+        }
+        default -> throw new IllegalStateException("Unknown opcode " + code[pc] + " at " + pc);
       }
     }
+    // Out of steps without reaching an action, carry on from here next tick
+    moveTo(pc);
+  }
+
+  /** Record the program counter, leaving the current action if it changed */
+  private void moveTo(int pc) {
+    if (pc != frame.getProgramCounter()) {
+      frame.jump(pc);
+    }
+  }
 
-    IAction currentAction = actions.get(currentIndex);
+  @SuppressWarnings("unchecked")
+  private void setVariable(VariableKey<?> key, Object value) {
+    context.setVariable((VariableKey<Object>) key, value);
+  }
 
-    // Execute current action
-    ActionResult result = currentAction.execute(context);
-    context.tick();
+  /** Execute an action and handle its result */
+  private void runAction(int actionIndex, IAction action, int nextPc) {
+    frame.enterAction(actionIndex);
 
-    // Handle result
-    switch (result) {
-      case SUCCESS -> {
-        // Move to next action
-        behavior.setCurrentActionIndex(currentIndex + 1);
-        context.resetExecutionState();
-      }
-      case FAILURE -> {
-        // TODO handle failure states
-        behavior.setCurrentActionIndex(currentIndex + 1);
-        context.resetExecutionState();
+    // Execute current action with a fresh per-tick resource budget
+    context.resetResourceLimits();
+    context.clearParkRequest();
+    context.setActionState(frame.getOrCreateActionState(action));
+    ActionResult result;
+    ActionExecuteEvent executeEvent = EXECUTE_EVENT.isEnabled() ? new ActionExecuteEvent() : null;
+    boolean profiling = ActionProfiler.isEnabled();
+    if (executeEvent != null) {
+      executeEvent.begin();
+    }
+    if (profiling || context.isTrackingHistory()) {
+      long start = System.nanoTime();
+      result = execute(actionIndex, action);
+      long nanos = System.nanoTime() - start;
+      int actionId = ActionRegistry.getNumericId(action);
+      if (profiling) {
+        ActionProfiler.record(actionId, nanos);
       }
-      case CONTINUE -> {
-        // Keep executing the same action until next tick
+      context.recordExecution(actionId, result, nanos);
+    } else {
+      result = execute(actionIndex, action);
+    }
+    if (executeEvent != null) {
+      executeEvent.end();
+      if (executeEvent.shouldCommit()) {
+        commitExecuteEvent(executeEvent, actionIndex, action, result);
       }
-      case BLOCKING -> {
-        // Todo handle blocking states
+    }
+    context.setActionState(null);
+    context.tick();
 
+    // Handle result, CONTINUE keeps executing the same action next tick
+    if (result == ActionResult.SUCCESS) {
+      frame.jump(nextPc);
+      context.resetExecutionState();
+    } else if (result == ActionResult.FAILURE) {
+      handleFailure(actionIndex, nextPc);
+    } else if (result == ActionResult.BLOCKING) {
+      park();
+    }
+  }
+
+  /** Execute an action through the program's compiled dispatcher, or directly until there is one */
+  private ActionResult execute(int actionIndex, IAction action) {
+    // Only ask the compiler until the program has been compiled or has failed to compile
+    if (dispatcher == null && !interpretOnly) {
+      BehaviorProgram program = behavior.getProgram();
+      dispatcher = ProgramCompiler.dispatcher(program);
+      interpretOnly = program.compileFailed;
+    }
+    return dispatcher != null && ProgramCompiler.isEnabled()
+        ? dispatcher.execute(actionIndex, context)
+        : action.execute(context);
+  }
+
+  /** Fill in and commit the flight recorder event of an action execution */
+  private void commitExecuteEvent(
+      ActionExecuteEvent event, int actionIndex, IAction action, ActionResult result) {
+    event.executorType = context.getExecutor().getExecutorType().toString();
+    event.behaviorId = behavior.getId().toString();
+    event.actionIndex = actionIndex;
+    event.actionId = ActionRegistry.getId(action).orElse(ActionRegistry.UNREGISTERED).toString();
+    event.actionClass = action.getClass();
+    event.result = result.name();
+    event.blocksModified = context.getBlocksModifiedThisTick();
+    event.itemsMoved = context.getItemsMovedThisTick();
+    event.energyConsumed = context.getEnergyConsumedThisTick();
+    event.commit();
+  }
+
+  /** Retry, skip or abort a failed action according to its failure policy */
+  private void handleFailure(int actionIndex, int nextPc) {
+    FailurePolicy policy = behavior.getFailurePolicy(actionIndex);
+    context.resetExecutionState();
+
+    if (frame.getConsecutiveFailures() < policy.maxRetries()) {
+      // Retry the same action from scratch, sleeping through the backoff first
+      frame.fail();
+      int backoff =
+          policy.getBackoffTicks(frame.getConsecutiveFailures(), context.getWorld().getRandom());
+      if (backoff > 0) {
+        context.sleepFor(backoff);
+        park();
       }
+      return;
+    }
+
+    switch (policy.onExhausted()) {
+      case SKIP -> frame.jump(nextPc);
+      case ABORT -> state = BehaviorExecutorState.FAILED;
     }
   }
 
+  /** Enter the WAITING state if the current action asked to be parked */
+  private void park() {
+    int sleepTicks = context.getRequestedSleepTicks();
+    Identifier signal = context.getRequestedWakeSignal();
+    context.clearParkRequest();
+
+    if (sleepTicks <= 0 && signal == null) {
+      // Nothing to wait for, try again next tick
+      return;
+    }
+
+    state = BehaviorExecutorState.WAITING;
+    wakeGameTime = sleepTicks > 0 ? context.getWorld().getGameTime() + sleepTicks : -1;
+    wakeSignal = signal;
+  }
+
+  /**
+   * Wake a parked executor so it resumes on its next tick. Has no effect unless the executor is in
+   * the WAITING state.
+   */
+  public void wake() {
+    if (state != BehaviorExecutorState.WAITING) {
+      return;
+    }
+    state = BehaviorExecutorState.RUNNING;
+    leaveWaiting();
+  }
+
+  /** Forget the current wait and hand the executor back to the scheduler's tick order */
+  private void leaveWaiting() {
+    if (scheduler != null) {
+      scheduler.unpark(this);
+    }
+    wakeGameTime = -1;
+    wakeSignal = null;
+  }
+
+  /**
+   * Get the behavior being executed.
+   *
+   * @return The behavior
+   */
+  public Behavior getBehavior() {
+    return behavior;
+  }
+
+  /**
+   * Get the execution position and action state of this executor.
+   *
+   * @return The execution frame
+   */
+  public ExecutionFrame getFrame() {
+    return frame;
+  }
+
+  /**
+   * Get the context actions are executed with.
+   *
+   * @return The action context
+   */
+  public ActionContext getContext() {
+    return context;
+  }
+
+  /**
+   * Get the token cancelling the async work started by the current run of the behavior.
+   *
+   * @return The cancellation token, cancelled once the executor is stopped, reset or removed
+   */
+  public CancellationToken getCancellationToken() {
+    return cancellationToken;
+  }
+
+  /**
+   * Cancel the async work started by this executor without changing its state. Called by the
+   * owner or scheduler once the executor will not be ticked again, such as when its owner is
+   * removed or its level unloads.
+   */
+  public void cancelWork() {
+    cancellationToken.cancel();
+  }
+
+  /**
+   * Check if this executor is registered with a {@link DroneTickScheduler}.
+   *
+   * @return True if a scheduler is ticking this executor
+   */
+  public boolean isScheduled() {
+    return scheduler != null;
+  }
+
+  /**
+   * Get the game time a sleeping executor wakes up at.
+   *
+   * @return The wake-up game time, or -1 if the executor is not sleeping
+   */
+  public long getWakeGameTime() {
+    return wakeGameTime;
+  }
+
+  /**
+   * Get the signal a blocked executor is waiting for.
+   *
+   * @return The signal, or null if the executor is not waiting for a signal
+   */
+  @Nullable public Identifier getWakeSignal() {
+    return wakeSignal;
+  }
+
   /**
    * Get the current execution state of this executor.
    *
-   * @return The current state (IDLE, RUNNING, COMPLETED, FAILED, or PAUSED)
+   * @return The current state (IDLE, RUNNING, COMPLETED, FAILED, PAUSED or WAITING)
    */
   public BehaviorExecutorState getState() {
     return state;
@@ -120,9 +428,13 @@ public class BehaviorExecutor {
 
   /**
    * Pause execution of the behavior. Execution can be resumed by calling {@link #resume()}. The
-   * current action position and context state are preserved.
+   * current action position and context state are preserved. Pausing a parked executor abandons
+   * its wait.
    */
   public void pause() {
+    if (state == BehaviorExecutorState.WAITING) {
+      leaveWaiting();
+    }
     state = BehaviorExecutorState.PAUSED;
   }
 
@@ -138,20 +450,33 @@ public class BehaviorExecutor {
   }
 
   /**
-   * Stop execution and mark the behavior as failed. This transitions to the FAILED state and
-   * prevents further execution. Use {@link #reset()} to restart execution from the beginning.
+   * Stop execution and mark the behavior as failed. This transitions to the FAILED state, prevents
+   * further execution and cancels the async work of the current run. Use {@link #reset()} to
+   * restart execution from the beginning.
    */
   public void stop() {
+    if (state == BehaviorExecutorState.WAITING) {
+      leaveWaiting();
+    }
+    cancelWork();
     state = BehaviorExecutorState.FAILED;
   }
 
   /**
-   * Reset the executor to start execution from the beginning. This resets the behavior's action
-   * index, clears persistent data, and transitions back to the RUNNING state.
+   * Reset the executor to start execution from the beginning. This cancels the async work of the
+   * current run, resets the execution frame, clears persistent data, and transitions back to the
+   * RUNNING state.
    */
   public void reset() {
-    behavior.reset();
+    if (state == BehaviorExecutorState.WAITING) {
+      leaveWaiting();
+    }
+    cancelWork();
+    cancellationToken = new CancellationToken();
+    context.useCancellationToken(cancellationToken);
+    frame.reset();
     context.clearPersistentData();
+    context.resetExecutionState();
     state = BehaviorExecutorState.RUNNING;
   }
 
@@ -166,6 +491,8 @@ public class BehaviorExecutor {
     /** Execution has failed or been stopped */
     FAILED,
     /** Execution is paused and can be resumed */
-    PAUSED
+    PAUSED,
+    /** Executor is parked until a wake-up time or signal and is not ticked in the meantime */
+    WAITING
   }
 }
@@ -0,0 +1,270 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites behaviors when they are loaded so executors do less work every tick. The behavior's
+ * program is decoded into {@link Instruction}s, the optimizer's passes are run over it until none
+ * of them changes anything, and the result is compiled back into a behavior. Every change is
+ * reported so it can be shown to whoever built the behavior.
+ *
+ * <p>The passes in this class only rely on the program structure. Passes that know about
+ * particular actions, such as fusing them, are supplied by whoever registers those actions.
+ */
+@ApiStatus.Experimental
+public final class BehaviorOptimizer {
+  /**
+   * Removes instructions no path from the start of the program reaches, jumps to the instruction
+   * right after them and labels nothing jumps to, so the passes after it see more neighbouring
+   * instructions.
+   */
+  public static final OptimizationPass REMOVE_UNREACHABLE = BehaviorOptimizer::removeUnreachable;
+
+  /**
+   * Removes {@link ActionGuard} checks of actions that can always execute. Those checks give the
+   * same result on every pass through a loop, so they are evaluated once here instead.
+   */
+  public static final OptimizationPass RESOLVE_CONSTANT_GUARDS =
+      BehaviorOptimizer::resolveConstantGuards;
+
+  /** Upper bound on the rounds of passes, in case passes keep undoing each other */
+  private static final int MAX_ROUNDS = 16;
+
+  private final List<OptimizationPass> passes;
+
+  /**
+   * Create an optimizer.
+   *
+   * @param passes The passes to run, in order
+   */
+  public BehaviorOptimizer(List<OptimizationPass> passes) {
+    this.passes = List.copyOf(passes);
+  }
+
+  /**
+   * Optimize a behavior.
+   *
+   * @param behavior The behavior to optimize
+   * @return The optimized behavior, which is the behavior itself if nothing changed, and the
+   *     changes made
+   */
+  public Result optimize(Behavior behavior) {
+    List<Instruction> code = decode(behavior);
+    List<String> changes = new ArrayList<>();
+    for (int round = 0; round < MAX_ROUNDS; round++) {
+      boolean changed = false;
+      for (OptimizationPass pass : passes) {
+        changed |= pass.apply(code, changes);
+      }
+      if (!changed) {
+        break;
+      }
+    }
+    if (changes.isEmpty()) {
+      return new Result(behavior, List.of());
+    }
+    return new Result(encode(behavior, code), List.copyOf(changes));
+  }
+
+  /**
+   * Decode a behavior's program into instructions, placing a label in front of every jump target.
+   *
+   * @param behavior The behavior
+   * @return A mutable list of instructions
+   */
+  public static List<Instruction> decode(Behavior behavior) {
+    BehaviorProgram program = behavior.getProgram();
+    int[] code = program.code;
+
+    Int2ObjectMap<Instruction.Label> labels = new Int2ObjectOpenHashMap<>();
+    for (int pc = 0; pc < code.length; pc += BehaviorProgram.length(code[pc])) {
+      if (code[pc] == BehaviorProgram.JUMP) {
+        labels.computeIfAbsent(code[pc + 1], target -> new Instruction.Label());
+      } else if (code[pc] == BehaviorProgram.JUMP_UNLESS) {
+        labels.computeIfAbsent(code[pc + 2], target -> new Instruction.Label());
+      }
+    }
+
+    List<Instruction> instructions = new ArrayList<>();
+    for (int pc = 0; pc < code.length; pc += BehaviorProgram.length(code[pc])) {
+      Instruction.Label label = labels.get(pc);
+      if (label != null) {
+        instructions.add(label);
+      }
+      instructions.add(
+          switch (code[pc]) {
+            case BehaviorProgram.ACTION ->
+                new Instruction.Action(
+                    program.actions[code[pc + 1]], behavior.getFailurePolicy(code[pc + 1]));
+            case BehaviorProgram.JUMP -> new Instruction.Jump(labels.get(code[pc + 1]));
+            case BehaviorProgram.JUMP_UNLESS ->
+                new Instruction.JumpUnless(
+                    program.conditions[code[pc + 1]], labels.get(code[pc + 2]));
+            case BehaviorProgram.SET_VARIABLE ->
+                new Instruction.SetVariable(
+                    program.keys[code[pc + 1]], program.values[code[pc + 2]]);
+            case BehaviorProgram.REMOVE_VARIABLE ->
+                new Instruction.RemoveVariable(program.keys[code[pc + 1]]);
+            case BehaviorProgram.RESTART -> new Instruction.Restart();
+            default -> new Instruction.Halt();
+          });
+    }
+    return instructions;
+  }
+
+  /** Compile instructions back into a behavior with the original's id */
+  private static Behavior encode(Behavior original, List<Instruction> code) {
+    BehaviorProgram.Builder builder = new BehaviorProgram.Builder();
+    Map<Instruction.Label, Integer> labels = new IdentityHashMap<>();
+    Map<Integer, FailurePolicy> policies = new HashMap<>();
+    int actionIndex = 0;
+    for (Instruction instruction : code) {
+      switch (instruction) {
+        case Instruction.Action action -> {
+          builder.action(action.action());
+          policies.put(actionIndex++, action.policy());
+        }
+        case Instruction.Jump jump -> builder.jump(label(builder, labels, jump.target()));
+        case Instruction.JumpUnless jump ->
+            builder.jumpUnless(jump.condition(), label(builder, labels, jump.target()));
+        case Instruction.SetVariable set -> setVariable(builder, set);
+        case Instruction.RemoveVariable remove -> builder.removeVariable(remove.key());
+        case Instruction.Restart restart -> builder.restart();
+        case Instruction.Halt halt -> builder.halt();
+        case Instruction.Label label -> builder.bind(label(builder, labels, label));
+      }
+    }
+    return new Behavior(original.getId(), builder.build(), Map.copyOf(policies));
+  }
+
+  private static int label(
+      BehaviorProgram.Builder builder,
+      Map<Instruction.Label, Integer> labels,
+      Instruction.Label label) {
+    return labels.computeIfAbsent(label, unused -> builder.newLabel());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void setVariable(BehaviorProgram.Builder builder, Instruction.SetVariable set) {
+    builder.setVariable((VariableKey<Object>) set.key(), set.value());
+  }
+
+  private static boolean removeUnreachable(List<Instruction> code, List<String> changes) {
+    Map<Instruction.Label, Integer> positions = new IdentityHashMap<>();
+    for (int i = 0; i < code.size(); i++) {
+      if (code.get(i) instanceof Instruction.Label label) {
+        positions.put(label, i);
+      }
+    }
+
+    boolean[] reached = new boolean[code.size()];
+    IntArrayList pending = IntArrayList.of(0);
+    while (!pending.isEmpty()) {
+      int i = pending.popInt();
+      if (i >= code.size() || reached[i]) {
+        continue;
+      }
+      reached[i] = true;
+      switch (code.get(i)) {
+        case Instruction.Jump jump -> pending.push(positions.get(jump.target()));
+        case Instruction.JumpUnless jump -> {
+          pending.push(i + 1);
+          pending.push(positions.get(jump.target()));
+        }
+        case Instruction.Restart restart -> pending.push(0);
+        case Instruction.Halt halt -> {}
+        default -> pending.push(i + 1);
+      }
+    }
+
+    int removed = 0;
+    for (int i = code.size() - 1; i >= 0; i--) {
+      if (reached[i]) {
+        continue;
+      }
+      Instruction instruction = code.remove(i);
+      if (instruction instanceof Instruction.Action action) {
+        changes.add("Removed unreachable action " + describe(action.action()));
+      } else if (!(instruction instanceof Instruction.Label)) {
+        removed++;
+      }
+    }
+    if (removed > 0) {
+      changes.add("Removed " + removed + " unreachable control instructions");
+    }
+    boolean changed = code.size() < reached.length;
+    return removeUselessJumps(code, changes) | changed;
+  }
+
+  private static boolean removeUselessJumps(List<Instruction> code, List<String> changes) {
+    int jumps = 0;
+    for (int i = code.size() - 2; i >= 0; i--) {
+      if (code.get(i) instanceof Instruction.Jump jump && code.get(i + 1) == jump.target()) {
+        code.remove(i);
+        jumps++;
+      }
+    }
+    if (jumps > 0) {
+      changes.add("Removed " + jumps + " jumps to the next instruction");
+    }
+
+    Set<Instruction.Label> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Instruction instruction : code) {
+      if (instruction instanceof Instruction.Jump jump) {
+        targets.add(jump.target());
+      } else if (instruction instanceof Instruction.JumpUnless jump) {
+        targets.add(jump.target());
+      }
+    }
+    boolean labels =
+        code.removeIf(
+            instruction ->
+                instruction instanceof Instruction.Label label && !targets.contains(label));
+    return jumps > 0 || labels;
+  }
+
+  private static boolean resolveConstantGuards(List<Instruction> code, List<String> changes) {
+    boolean changed = false;
+    for (int i = code.size() - 1; i >= 0; i--) {
+      if (code.get(i) instanceof Instruction.JumpUnless jump
+          && jump.condition() instanceof ActionGuard guard
+          && guard.action().isAlwaysExecutable()) {
+        code.remove(i);
+        changes.add("Resolved the execute check of " + describe(guard.action()) + " at load time");
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Describe an action for change reports.
+   *
+   * @param action The action
+   * @return The action's display name
+   */
+  public static String describe(IAction action) {
+    return action.getDisplayName().getString();
+  }
+
+  /**
+   * The outcome of optimizing a behavior.
+   *
+   * @param behavior The optimized behavior
+   * @param changes A human-readable line for every change made, empty if nothing changed
+   */
+  public record Result(Behavior behavior, List<String> changes) {}
+}
@@ -0,0 +1,357 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A behavior lowered to a flat array of int-coded instructions, which a {@link BehaviorExecutor}
+ * interprets. Each instruction is an opcode followed by its operands. Operands refer to actions,
+ * conditions, variable keys and values through indices into constant pools resolved when the
+ * program is built, and jump operands are instruction offsets, so running a program involves no
+ * list lookups or name resolution.
+ *
+ * <p>Only action instructions take up a tick. Jumps, variable changes and condition checks cost
+ * next to nothing, and the executor runs as many of them as lead up to the next action within the
+ * same tick, up to {@link #MAX_STEPS_PER_TICK}.
+ *
+ * <p>Programs are immutable, apart from the compiled form {@link ProgramCompiler} attaches to hot
+ * programs, and are built with a {@link Builder}. Every {@link Behavior} compiles
+ * its action list into a program; programs with jumps and conditions can be turned into a behavior
+ * with {@link Behavior#Behavior(net.minecraft.resources.Identifier, BehaviorProgram)}.
+ */
+@ApiStatus.Experimental
+public final class BehaviorProgram {
+  /** Execute an action: {@code ACTION actionIndex} */
+  static final int ACTION = 0;
+
+  /** Continue at another instruction: {@code JUMP target} */
+  static final int JUMP = 1;
+
+  /** Jump unless a condition holds: {@code JUMP_UNLESS condition target} */
+  static final int JUMP_UNLESS = 2;
+
+  /** Set a variable to a constant: {@code SET_VARIABLE key value} */
+  static final int SET_VARIABLE = 3;
+
+  /** Remove a variable: {@code REMOVE_VARIABLE key} */
+  static final int REMOVE_VARIABLE = 4;
+
+  /** Start the program over, clearing persistent data: {@code RESTART} */
+  static final int RESTART = 5;
+
+  /** Finish the program: {@code HALT} */
+  static final int HALT = 6;
+
+  /** Instructions an executor runs at most in one tick before yielding until the next */
+  public static final int MAX_STEPS_PER_TICK = 64;
+
+  /** The instructions */
+  final int[] code;
+
+  /** Actions referred to by ACTION instructions */
+  final IAction[] actions;
+
+  /** Conditions referred to by JUMP_UNLESS instructions */
+  final Predicate<ActionContext>[] conditions;
+
+  /** Variables referred to by SET_VARIABLE and REMOVE_VARIABLE instructions */
+  final VariableKey<?>[] keys;
+
+  /** Values referred to by SET_VARIABLE instructions */
+  final Object[] values;
+
+  /** Whether the program contains a RESTART instruction */
+  private final boolean looping;
+
+  /// Compiled tier, owned by ProgramCompiler
+  /** Actions executed by all executors running this program, counted until it is compiled */
+  int executions;
+
+  /** Compiled dispatcher of the actions, or null while the program is interpreted */
+  ActionDispatcher dispatcher;
+
+  /** Whether compiling this program failed, so it is not tried again */
+  boolean compileFailed;
+
+  private BehaviorProgram(Builder builder, int[] code) {
+    this.code = code;
+    this.actions = builder.actions.toArray(new IAction[0]);
+    //noinspection unchecked
+    this.conditions = builder.conditions.toArray(new Predicate[0]);
+    this.keys = builder.keys.toArray(new VariableKey<?>[0]);
+    this.values = builder.values.toArray();
+    this.looping = builder.looping;
+  }
+
+  /**
+   * Compile a list of actions run one after another.
+   *
+   * @param actions The actions, in order
+   * @param looping Whether to start over after the last action instead of finishing
+   * @return The program
+   */
+  public static BehaviorProgram of(List<IAction> actions, boolean looping) {
+    Builder builder = new Builder();
+    if (actions.isEmpty()) {
+      // An empty behavior completes straight away, even when it loops
+      return builder.halt().build();
+    }
+    for (IAction action : actions) {
+      builder.action(action);
+    }
+    return looping ? builder.restart().build() : builder.halt().build();
+  }
+
+  /**
+   * Get the actions of this program, indexed the way ACTION instructions refer to them.
+   *
+   * @return Unmodifiable list of actions
+   */
+  public List<IAction> getActions() {
+    return List.of(actions);
+  }
+
+  /**
+   * Get the variables this program sets or removes.
+   *
+   * @return Unmodifiable list of variable keys
+   */
+  public List<VariableKey<?>> getVariableKeys() {
+    return List.of(keys);
+  }
+
+  /**
+   * Check if this program starts over once it reaches its end.
+   *
+   * @return True if the program contains a restart instruction
+   */
+  public boolean isLooping() {
+    return looping;
+  }
+
+  /**
+   * Check if this program has been promoted to the compiled tier, see {@link ProgramCompiler}.
+   *
+   * @return True if executors call its actions through a generated class
+   */
+  public boolean isCompiled() {
+    return dispatcher != null;
+  }
+
+  /**
+   * Get the number of ints in the instruction array.
+   *
+   * @return The code length
+   */
+  public int getCodeLength() {
+    return code.length;
+  }
+
+  /**
+   * Assembles a program. Instructions are appended in order; jumps refer to labels, which are
+   * created with {@link #newLabel()} and placed with {@link #bind(int)}, and are resolved when the
+   * program is built. A program that does not end in a restart or halt instruction halts after its
+   * last instruction.
+   */
+  public static final class Builder {
+    private final IntArrayList code = new IntArrayList();
+    private final List<IAction> actions = new ArrayList<>();
+    private final List<Predicate<ActionContext>> conditions = new ArrayList<>();
+    private final List<VariableKey<?>> keys = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+
+    /** Code offset each label is bound to, or -1 if it is not bound yet */
+    private final IntArrayList labels = new IntArrayList();
+
+    /** Code offsets of jump operands that hold a label until the program is built */
+    private final IntArrayList jumpOperands = new IntArrayList();
+
+    private boolean looping = false;
+
+    /**
+     * Append an action, which runs until it succeeds or its failure policy gives up on it.
+     *
+     * @param action The action
+     * @return This builder
+     */
+    public Builder action(IAction action) {
+      code.add(ACTION);
+      code.add(actions.size());
+      actions.add(action);
+      return this;
+    }
+
+    /**
+     * Append an action that only runs if it can execute, see {@link
+     * IAction#canExecute(ActionContext)}, and is skipped otherwise.
+     *
+     * @param action The action
+     * @return This builder
+     */
+    public Builder guardedAction(IAction action) {
+      int skip = newLabel();
+      return jumpUnless(new ActionGuard(action), skip).action(action).bind(skip);
+    }
+
+    /**
+     * Append a jump to a label.
+     *
+     * @param label The label to continue at
+     * @return This builder
+     */
+    public Builder jump(int label) {
+      code.add(JUMP);
+      addJumpOperand(label);
+      return this;
+    }
+
+    /**
+     * Append a condition check that jumps to a label unless the condition holds.
+     *
+     * @param condition The condition, which must not change the world or the context
+     * @param label The label to continue at if the condition does not hold
+     * @return This builder
+     */
+    public Builder jumpUnless(Predicate<ActionContext> condition, int label) {
+      code.add(JUMP_UNLESS);
+      code.add(conditions.size());
+      conditions.add(condition);
+      addJumpOperand(label);
+      return this;
+    }
+
+    /**
+     * Append setting a variable to a constant value.
+     *
+     * @param <T> The variable type
+     * @param key The variable
+     * @param value The value
+     * @return This builder
+     */
+    public <T> Builder setVariable(VariableKey<T> key, T value) {
+      code.add(SET_VARIABLE);
+      code.add(keys.size());
+      code.add(values.size());
+      keys.add(key);
+      values.add(value);
+      return this;
+    }
+
+    /**
+     * Append removing a variable.
+     *
+     * @param key The variable
+     * @return This builder
+     */
+    public Builder removeVariable(VariableKey<?> key) {
+      code.add(REMOVE_VARIABLE);
+      code.add(keys.size());
+      keys.add(key);
+      return this;
+    }
+
+    /**
+     * Append starting the program over from the first instruction, clearing persistent data like
+     * a looping behavior does.
+     *
+     * @return This builder
+     */
+    public Builder restart() {
+      code.add(RESTART);
+      looping = true;
+      return this;
+    }
+
+    /**
+     * Append finishing the program.
+     *
+     * @return This builder
+     */
+    public Builder halt() {
+      code.add(HALT);
+      return this;
+    }
+
+    /**
+     * Create a label that is not bound to an instruction yet.
+     *
+     * @return The label
+     */
+    public int newLabel() {
+      labels.add(-1);
+      return labels.size() - 1;
+    }
+
+    /**
+     * Bind a label to the next instruction appended.
+     *
+     * @param label The label
+     * @return This builder
+     */
+    public Builder bind(int label) {
+      labels.set(label, code.size());
+      return this;
+    }
+
+    /**
+     * Build the program. A HALT is appended unless the program already ends by restarting or
+     * halting and no label is bound past its last instruction.
+     *
+     * @return The program
+     * @throws IllegalStateException if a jump refers to a label that was never bound
+     */
+    public BehaviorProgram build() {
+      int[] program = code.toIntArray();
+      int last = lastOpcode(program);
+      if ((last != RESTART && last != HALT) || labels.contains(program.length)) {
+        program = Arrays.copyOf(program, program.length + 1);
+        program[program.length - 1] = HALT;
+      }
+      for (int i = 0; i < jumpOperands.size(); i++) {
+        int operand = jumpOperands.getInt(i);
+        int target = labels.getInt(program[operand]);
+        if (target < 0) {
+          throw new IllegalStateException("Label " + program[operand] + " was never bound");
+        }
+        program[operand] = target;
+      }
+      return new BehaviorProgram(this, program);
+    }
+
+    private void addJumpOperand(int label) {
+      jumpOperands.add(code.size());
+      code.add(label);
+    }
+
+    /** Find the opcode of the last instruction, or -1 if there is none */
+    private static int lastOpcode(int[] program) {
+      int last = -1;
+      for (int pc = 0; pc < program.length; pc += length(program[pc])) {
+        last = program[pc];
+      }
+      return last;
+    }
+  }
+
+  /**
+   * Get the length of an instruction.
+   *
+   * @param opcode The instruction's opcode
+   * @return The number of ints the opcode and its operands take up
+   */
+  static int length(int opcode) {
+    return switch (opcode) {
+      case ACTION, JUMP, REMOVE_VARIABLE -> 2;
+      case JUMP_UNLESS, SET_VARIABLE -> 3;
+      default -> 1;
+    };
+  }
+}
@@ -0,0 +1,129 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Signals that the work started by an executor's actions is no longer wanted. Every {@link
+ * BehaviorExecutor} owns a token, which actions reach through {@link
+ * com.dyingday.dronecraft.api.context.ActionContext#getCancellationToken()}. The token is cancelled
+ * when the executor is stopped, reset or removed, or its level unloads, and a reset executor gets a
+ * fresh one.
+ *
+ * <p>Work running on other threads polls {@link #isCancelled()}, or {@link #current()} when it was
+ * not handed the token: async computations and planner threads run with their executor's token as
+ * the current token of their thread. Work waiting to run is dropped straight away by listeners,
+ * which are called on cancellation.
+ *
+ * <p>Thread-safety: {@link #isCancelled()} and {@link #current()} may be called from any thread.
+ * Everything else must only be called from the server thread.
+ */
+@ApiStatus.Experimental
+public final class CancellationToken {
+  /** A token that is never cancelled, for work not started by an executor */
+  public static final CancellationToken NONE = new CancellationToken();
+
+  /** Token of the work the current thread is running for */
+  private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+  /** Whether the token has been cancelled */
+  private volatile boolean cancelled = false;
+
+  /** Called once when the token is cancelled, dropped after that */
+  private final List<Runnable> listeners = new ArrayList<>();
+
+  /**
+   * Get the token of the work the current thread is running for.
+   *
+   * @return The token set by {@link #runAs(Runnable)}, or {@link #NONE} outside of it
+   */
+  public static CancellationToken current() {
+    CancellationToken token = CURRENT.get();
+    return token != null ? token : NONE;
+  }
+
+  /**
+   * Cancel the token and call its listeners. Cancelling it again has no effect.
+   *
+   * @throws UnsupportedOperationException if this is {@link #NONE}
+   */
+  public void cancel() {
+    if (this == NONE) {
+      throw new UnsupportedOperationException("The NONE token cannot be cancelled");
+    }
+    if (cancelled) {
+      return;
+    }
+    cancelled = true;
+    List<Runnable> called = List.copyOf(listeners);
+    listeners.clear();
+    called.forEach(Runnable::run);
+  }
+
+  /**
+   * Check if the token has been cancelled.
+   *
+   * @return True once {@link #cancel()} has been called
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Throw if the token has been cancelled, for work that gives up by unwinding.
+   *
+   * @throws CancellationException if the token has been cancelled
+   */
+  public void throwIfCancelled() {
+    if (cancelled) {
+      throw new CancellationException("Work was cancelled by its executor");
+    }
+  }
+
+  /**
+   * Add a listener called when the token is cancelled. A listener added to a cancelled token is
+   * called straight away. Remove the listener once the work it cancels has finished, so a
+   * long-lived token does not collect them.
+   *
+   * @param listener The listener
+   */
+  public void addListener(Runnable listener) {
+    if (cancelled) {
+      listener.run();
+    } else if (this != NONE) {
+      listeners.add(listener);
+    }
+  }
+
+  /**
+   * Remove a listener added with {@link #addListener(Runnable)}.
+   *
+   * @param listener The listener
+   */
+  public void removeListener(Runnable listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Run work with this token as the current token of the thread, see {@link #current()}. Called on
+   * the thread running the work.
+   *
+   * @param work The work
+   */
+  public void runAs(Runnable work) {
+    CancellationToken previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      work.run();
+    } finally {
+      if (previous != null) {
+        CURRENT.set(previous);
+      } else {
+        CURRENT.remove();
+      }
+    }
+  }
+}
@@ -0,0 +1,413 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import net.minecraft.resources.Identifier;
+import net.minecraft.world.level.Level;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+
+/**
+ * Drives every {@link BehaviorExecutor} registered in a level from a single loop once per server
+ * tick. Executors are ticked in round-robin order under a shared time budget; executors that do
+ * not fit inside the budget are deferred and are the first to run on the next tick, so every
+ * executor is eventually serviced while DroneCraft's share of the tick stays bounded.
+ *
+ * <p>Executors that park themselves through {@link ActionContext#sleepFor(int)} or {@link
+ * ActionContext#blockUntil(Identifier)} are taken out of the tick order entirely. Sleeping
+ * executors are held in a hierarchical timing wheel until their wake-up tick and executors blocked
+ * on a signal wait until {@link #signal(Identifier)} is called, so a parked executor costs nothing
+ * per tick.
+ *
+ * <p>There is one scheduler per server-side level. Executors are registered by their owner (drone
+ * station, drone entity, etc.) and must be unregistered when the owner is removed, although
+ * executors whose owner has been removed are also dropped automatically.
+ *
+ * <p>Thread-safety: Schedulers must only be accessed from the server thread.
+ */
+@ApiStatus.Experimental
+public final class DroneTickScheduler {
+  /** Default per-level tick budget in microseconds */
+  public static final long DEFAULT_TICK_BUDGET_MICROS = 2_000;
+
+  /** Scheduler for each loaded server-side level */
+  private static final Map<Level, DroneTickScheduler> SCHEDULERS = new IdentityHashMap<>();
+
+  /** Time budget each scheduler may spend per tick, in nanoseconds */
+  private static long tickBudgetNanos = DEFAULT_TICK_BUDGET_MICROS * 1_000;
+
+  /** The level this scheduler ticks executors for */
+  private final Level level;
+
+  /** Sleeping executors, keyed by the scheduler tick they wake up on */
+  private final TimingWheel wheel = new TimingWheel();
+
+  /** Executors blocked until a signal is raised, keyed by signal */
+  private final Map<Identifier, List<BehaviorExecutor>> signalWaiters = new HashMap<>();
+
+  /** Wakes executors as the timing wheel expires them */
+  private final Consumer<BehaviorExecutor> wakeExpired = BehaviorExecutor::wake;
+
+  /**
+   * Next executor to run in the circular list of runnable executors, or null if none are
+   * runnable. Executors are linked through their own {@code prev}/{@code next} fields.
+   */
+  private BehaviorExecutor cursor;
+
+  /** Number of executors in the runnable list */
+  private int activeCount = 0;
+
+  /** Number of ticks this scheduler has run */
+  private long tickNumber = 0;
+
+  /** Whether the scheduler is currently inside {@link #tick()} */
+  private boolean ticking = false;
+
+  /** Number of executors made runnable while the scheduler was ticking */
+  private int linkedWhileTicking = 0;
+
+  /** Number of executors that did not fit in the budget on the last tick */
+  private int lastDeferredCount = 0;
+
+  /** Number of executors ticked on the last tick */
+  private int lastTickedCount = 0;
+
+  /** Wall time spent ticking executors on the last tick, in nanoseconds */
+  private long lastTickNanos = 0;
+
+  private DroneTickScheduler(Level level) {
+    this.level = level;
+  }
+
+  /**
+   * Get the scheduler for a level, creating it if needed.
+   *
+   * @param level The server-side level
+   * @return The scheduler for that level
+   * @throws IllegalArgumentException if the level is client-side
+   */
+  public static DroneTickScheduler get(Level level) {
+    if (level.isClientSide()) {
+      throw new IllegalArgumentException("Drone tick schedulers only exist on the server");
+    }
+    return SCHEDULERS.computeIfAbsent(level, DroneTickScheduler::new);
+  }
+
+  /**
+   * Set the time budget each level's scheduler may spend ticking executors per server tick.
+   *
+   * @param micros The budget in microseconds
+   */
+  public static void setTickBudgetMicros(long micros) {
+    tickBudgetNanos = Math.max(0, micros) * 1_000;
+  }
+
+  /**
+   * Get the time budget each level's scheduler may spend ticking executors per server tick.
+   *
+   * @return The budget in microseconds
+   */
+  public static long getTickBudgetMicros() {
+    return tickBudgetNanos / 1_000;
+  }
+
+  /**
+   * Tick the scheduler of a level at the end of its tick.
+   *
+   * @param event The level tick event
+   */
+  public static void onLevelTick(LevelTickEvent.Post event) {
+    DroneTickScheduler scheduler = SCHEDULERS.get(event.getLevel());
+    if (scheduler != null) {
+      scheduler.tick();
+    }
+  }
+
+  /**
+   * Drop the scheduler of a level when it unloads, cancelling the async work of its executors.
+   *
+   * @param event The level unload event
+   */
+  public static void onLevelUnload(LevelEvent.Unload event) {
+    DroneTickScheduler scheduler = SCHEDULERS.remove(event.getLevel());
+    if (scheduler != null) {
+      scheduler.clear();
+    }
+  }
+
+  /**
+   * Register an executor to be ticked by this scheduler. Registering an executor that is already
+   * registered has no effect. An executor registered with another scheduler is moved to this one.
+   *
+   * @param executor The executor to register
+   */
+  public void register(BehaviorExecutor executor) {
+    if (executor.scheduler == this) {
+      return;
+    }
+    if (executor.scheduler != null) {
+      executor.scheduler.unregister(executor);
+    }
+    executor.scheduler = this;
+
+    if (executor.getState() == BehaviorExecutor.BehaviorExecutorState.WAITING) {
+      park(executor);
+    } else {
+      linkActive(executor);
+    }
+  }
+
+  /**
+   * Stop ticking an executor. A parked executor is also removed from the timing wheel and any
+   * signal it was waiting for.
+   *
+   * @param executor The executor to unregister
+   */
+  public void unregister(BehaviorExecutor executor) {
+    if (executor.scheduler != this) {
+      return;
+    }
+    if (executor.active) {
+      unlinkActive(executor);
+    }
+    wheel.cancel(executor);
+    removeSignalWaiter(executor);
+    executor.scheduler = null;
+  }
+
+  /**
+   * Wake every executor in this level that is blocked until a signal.
+   *
+   * @param signal The signal to raise
+   */
+  public void signal(Identifier signal) {
+    List<BehaviorExecutor> waiters = signalWaiters.remove(signal);
+    if (waiters == null) {
+      return;
+    }
+    for (BehaviorExecutor executor : waiters) {
+      executor.wake();
+    }
+  }
+
+  /**
+   * Run one scheduler tick. Sleeping executors whose wake-up tick has come are made runnable
+   * first; then runnable executors are ticked in round-robin order until each has run once or the
+   * tick budget is exhausted. At least one executor is always ticked so that a very small budget
+   * cannot starve the whole level.
+   */
+  public void tick() {
+    tickNumber++;
+    wheel.advance(wakeExpired);
+
+    if (cursor == null) {
+      lastDeferredCount = 0;
+      lastTickedCount = 0;
+      lastTickNanos = 0;
+      return;
+    }
+
+    long start = System.nanoTime();
+    long deadline = start + tickBudgetNanos;
+    int ticked = 0;
+    int stillActive = 0;
+
+    ticking = true;
+    linkedWhileTicking = 0;
+    while (cursor != null && cursor.lastTickNumber != tickNumber) {
+      BehaviorExecutor executor = cursor;
+      cursor = executor.next;
+      executor.lastTickNumber = tickNumber;
+      ticked++;
+
+      if (executor.getContext().getExecutor().isRemoved()) {
+        unregister(executor);
+        executor.cancelWork();
+        continue;
+      }
+
+      executor.tick();
+
+      if (executor.active
+          && executor.getState() == BehaviorExecutor.BehaviorExecutorState.WAITING) {
+        unlinkActive(executor);
+        park(executor);
+      } else if (executor.active) {
+        stillActive++;
+      }
+
+      if (System.nanoTime() - deadline >= 0) {
+        break;
+      }
+    }
+    ticking = false;
+
+    lastTickedCount = ticked;
+    lastDeferredCount = Math.max(0, activeCount - stillActive - linkedWhileTicking);
+    lastTickNanos = System.nanoTime() - start;
+  }
+
+  /**
+   * Get the level this scheduler belongs to.
+   *
+   * @return The level
+   */
+  public Level getLevel() {
+    return level;
+  }
+
+  /**
+   * Get the number of runnable executors registered with this scheduler.
+   *
+   * @return The number of runnable executors
+   */
+  public int getExecutorCount() {
+    return activeCount;
+  }
+
+  /**
+   * Get the number of executors parked in the timing wheel.
+   *
+   * @return The number of sleeping executors
+   */
+  public int getSleepingCount() {
+    return wheel.size();
+  }
+
+  /**
+   * Get the number of executors that were deferred to the next tick because the budget ran out.
+   *
+   * @return The number of deferred executors on the last tick
+   */
+  public int getDeferredCount() {
+    return lastDeferredCount;
+  }
+
+  /**
+   * Get the number of executors ticked on the last tick.
+   *
+   * @return The number of executors ticked
+   */
+  public int getTickedCount() {
+    return lastTickedCount;
+  }
+
+  /**
+   * Get the time spent ticking executors on the last tick.
+   *
+   * @return The elapsed time in nanoseconds
+   */
+  public long getLastTickNanos() {
+    return lastTickNanos;
+  }
+
+  /**
+   * Move a parked executor back into the tick order. Called by the executor when it wakes up or
+   * otherwise leaves the WAITING state.
+   *
+   * @param executor The executor that is no longer parked
+   */
+  void unpark(BehaviorExecutor executor) {
+    wheel.cancel(executor);
+    removeSignalWaiter(executor);
+    if (!executor.active) {
+      linkActive(executor);
+    }
+  }
+
+  /** Take a WAITING executor out of the tick order until its wake-up tick or signal */
+  private void park(BehaviorExecutor executor) {
+    long wakeGameTime = executor.getWakeGameTime();
+    Identifier signal = executor.getWakeSignal();
+
+    if (signal != null) {
+      signalWaiters.computeIfAbsent(signal, key -> new ArrayList<>()).add(executor);
+    }
+    if (wakeGameTime >= 0) {
+      long delay = wakeGameTime - level.getGameTime();
+      if (delay <= 0) {
+        executor.wake();
+        return;
+      }
+      wheel.schedule(executor, delay);
+    } else if (signal == null) {
+      // Nothing would ever wake this executor, so keep ticking it instead
+      linkActive(executor);
+    }
+  }
+
+  /** Remove an executor from the waiter list of the signal it is blocked on */
+  private void removeSignalWaiter(BehaviorExecutor executor) {
+    Identifier signal = executor.getWakeSignal();
+    if (signal == null) {
+      return;
+    }
+    List<BehaviorExecutor> waiters = signalWaiters.get(signal);
+    if (waiters != null && waiters.remove(executor) && waiters.isEmpty()) {
+      signalWaiters.remove(signal);
+    }
+  }
+
+  /** Add an executor to the end of the round-robin order */
+  private void linkActive(BehaviorExecutor executor) {
+    if (cursor == null) {
+      executor.prev = executor;
+      executor.next = executor;
+      cursor = executor;
+    } else {
+      executor.next = cursor;
+      executor.prev = cursor.prev;
+      cursor.prev.next = executor;
+      cursor.prev = executor;
+    }
+    executor.active = true;
+    activeCount++;
+
+    if (ticking) {
+      // Runs from the next tick so this tick's loop still ends where it started
+      executor.lastTickNumber = tickNumber;
+      linkedWhileTicking++;
+    }
+  }
+
+  /** Remove an executor from the round-robin order */
+  private void unlinkActive(BehaviorExecutor executor) {
+    if (executor.next == executor) {
+      cursor = null;
+    } else {
+      if (cursor == executor) {
+        cursor = executor.next;
+      }
+      executor.prev.next = executor.next;
+      executor.next.prev = executor.prev;
+    }
+    executor.prev = null;
+    executor.next = null;
+    executor.active = false;
+    activeCount--;
+  }
+
+  /** Unregister every executor and cancel its async work */
+  private void clear() {
+    while (cursor != null) {
+      BehaviorExecutor executor = cursor;
+      unlinkActive(executor);
+      drop(executor);
+    }
+    wheel.clear(DroneTickScheduler::drop);
+    signalWaiters.values().forEach(list -> list.forEach(DroneTickScheduler::drop));
+    signalWaiters.clear();
+  }
+
+  private static void drop(BehaviorExecutor executor) {
+    executor.scheduler = null;
+    executor.cancelWork();
+  }
+}
@@ -0,0 +1,107 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Execution state one executor keeps for the behavior it runs: the position in the behavior's
+ * {@link BehaviorProgram}, the current action, the state that action keeps while it runs, and how
+ * often it has failed in a row. Behaviors and their actions are immutable and shared by every
+ * executor running them, so this frame is all an executor needs of its own.
+ *
+ * <p>Only the current action has state. It is created through {@link IAction#createState()} when
+ * the action starts and dropped when it finishes, succeeds or fails, so an action never sees state
+ * left over from an earlier run and executors between actions hold no action state at all.
+ */
+@ApiStatus.Experimental
+public final class ExecutionFrame {
+  /** Offset of the next instruction to run in the behavior's program */
+  private int programCounter = 0;
+
+  /** Index of the action being executed, or of the last action executed */
+  private int actionIndex = 0;
+
+  /** State of the current action, or null until it is first executed */
+  @Nullable private Object actionState;
+
+  /** Number of times in a row the current action has failed */
+  private int consecutiveFailures = 0;
+
+  /**
+   * Get the offset of the next instruction to run.
+   *
+   * @return The program counter
+   */
+  public int getProgramCounter() {
+    return programCounter;
+  }
+
+  /**
+   * Get the index of the action being executed.
+   *
+   * @return The 0-indexed position of the current action, or of the last action executed while
+   *     the program is between actions
+   */
+  public int getActionIndex() {
+    return actionIndex;
+  }
+
+  /**
+   * Get the state of the current action.
+   *
+   * @return The state, or null if the action keeps none or has not run yet
+   */
+  @Nullable public Object getActionState() {
+    return actionState;
+  }
+
+  /**
+   * Get the number of times in a row the current action has failed.
+   *
+   * @return The number of consecutive failures
+   */
+  public int getConsecutiveFailures() {
+    return consecutiveFailures;
+  }
+
+  /**
+   * Get the state of the current action, creating it if the action has just started.
+   *
+   * @param action The current action
+   * @return The action's state, or null if it keeps none
+   */
+  @Nullable Object getOrCreateActionState(IAction action) {
+    if (actionState == null) {
+      actionState = action.createState();
+    }
+    return actionState;
+  }
+
+  /** Mark the action about to be executed */
+  void enterAction(int actionIndex) {
+    this.actionIndex = actionIndex;
+  }
+
+  /** Continue at another instruction, leaving the current action */
+  void jump(int programCounter) {
+    this.programCounter = programCounter;
+    actionState = null;
+    consecutiveFailures = 0;
+  }
+
+  /** Count a failure of the current action and drop its state, so a retry starts over */
+  void fail() {
+    actionState = null;
+    consecutiveFailures++;
+  }
+
+  /** Go back to the first instruction */
+  void reset() {
+    programCounter = 0;
+    actionIndex = 0;
+    actionState = null;
+    consecutiveFailures = 0;
+  }
+}
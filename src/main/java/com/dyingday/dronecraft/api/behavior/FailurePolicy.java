@@ -0,0 +1,81 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import net.minecraft.util.RandomSource;
+
+/**
+ * Describes what a {@link BehaviorExecutor} does when an action returns FAILURE. The action is
+ * retried up to {@code maxRetries} times in a row, sleeping before each retry for an exponentially
+ * growing number of ticks with random jitter so that many executors failing together do not retry
+ * in lockstep. Once the retries are used up the executor either skips to the next action or
+ * aborts the behavior.
+ *
+ * <p>Backoff sleeps park the executor through the tick scheduler, so an executor backing off costs
+ * nothing per tick.
+ *
+ * @param maxRetries Number of consecutive retries before giving up
+ * @param baseBackoffTicks Ticks to sleep before the first retry, doubled for every further retry
+ * @param maxBackoffTicks Upper bound on the ticks slept before a single retry
+ * @param jitter Fraction of each backoff, from 0 to 1, that may randomly be taken off it
+ * @param onExhausted What to do once the retries are used up
+ */
+@ApiStatus.Experimental
+public record FailurePolicy(
+    int maxRetries,
+    int baseBackoffTicks,
+    int maxBackoffTicks,
+    double jitter,
+    Exhausted onExhausted) {
+  /** Skip to the next action straight away, without retrying */
+  public static final FailurePolicy SKIP = new FailurePolicy(0, 0, 0, 0, Exhausted.SKIP);
+
+  /** Stop the behavior straight away, without retrying */
+  public static final FailurePolicy ABORT = new FailurePolicy(0, 0, 0, 0, Exhausted.ABORT);
+
+  public FailurePolicy {
+    if (maxRetries < 0 || baseBackoffTicks < 0 || maxBackoffTicks < baseBackoffTicks) {
+      throw new IllegalArgumentException("Invalid retry count or backoff range");
+    }
+    if (jitter < 0 || jitter > 1) {
+      throw new IllegalArgumentException("Jitter must be between 0 and 1");
+    }
+  }
+
+  /**
+   * Create a policy that retries with exponential backoff and 25% jitter, then skips the action.
+   *
+   * @param maxRetries Number of consecutive retries before skipping
+   * @param baseBackoffTicks Ticks to sleep before the first retry
+   * @param maxBackoffTicks Upper bound on the ticks slept before a single retry
+   * @return The policy
+   */
+  public static FailurePolicy retryThenSkip(
+      int maxRetries, int baseBackoffTicks, int maxBackoffTicks) {
+    return new FailurePolicy(maxRetries, baseBackoffTicks, maxBackoffTicks, 0.25, Exhausted.SKIP);
+  }
+
+  /**
+   * Get the number of ticks to sleep before a retry.
+   *
+   * @param retry The retry about to be made, starting from 1
+   * @param random Random source for the jitter
+   * @return The backoff in ticks, or 0 to retry on the next tick
+   */
+  public int getBackoffTicks(int retry, RandomSource random) {
+    if (baseBackoffTicks == 0) {
+      return 0;
+    }
+    long backoff = Math.min((long) baseBackoffTicks << Math.min(retry - 1, 30), maxBackoffTicks);
+    int maxJitter = (int) (backoff * jitter);
+    return (int) backoff - (maxJitter > 0 ? random.nextInt(maxJitter + 1) : 0);
+  }
+
+  /** What an executor does once an action has used up its retries */
+  public enum Exhausted {
+    /** Move on to the next action as if the action had succeeded */
+    SKIP,
+    /** Stop the behavior, leaving the executor in the FAILED state */
+    ABORT
+  }
+}
@@ -0,0 +1,64 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import java.util.function.Predicate;
+
+/**
+ * An instruction of a behavior program in the editable form {@link OptimizationPass}es work on.
+ * Jumps refer to {@link Label} instructions placed in front of their target rather than to code
+ * offsets, so passes can insert and remove instructions freely. Each action carries its failure
+ * policy, which moves with it.
+ */
+@ApiStatus.Experimental
+public sealed interface Instruction {
+  /**
+   * Execute an action.
+   *
+   * @param action The action
+   * @param policy What to do when the action fails
+   */
+  record Action(IAction action, FailurePolicy policy) implements Instruction {}
+
+  /**
+   * Continue at a label.
+   *
+   * @param target The label to continue at
+   */
+  record Jump(Label target) implements Instruction {}
+
+  /**
+   * Continue at a label unless a condition holds.
+   *
+   * @param condition The condition
+   * @param target The label to continue at if the condition does not hold
+   */
+  record JumpUnless(Predicate<ActionContext> condition, Label target) implements Instruction {}
+
+  /**
+   * Set a variable to a constant value.
+   *
+   * @param key The variable
+   * @param value The value
+   */
+  record SetVariable(VariableKey<?> key, Object value) implements Instruction {}
+
+  /**
+   * Remove a variable.
+   *
+   * @param key The variable
+   */
+  record RemoveVariable(VariableKey<?> key) implements Instruction {}
+
+  /** Start the program over, clearing persistent data */
+  record Restart() implements Instruction {}
+
+  /** Finish the program */
+  record Halt() implements Instruction {}
+
+  /** Marks the target of jumps. Compiles to nothing and is compared by identity */
+  final class Label implements Instruction {}
+}
@@ -1,8 +1,12 @@
 /* (C)2025 */
 package com.dyingday.dronecraft.api.behavior;
 
+/** Result of a behavior tree node */
 public enum NodeResult {
+  /** Indicates a node has completed successfully */
   SUCCESS,
+  /** Indicates a node has failed */
   FAILURE,
+  /** Indicates a node is still running */
   CONTINUE,
 }
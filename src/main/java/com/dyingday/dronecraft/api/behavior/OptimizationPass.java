@@ -0,0 +1,20 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import java.util.List;
+
+/** A rewrite of behavior programs run by a {@link BehaviorOptimizer} */
+@ApiStatus.Experimental
+@FunctionalInterface
+public interface OptimizationPass {
+  /**
+   * Rewrite a program in place. The rewritten program must do the same as the original, apart
+   * from taking fewer ticks or less work.
+   *
+   * @param code The program's instructions, which the pass may change
+   * @param changes Receives a human-readable line for every change made
+   * @return True if the program was changed
+   */
+  boolean apply(List<Instruction> code, List<String> changes);
+}
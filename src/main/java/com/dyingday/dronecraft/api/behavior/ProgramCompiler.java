@@ -0,0 +1,158 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Optional compiled tier for hot {@link BehaviorProgram}s. The interpreter calls every action
+ * through one {@code IAction.execute} call site in {@link BehaviorExecutor}, which sees every
+ * action class there is and so can never be inlined. Once a program has executed enough actions,
+ * summed over all executors sharing it, it is promoted: a hidden class is defined for it from
+ * {@link ActionDispatcherTemplate} with the program's actions bound into constant method handles,
+ * and executors call its actions through that class from then on.
+ *
+ * <p>Executors fall back to the interpreter's call site whenever the tier is disabled, the program
+ * has not been promoted yet, or defining the class failed. Failures are counted and the most recent
+ * one is kept, see {@link #getLastFailure()}. The tier is off by default.
+ *
+ * <p>Thread-safety: The compiler must only be accessed from the server thread.
+ */
+@ApiStatus.Experimental
+public final class ProgramCompiler {
+  /** Default number of action executions after which a program is compiled */
+  public static final int DEFAULT_PROMOTION_THRESHOLD = 10_000;
+
+  private static final MethodType EXECUTE =
+      MethodType.methodType(ActionResult.class, ActionContext.class);
+
+  /** Whether programs are promoted */
+  private static boolean enabled = false;
+
+  /** Action executions after which a program is compiled */
+  private static int promotionThreshold = DEFAULT_PROMOTION_THRESHOLD;
+
+  /** Class file of the template, read on first use */
+  @Nullable private static byte[] template;
+
+  /** Number of programs that could not be compiled */
+  private static int failures = 0;
+
+  /** Why the most recent failed program could not be compiled, or null if none failed */
+  @Nullable private static Throwable lastFailure;
+
+  private ProgramCompiler() {}
+
+  /**
+   * Check if hot programs are compiled.
+   *
+   * @return True if the compiled tier is enabled
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Turn the compiled tier on or off. Programs compiled already keep their compiled form and use it
+   * again once the tier is turned back on.
+   *
+   * @param enabled True to compile hot programs, false to interpret all programs
+   */
+  public static void setEnabled(boolean enabled) {
+    ProgramCompiler.enabled = enabled;
+  }
+
+  /**
+   * Set the number of action executions after which a program is compiled.
+   *
+   * @param threshold The threshold, at least 1
+   */
+  public static void setPromotionThreshold(int threshold) {
+    promotionThreshold = Math.max(1, threshold);
+  }
+
+  /**
+   * Get the number of programs that could not be compiled and stay on the interpreter.
+   *
+   * @return The number of failed compilations
+   */
+  public static int getFailureCount() {
+    return failures;
+  }
+
+  /**
+   * Get why the most recent failed program could not be compiled.
+   *
+   * @return The failure, or null if no program failed to compile
+   */
+  public static @Nullable Throwable getLastFailure() {
+    return lastFailure;
+  }
+
+  /** Count an action execution of a program and get its dispatcher, compiling it once it is hot */
+  @Nullable static ActionDispatcher dispatcher(BehaviorProgram program) {
+    if (!enabled) {
+      return null;
+    }
+    if (program.dispatcher == null
+        && !program.compileFailed
+        && ++program.executions >= promotionThreshold) {
+      program.dispatcher = compile(program);
+      program.compileFailed = program.dispatcher == null;
+    }
+    return program.dispatcher;
+  }
+
+  /** Define a dispatcher class for a program, or return null if that is not possible */
+  @Nullable private static ActionDispatcher compile(BehaviorProgram program) {
+    try {
+      List<Object> data = new ArrayList<>(ActionDispatcherTemplate.SLOTS + 1);
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      MethodHandle execute = lookup.findVirtual(IAction.class, "execute", EXECUTE);
+      for (int i = 0; i < ActionDispatcherTemplate.SLOTS; i++) {
+        // The bound receiver is a constant, so the JIT resolves the interface call to its class
+        data.add(
+            i < program.actions.length
+                ? execute.bindTo(program.actions[i])
+                : MethodHandles.empty(EXECUTE));
+      }
+      data.add(program.actions.clone());
+
+      MethodHandles.Lookup hidden =
+          lookup.defineHiddenClassWithClassData(template(), List.copyOf(data), true);
+      return hidden
+          .lookupClass()
+          .asSubclass(ActionDispatcher.class)
+          .getDeclaredConstructor()
+          .newInstance();
+    } catch (ReflectiveOperationException | IOException | LinkageError | ClassCastException e) {
+      // Stay on the interpreter, which runs the same actions
+      failures++;
+      lastFailure = e;
+      return null;
+    }
+  }
+
+  private static byte[] template() throws IOException {
+    if (template == null) {
+      String name = ActionDispatcherTemplate.class.getSimpleName() + ".class";
+      try (InputStream in = ProgramCompiler.class.getResourceAsStream(name)) {
+        if (in == null) {
+          throw new IOException("Missing class file " + name);
+        }
+        template = in.readAllBytes();
+      }
+    }
+    return template;
+  }
+}
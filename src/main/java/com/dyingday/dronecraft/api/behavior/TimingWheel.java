@@ -0,0 +1,168 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel holding parked executors until their wake-up tick. Each level has 64
+ * slots and covers 64 times the range of the level below it, so scheduling, cancelling and
+ * advancing are all O(1) per executor regardless of how many executors are sleeping. Executors
+ * are linked into slots through their own {@code prev}/{@code next} fields, so the wheel itself
+ * never allocates.
+ *
+ * <p>Delays longer than the wheel's range (about 16.7 million ticks) are clamped to the range.
+ */
+final class TimingWheel {
+  /** Number of bits of the deadline each level consumes */
+  private static final int SLOT_BITS = 6;
+
+  /** Number of slots per level */
+  private static final int SLOTS = 1 << SLOT_BITS;
+
+  /** Mask selecting a slot within a level */
+  private static final int SLOT_MASK = SLOTS - 1;
+
+  /** Number of levels in the wheel */
+  private static final int LEVELS = 4;
+
+  /** Longest delay the wheel can represent */
+  static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+  /** Head of the linked list in each slot, indexed by level * SLOTS + slot */
+  private final BehaviorExecutor[] slots = new BehaviorExecutor[SLOTS * LEVELS];
+
+  /** The current wheel tick */
+  private long now = 0;
+
+  /** Number of executors in the wheel */
+  private int size = 0;
+
+  /**
+   * Schedule an executor to expire after a delay.
+   *
+   * @param executor The executor, which must not already be in the wheel
+   * @param delay Delay in ticks, clamped to between 1 and {@link #MAX_DELAY}
+   */
+  void schedule(BehaviorExecutor executor, long delay) {
+    executor.wheelDeadline = now + Math.max(1, Math.min(delay, MAX_DELAY));
+    insert(executor);
+    size++;
+  }
+
+  /**
+   * Remove an executor from the wheel before it expires. Has no effect if the executor is not in
+   * the wheel.
+   *
+   * @param executor The executor to cancel
+   */
+  void cancel(BehaviorExecutor executor) {
+    if (executor.wheelSlot < 0) {
+      return;
+    }
+    unlink(executor);
+    size--;
+  }
+
+  /**
+   * Advance the wheel by one tick, cascading higher levels down as their slots come due and
+   * passing every executor whose deadline has been reached to the consumer.
+   *
+   * @param expired Receives each expired executor after it has been removed from the wheel
+   */
+  void advance(Consumer<BehaviorExecutor> expired) {
+    now++;
+    if (size == 0) {
+      return;
+    }
+
+    for (int level = LEVELS - 1; level > 0; level--) {
+      long levelMask = (1L << (SLOT_BITS * level)) - 1;
+      if ((now & levelMask) == 0) {
+        cascade(level * SLOTS + (int) ((now >>> (SLOT_BITS * level)) & SLOT_MASK));
+      }
+    }
+
+    int slot = (int) (now & SLOT_MASK);
+    BehaviorExecutor executor = slots[slot];
+    while (executor != null) {
+      BehaviorExecutor following = executor.next;
+      unlink(executor);
+      size--;
+      expired.accept(executor);
+      executor = following;
+    }
+  }
+
+  /**
+   * Get the number of executors waiting in the wheel.
+   *
+   * @return The number of parked executors
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Remove every executor from the wheel.
+   *
+   * @param removed Receives each executor after it has been removed
+   */
+  void clear(Consumer<BehaviorExecutor> removed) {
+    for (int slot = 0; slot < slots.length; slot++) {
+      BehaviorExecutor executor = slots[slot];
+      while (executor != null) {
+        BehaviorExecutor following = executor.next;
+        unlink(executor);
+        removed.accept(executor);
+        executor = following;
+      }
+    }
+    size = 0;
+  }
+
+  /** Move every executor in a higher-level slot down to the level matching its remaining delay */
+  private void cascade(int slot) {
+    BehaviorExecutor executor = slots[slot];
+    while (executor != null) {
+      BehaviorExecutor following = executor.next;
+      unlink(executor);
+      insert(executor);
+      executor = following;
+    }
+  }
+
+  /** Link an executor into the slot matching its deadline */
+  private void insert(BehaviorExecutor executor) {
+    long delta = executor.wheelDeadline - now;
+    int level = 0;
+    while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+      level++;
+    }
+    int slot =
+        level * SLOTS + (int) ((executor.wheelDeadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+
+    BehaviorExecutor head = slots[slot];
+    executor.prev = null;
+    executor.next = head;
+    if (head != null) {
+      head.prev = executor;
+    }
+    slots[slot] = executor;
+    executor.wheelSlot = slot;
+  }
+
+  /** Unlink an executor from its slot */
+  private void unlink(BehaviorExecutor executor) {
+    if (executor.prev != null) {
+      executor.prev.next = executor.next;
+    } else {
+      slots[executor.wheelSlot] = executor.next;
+    }
+    if (executor.next != null) {
+      executor.next.prev = executor.prev;
+    }
+    executor.prev = null;
+    executor.next = null;
+    executor.wheelSlot = -1;
+  }
+}
@@ -9,6 +9,10 @@ public enum ActionResult {
   FAILURE,
   /** Indicates an action needs to continue in the next tick */
   CONTINUE,
-  /** Indicates something is blocking this action from being able to run */
+  /**
+   * Indicates something is blocking this action from being able to run. Actions that know how long
+   * they will be blocked for should return {@code ActionContext#sleepFor} or {@code
+   * ActionContext#blockUntil} so the executor is parked instead of retried every tick
+   */
   BLOCKING
 }
@@ -2,6 +2,8 @@
 package com.dyingday.dronecraft.api.behavior.action;
 
 import com.dyingday.dronecraft.api.context.ActionContext;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import java.util.List;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
 
@@ -17,6 +19,14 @@ public interface IAction {
   /** Check if this action can execute in the current context */
   boolean canExecute(ActionContext context);
 
+  /**
+   * Check if {@link #canExecute(ActionContext)} holds in every context, so checks of it can be
+   * resolved once when a behavior is loaded instead of on every run
+   */
+  default boolean isAlwaysExecutable() {
+    return false;
+  }
+
   /** Get the display name for UI purposes */
   Component getDisplayName();
 
@@ -31,4 +41,25 @@ public interface IAction {
 
   /** Create a deep copy of this action */
   IAction copy();
+
+  /**
+   * Create the state this action keeps while it runs. Actions are shared by every executor running
+   * a behavior, so anything that changes between executions of one run, such as a target or a work
+   * list, must live in this state rather than in fields. Executors create the state when the action
+   * starts and drop it once the action succeeds or fails; it is available through {@link
+   * ActionContext#getActionState(Class)}
+   *
+   * @return A fresh state object, or null if the action keeps no state
+   */
+  default Object createState() {
+    return null;
+  }
+
+  /**
+   * Get the context variables this action reads or writes, so behaviors containing it can give
+   * them fixed slots
+   */
+  default List<VariableKey<?>> getVariableKeys() {
+    return List.of();
+  }
 }
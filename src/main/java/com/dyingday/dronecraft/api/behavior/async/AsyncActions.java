@@ -0,0 +1,176 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.async;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.CancellationToken;
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Runs the computations of {@link IAsyncAction}s on a pool of worker threads. Finished tasks are
+ * handed back to the server thread through a lock-free queue, which is drained at the start of
+ * every server tick, so executors pick up their results within the same tick and the workers never
+ * wait on the server thread.
+ *
+ * <p>Tasks are tied to the {@link CancellationToken} of the executor that submitted them.
+ * Cancelling it drops tasks that are still queued, and running computations can poll it through
+ * {@link CancellationToken#current()}.
+ *
+ * <p>Thread-safety: Everything except the workers themselves must only be accessed from the server
+ * thread.
+ */
+@ApiStatus.Experimental
+public final class AsyncActions {
+  /** Default number of worker threads */
+  public static final int DEFAULT_WORKER_THREADS =
+      Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+  /** Tasks the workers finished, waiting to be handed back to the server thread */
+  private static final MpscQueue<AsyncTask<?, ?>> FINISHED = new MpscQueue<>();
+
+  /** Number of worker threads */
+  private static int workerThreads = DEFAULT_WORKER_THREADS;
+
+  /** The worker pool, started on first use */
+  @Nullable private static ThreadPoolExecutor workers;
+
+  /** Number of tasks submitted and not handed back yet */
+  private static int pending = 0;
+
+  private AsyncActions() {}
+
+  /**
+   * Set the number of worker threads. A running pool is resized straight away.
+   *
+   * @param threads The number of threads, at least 1
+   */
+  public static void setWorkerThreads(int threads) {
+    workerThreads = Math.max(1, threads);
+    if (workers != null) {
+      // Grow the maximum first, the core size may never exceed it
+      if (workerThreads > workers.getMaximumPoolSize()) {
+        workers.setMaximumPoolSize(workerThreads);
+        workers.setCorePoolSize(workerThreads);
+      } else {
+        workers.setCorePoolSize(workerThreads);
+        workers.setMaximumPoolSize(workerThreads);
+      }
+    }
+  }
+
+  /**
+   * Get the number of computations running or waiting to be handed back.
+   *
+   * @return The number of pending tasks
+   */
+  public static int getPendingCount() {
+    return pending;
+  }
+
+  /**
+   * Hand finished tasks back at the start of the server tick.
+   *
+   * @param event The server tick event
+   */
+  public static void onServerTick(ServerTickEvent.Pre event) {
+    drain();
+  }
+
+  /**
+   * Let go of the tasks finished by the time the server stops, whose executors are gone.
+   *
+   * @param event The server stopped event
+   */
+  public static void onServerStopped(ServerStoppedEvent event) {
+    drain();
+  }
+
+  /**
+   * Hand every task the workers have finished back to its action, which commits the result on its
+   * executor's next tick. Called at the start of every server tick; offline harnesses without a
+   * server call it themselves.
+   */
+  public static void drain() {
+    AsyncTask<?, ?> task;
+    while ((task = FINISHED.poll()) != null) {
+      task.stage = AsyncTask.DONE;
+      task.token.removeListener(task.cancelListener);
+      pending--;
+    }
+  }
+
+  /** Drive one tick of an async action, see {@link IAsyncAction} */
+  static <I, R> ActionResult execute(IAsyncAction<I, R> action, ActionContext context) {
+    @SuppressWarnings("unchecked")
+    AsyncTask<I, R> task = context.getActionState(AsyncTask.class);
+    switch (task.stage) {
+      case AsyncTask.IDLE -> {
+        if (context.getCancellationToken().isCancelled()) {
+          return ActionResult.FAILURE;
+        }
+        I input = action.prepare(context);
+        if (input == null) {
+          return ActionResult.FAILURE;
+        }
+        task.input = input;
+        task.stage = AsyncTask.RUNNING;
+        submit(task, context.getCancellationToken());
+        return ActionResult.CONTINUE;
+      }
+      case AsyncTask.RUNNING -> {
+        return ActionResult.CONTINUE;
+      }
+      default -> {
+        return task.error != null ? ActionResult.FAILURE : action.commit(context, task.result);
+      }
+    }
+  }
+
+  private static void submit(AsyncTask<?, ?> task, CancellationToken token) {
+    ThreadPoolExecutor pool = workers();
+    Runnable job =
+        () -> {
+          task.compute();
+          FINISHED.offer(task);
+        };
+    task.token = token;
+    task.cancelListener =
+        () -> {
+          // A task the workers have not picked up yet is never handed back, forget it now
+          if (pool.remove(job)) {
+            pending--;
+          }
+        };
+    pending++;
+    token.addListener(task.cancelListener);
+    pool.execute(job);
+  }
+
+  private static ThreadPoolExecutor workers() {
+    if (workers == null) {
+      AtomicInteger count = new AtomicInteger();
+      workers =
+          new ThreadPoolExecutor(
+              workerThreads,
+              workerThreads,
+              60,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              runnable -> {
+                Thread thread =
+                    new Thread(runnable, "DroneCraft Worker #" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+      workers.allowCoreThreadTimeOut(true);
+    }
+    return workers;
+  }
+}
@@ -0,0 +1,57 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.async;
+
+import com.dyingday.dronecraft.api.behavior.CancellationToken;
+import java.util.concurrent.CancellationException;
+
+/**
+ * One run of an {@link IAsyncAction}, kept as its action state. The worker thread only writes the
+ * result or error before handing the task back through the result queue, which publishes them to
+ * the server thread; everything else is only touched on the server thread.
+ */
+final class AsyncTask<I, R> {
+  static final byte IDLE = 0;
+  static final byte RUNNING = 1;
+  static final byte DONE = 2;
+
+  /** The action being run */
+  final IAsyncAction<I, R> action;
+
+  /** Where the run is: not submitted, computing, or handed back */
+  byte stage = IDLE;
+
+  /** The input captured on the server thread */
+  I input;
+
+  /** The computed result, written by the worker */
+  R result;
+
+  /** What the computation threw, written by the worker, or null if it completed */
+  Throwable error;
+
+  /** Token of the executor that submitted the task */
+  CancellationToken token = CancellationToken.NONE;
+
+  /** Drops the task from the worker queue when the token is cancelled, or null if not submitted */
+  Runnable cancelListener;
+
+  AsyncTask(IAsyncAction<I, R> action) {
+    this.action = action;
+  }
+
+  /** Run the computation on a worker thread, unless its executor has cancelled it */
+  void compute() {
+    if (token.isCancelled()) {
+      error = new CancellationException();
+      return;
+    }
+    token.runAs(
+        () -> {
+          try {
+            result = action.compute(input);
+          } catch (Throwable e) {
+            error = e;
+          }
+        });
+  }
+}
@@ -0,0 +1,70 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.async;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An action whose heavy work, such as scanning a snapshot of the world, pathfinding or planning,
+ * runs on a worker thread instead of the server thread. A run goes through three steps:
+ *
+ * <ol>
+ *   <li>{@link #prepare(ActionContext)} runs on the server thread and captures everything the
+ *       computation needs into an input that does not refer to live world state
+ *   <li>{@link #compute(Object)} runs on a worker thread of {@link AsyncActions} while the action
+ *       keeps returning CONTINUE
+ *   <li>{@link #commit(ActionContext, Object)} runs on the server thread once the result has been
+ *       handed back at the start of a server tick, and applies it to the world
+ * </ol>
+ *
+ * <p>Implementations only provide these three steps; {@link #execute(ActionContext)} and {@link
+ * #createState()} drive them and must not be overridden. The run state is the action state, so an
+ * async action keeps any other state it needs in its input and result.
+ *
+ * @param <I> The input of the computation
+ * @param <R> The result of the computation
+ */
+@ApiStatus.Experimental
+public interface IAsyncAction<I, R> extends IAction {
+  /**
+   * Capture the input of the computation. Called on the server thread.
+   *
+   * @param context The execution context
+   * @return The input, which must be safe to read from another thread, or null to fail the action
+   */
+  @Nullable I prepare(ActionContext context);
+
+  /**
+   * Compute the result. Called on a worker thread, so it must not touch the world, the context or
+   * anything else the server thread changes. Long computations should stop once {@link
+   * com.dyingday.dronecraft.api.behavior.CancellationToken#current()} is cancelled, which happens
+   * when the executor that started them no longer wants the result.
+   *
+   * @param input The input captured by {@link #prepare(ActionContext)}
+   * @return The result
+   */
+  R compute(I input);
+
+  /**
+   * Apply the result. Called on the server thread, on the first tick of the executor after the
+   * result was handed back, and again on every following tick for as long as it returns CONTINUE.
+   *
+   * @param context The execution context
+   * @param result The result of {@link #compute(Object)}
+   * @return The result of the action
+   */
+  ActionResult commit(ActionContext context, R result);
+
+  @Override
+  default ActionResult execute(ActionContext context) {
+    return AsyncActions.execute(this, context);
+  }
+
+  @Override
+  default Object createState() {
+    return new AsyncTask<>(this);
+  }
+}
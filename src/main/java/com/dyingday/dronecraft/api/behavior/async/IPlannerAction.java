@@ -0,0 +1,42 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.async;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+
+/**
+ * An action written as straight-line code, such as "find a tree, fly to it, harvest it", instead
+ * of a state machine stepped once per tick. Every run of the action gets its own virtual thread
+ * that runs {@link #plan(Planner)}. Whenever the plan needs the world it goes through its {@link
+ * Planner}, which hands the operation to the server thread and parks the virtual thread until the
+ * executor has run it on its next tick. Parked virtual threads take no platform thread, so
+ * thousands of drones can each have a plan in progress.
+ *
+ * <p>Implementations only provide the plan; {@link #execute(ActionContext)} and {@link
+ * #createState()} drive it and must not be overridden. Anything the plan keeps between steps can
+ * simply live in local variables.
+ */
+@ApiStatus.Experimental
+public interface IPlannerAction extends IAction {
+  /**
+   * Run the plan. Called on a virtual thread, so it must only touch the world and the context
+   * through the planner.
+   *
+   * @param planner Runs operations on the server thread for the plan
+   * @return True if the plan succeeded, false if it failed
+   * @throws InterruptedException if the plan is stopped while it waits for the server thread
+   */
+  boolean plan(Planner planner) throws InterruptedException;
+
+  @Override
+  default ActionResult execute(ActionContext context) {
+    return context.getActionState(Planner.class).execute(context);
+  }
+
+  @Override
+  default Object createState() {
+    return new Planner(this);
+  }
+}
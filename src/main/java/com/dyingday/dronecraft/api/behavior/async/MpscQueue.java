@@ -0,0 +1,52 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.async;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Unbounded lock-free queue for many producers and one consumer. Producers swap themselves in as
+ * the tail with a single atomic exchange and then link the previous tail to their node; the
+ * consumer follows the links from a stub head node. A node whose producer has swapped the tail but
+ * not linked it yet is picked up by a later poll.
+ */
+final class MpscQueue<T> {
+  /** The most recently offered node, swapped by producers */
+  private final AtomicReference<Node<T>> tail;
+
+  /** The node before the next one to poll, only touched by the consumer */
+  private Node<T> head;
+
+  MpscQueue() {
+    Node<T> stub = new Node<>(null);
+    head = stub;
+    tail = new AtomicReference<>(stub);
+  }
+
+  /** Add a value. Safe to call from any thread */
+  void offer(T value) {
+    Node<T> node = new Node<>(value);
+    tail.getAndSet(node).next = node;
+  }
+
+  /** Take the oldest linked value, or null if there is none. Only called by the consumer */
+  @Nullable T poll() {
+    Node<T> next = head.next;
+    if (next == null) {
+      return null;
+    }
+    T value = next.value;
+    next.value = null;
+    head = next;
+    return value;
+  }
+
+  private static final class Node<T> {
+    private T value;
+    private volatile Node<T> next;
+
+    private Node(T value) {
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,187 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.async;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.CancellationToken;
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * One run of an {@link IPlannerAction}, kept as its action state. The plan runs on a virtual
+ * thread and talks to the server thread through this object: it posts one operation at a time and
+ * parks, and the executor runs the operation on its next tick, hands back the result and unparks
+ * the plan.
+ *
+ * <p>The plan is interrupted as soon as the {@link CancellationToken} of its executor is cancelled,
+ * which happens when the executor is stopped, reset or removed. An executor dropped without
+ * cancelling its token simply stops answering; the plan then gives up with a {@link
+ * CancellationException} once it has waited {@link #ABANDON_TIMEOUT_SECONDS} seconds for an
+ * operation.
+ */
+@ApiStatus.Experimental
+public final class Planner {
+  /** Seconds an operation may wait for the server thread before the plan is abandoned */
+  public static final long ABANDON_TIMEOUT_SECONDS = 60;
+
+  /** Creates the virtual threads plans run on, only used on the server thread */
+  private static final Thread.Builder THREADS = Thread.ofVirtual().name("DroneCraft Planner #", 0);
+
+  /** The action whose plan is run */
+  private final IPlannerAction action;
+
+  /** The thread running the plan, or null until the plan is started */
+  @Nullable private Thread thread;
+
+  /** Token of the executor running the plan, taken when the plan is started */
+  private CancellationToken token = CancellationToken.NONE;
+
+  /** Stops the plan when the token is cancelled */
+  private final Runnable cancelListener = this::cancel;
+
+  /** Marks a posted operation the server thread has taken and is running */
+  private static final Function<ActionContext, ?> RUNNING = context -> null;
+
+  /**
+   * Operation posted by the plan, replaced by {@link #RUNNING} while the server thread runs it and
+   * cleared once it has, or cleared by the plan when it gives up waiting
+   */
+  private final AtomicReference<Function<ActionContext, ?>> request = new AtomicReference<>();
+
+  /** Result of the last operation, published by clearing the request */
+  @Nullable private Object response;
+
+  /** What the last operation threw, or null if it completed */
+  @Nullable private RuntimeException responseError;
+
+  /** Whether the plan has returned or thrown */
+  private volatile boolean finished = false;
+
+  /** Whether the plan succeeded, published by setting finished */
+  private boolean succeeded = false;
+
+  Planner(IPlannerAction action) {
+    this.action = action;
+  }
+
+  /**
+   * Run an operation on the server thread and wait for its result. Called by the plan.
+   *
+   * @param <T> The result type
+   * @param operation The operation, given the executor's context
+   * @return What the operation returned
+   * @throws InterruptedException if the plan was stopped while waiting
+   * @throws CancellationException if the server thread did not run the operation in time
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T call(Function<ActionContext, T> operation) throws InterruptedException {
+    response = null;
+    responseError = null;
+    request.set(operation);
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(ABANDON_TIMEOUT_SECONDS);
+    while (request.get() != null) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining > 0) {
+        LockSupport.parkNanos(this, remaining);
+      } else if (request.compareAndSet(operation, null)) {
+        // Withdrawn before the server thread took it, so it will never run
+        throw new CancellationException("Planner operation was not run in time");
+      } else {
+        // The server thread is running it and unparks the plan once it is done
+        LockSupport.park(this);
+      }
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+
+    if (responseError != null) {
+      throw responseError;
+    }
+    return (T) response;
+  }
+
+  /**
+   * Run an operation without a result on the server thread and wait for it. Called by the plan.
+   *
+   * @param operation The operation, given the executor's context
+   * @throws InterruptedException if the plan was stopped while waiting
+   */
+  public void run(Consumer<ActionContext> operation) throws InterruptedException {
+    call(
+        context -> {
+          operation.accept(context);
+          return null;
+        });
+  }
+
+  /**
+   * Wait for a number of executor ticks. Called by the plan.
+   *
+   * @param ticks The number of ticks
+   * @throws InterruptedException if the plan was stopped while waiting
+   */
+  public void waitTicks(int ticks) throws InterruptedException {
+    for (int i = 0; i < ticks; i++) {
+      call(context -> null);
+    }
+  }
+
+  /** Stop the plan, which throws InterruptedException from the operation it is waiting for */
+  public void cancel() {
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  /** Drive the plan for one tick on the server thread */
+  ActionResult execute(ActionContext context) {
+    if (thread == null) {
+      token = context.getCancellationToken();
+      if (token.isCancelled()) {
+        return ActionResult.FAILURE;
+      }
+      CancellationToken planToken = token;
+      thread = THREADS.start(() -> planToken.runAs(this::runPlan));
+      token.addListener(cancelListener);
+      return ActionResult.CONTINUE;
+    }
+
+    if (finished) {
+      // Drop anything a finished plan left behind rather than acting for it
+      request.set(null);
+      token.removeListener(cancelListener);
+      return succeeded ? ActionResult.SUCCESS : ActionResult.FAILURE;
+    }
+
+    Function<ActionContext, ?> operation = request.get();
+    if (operation != null && operation != RUNNING && request.compareAndSet(operation, RUNNING)) {
+      try {
+        response = operation.apply(context);
+      } catch (RuntimeException e) {
+        responseError = e;
+      }
+      request.set(null);
+      LockSupport.unpark(thread);
+    }
+    return ActionResult.CONTINUE;
+  }
+
+  private void runPlan() {
+    try {
+      succeeded = action.plan(this);
+    } catch (InterruptedException | RuntimeException e) {
+      // A plan that is stopped or throws fails the action
+      succeeded = false;
+    } finally {
+      finished = true;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.tree;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.NodeResult;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+
+/**
+ * Leaf that runs an action until it succeeds or fails. The action gets its own state for every
+ * run, like in a flat {@link com.dyingday.dronecraft.api.behavior.Behavior}, and may sleep or wait
+ * for a signal through the context; the tree then skips the leaf until it is due again.
+ */
+@ApiStatus.Experimental
+public final class ActionNode extends BehaviorNode {
+  private final IAction action;
+
+  /**
+   * Create an action leaf.
+   *
+   * @param action The action to run
+   */
+  public ActionNode(IAction action) {
+    this.action = action;
+  }
+
+  /**
+   * Get the action this leaf runs.
+   *
+   * @return The action
+   */
+  public IAction getAction() {
+    return action;
+  }
+
+  @Override
+  void start(TreeFrame frame, int index, ActionContext context) {
+    frame.unblock(index);
+    frame.schedule(index);
+  }
+
+  @Override
+  void tick(TreeFrame frame, int index, ActionContext context) {
+    context.clearParkRequest();
+    switch (frame.executeLeaf(index, action, context)) {
+      case SUCCESS -> frame.finish(index, NodeResult.SUCCESS, context);
+      case FAILURE -> frame.finish(index, NodeResult.FAILURE, context);
+      case CONTINUE -> frame.unblock(index);
+      case BLOCKING -> frame.block(index, context);
+    }
+  }
+}
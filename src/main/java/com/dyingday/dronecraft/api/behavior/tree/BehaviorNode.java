@@ -0,0 +1,63 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.tree;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.NodeResult;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import java.util.List;
+
+/**
+ * A node of a {@link BehaviorTree}. Nodes are immutable descriptions shared by every executor
+ * running the tree; whatever a node needs to remember while it runs is kept by the executor's
+ * {@link TreeFrame}, at the node's index in the tree.
+ *
+ * <p>Nodes are event driven. A node is started once, after which it only hears from the tree again
+ * when one of its children finishes or, for leaves, when it is scheduled to be ticked. The tree
+ * never walks down from the root to find the running nodes.
+ */
+@ApiStatus.Experimental
+public abstract class BehaviorNode {
+  /**
+   * Get the children of this node, in order.
+   *
+   * @return Unmodifiable list of children, empty for leaves
+   */
+  public List<BehaviorNode> getChildren() {
+    return List.of();
+  }
+
+  /**
+   * Start running this node. The node must either finish straight away through {@link
+   * TreeFrame#finish}, start children or schedule itself to be ticked.
+   *
+   * @param frame The executor's tree state
+   * @param index Index of this node in the tree
+   * @param context The execution context
+   */
+  abstract void start(TreeFrame frame, int index, ActionContext context);
+
+  /**
+   * Handle a child finishing.
+   *
+   * @param frame The executor's tree state
+   * @param index Index of this node in the tree
+   * @param position Position of the child among this node's children
+   * @param result SUCCESS or FAILURE
+   * @param context The execution context
+   */
+  void childFinished(
+      TreeFrame frame, int index, int position, NodeResult result, ActionContext context) {
+    throw new IllegalStateException(getClass().getSimpleName() + " has no children");
+  }
+
+  /**
+   * Tick a node that scheduled itself through {@link TreeFrame#schedule}.
+   *
+   * @param frame The executor's tree state
+   * @param index Index of this node in the tree
+   * @param context The execution context
+   */
+  void tick(TreeFrame frame, int index, ActionContext context) {
+    throw new IllegalStateException(getClass().getSimpleName() + " is never scheduled");
+  }
+}
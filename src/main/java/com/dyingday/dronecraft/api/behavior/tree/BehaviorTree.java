@@ -0,0 +1,164 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.tree;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.Behavior;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import net.minecraft.resources.Identifier;
+
+/**
+ * An immutable behavior tree. The nodes are flattened in depth-first order when the tree is built,
+ * so every node has a fixed index and the nodes below it form a contiguous index range. Executors
+ * keep their per-node state in flat arrays indexed the same way, see {@link TreeFrame}, and one
+ * tree can be shared by any number of executors.
+ *
+ * <p>A tree runs as a single action of a {@link Behavior}, see {@link #toBehavior(Identifier,
+ * boolean)}, so it is ticked, parked and profiled by the executor and tick scheduler like any other
+ * behavior.
+ */
+@ApiStatus.Experimental
+public final class BehaviorTree {
+  /** The nodes, in depth-first order */
+  private final BehaviorNode[] nodes;
+
+  /** Index of each node's parent, or -1 for the root */
+  private final int[] parents;
+
+  /** Position of each node among its parent's children */
+  private final int[] positions;
+
+  /** Index of the last node below each node, or the node itself for leaves */
+  private final int[] ends;
+
+  /** Indices of each node's children */
+  private final int[][] children;
+
+  /** Context variables used by the tree's actions and conditions */
+  private final List<VariableKey<?>> variableKeys;
+
+  /**
+   * Build a tree.
+   *
+   * @param root The root node
+   */
+  public BehaviorTree(BehaviorNode root) {
+    List<BehaviorNode> order = new ArrayList<>();
+    List<Integer> parentList = new ArrayList<>();
+    List<Integer> positionList = new ArrayList<>();
+    flatten(root, -1, 0, order, parentList, positionList);
+
+    int size = order.size();
+    nodes = order.toArray(new BehaviorNode[0]);
+    parents = new int[size];
+    positions = new int[size];
+    ends = new int[size];
+    children = new int[size][];
+    for (int i = 0; i < size; i++) {
+      parents[i] = parentList.get(i);
+      positions[i] = positionList.get(i);
+      children[i] = new int[nodes[i].getChildren().size()];
+      ends[i] = i;
+      if (i > 0) {
+        // Parents come before their children, so the parent's array exists already
+        children[parents[i]][positions[i]] = i;
+      }
+    }
+    for (int i = size - 1; i > 0; i--) {
+      ends[parents[i]] = Math.max(ends[parents[i]], ends[i]);
+    }
+
+    Set<VariableKey<?>> keys = new LinkedHashSet<>();
+    for (BehaviorNode node : nodes) {
+      if (node instanceof ActionNode action) {
+        keys.addAll(action.getAction().getVariableKeys());
+      } else if (node instanceof ConditionNode condition) {
+        keys.addAll(condition.getWatchedKeys());
+      }
+    }
+    variableKeys = List.copyOf(keys);
+  }
+
+  private static void flatten(
+      BehaviorNode node,
+      int parent,
+      int position,
+      List<BehaviorNode> order,
+      List<Integer> parents,
+      List<Integer> positions) {
+    int index = order.size();
+    order.add(node);
+    parents.add(parent);
+    positions.add(position);
+    List<BehaviorNode> nodeChildren = node.getChildren();
+    for (int i = 0; i < nodeChildren.size(); i++) {
+      flatten(nodeChildren.get(i), index, i, order, parents, positions);
+    }
+  }
+
+  /**
+   * Wrap this tree in a behavior that runs it as its only action. A looping tree is restarted by
+   * its action rather than by the executor, so node state such as cooldowns carries over.
+   *
+   * @param id Unique identifier for the behavior
+   * @param looping Whether to run the tree again each time it finishes
+   * @return The behavior
+   */
+  public Behavior toBehavior(Identifier id, boolean looping) {
+    return new Behavior(id, List.of(new BehaviorTreeAction(this, looping)), looping);
+  }
+
+  /**
+   * Get the root node.
+   *
+   * @return The node at index 0
+   */
+  public BehaviorNode getRoot() {
+    return nodes[0];
+  }
+
+  /**
+   * Get the number of nodes in the tree. A node used at several places counts once for each.
+   *
+   * @return The node count
+   */
+  public int size() {
+    return nodes.length;
+  }
+
+  /**
+   * Get the context variables the tree's actions and conditions use.
+   *
+   * @return Unmodifiable list of variable keys
+   */
+  public List<VariableKey<?>> getVariableKeys() {
+    return variableKeys;
+  }
+
+  BehaviorNode node(int index) {
+    return nodes[index];
+  }
+
+  int parent(int index) {
+    return parents[index];
+  }
+
+  int position(int index) {
+    return positions[index];
+  }
+
+  int end(int index) {
+    return ends[index];
+  }
+
+  int child(int index, int position) {
+    return children[index][position];
+  }
+
+  int childCount(int index) {
+    return children[index].length;
+  }
+}
@@ -0,0 +1,99 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.tree;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.action.ActionCategory;
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import java.util.List;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+
+/**
+ * Action that runs a {@link BehaviorTree} until its root finishes, succeeding or failing with it,
+ * or that keeps restarting the tree when it loops. Each run gets a fresh {@link TreeFrame} as its
+ * action state, which a looping action keeps across restarts so node state such as cooldowns
+ * carries over. The action parks the executor whenever every running leaf of the tree is waiting.
+ *
+ * <p>Trees are built in code and are not serialized; the NBT of this action only names its type.
+ */
+@ApiStatus.Experimental
+public final class BehaviorTreeAction implements IAction {
+  private final BehaviorTree tree;
+  private final boolean looping;
+
+  /**
+   * Create an action running a tree.
+   *
+   * @param tree The tree to run
+   * @param looping Whether to restart the tree whenever its root finishes instead of finishing
+   */
+  public BehaviorTreeAction(BehaviorTree tree, boolean looping) {
+    this.tree = tree;
+    this.looping = looping;
+  }
+
+  /**
+   * Get the tree this action runs.
+   *
+   * @return The tree
+   */
+  public BehaviorTree getTree() {
+    return tree;
+  }
+
+  @Override
+  public ActionResult execute(ActionContext context) {
+    TreeFrame frame = context.getActionState(TreeFrame.class);
+    ActionResult result = frame.execute(context);
+    if (looping && (result == ActionResult.SUCCESS || result == ActionResult.FAILURE)) {
+      // Start over from the root on the next tick, like a looping behavior
+      frame.restart();
+      return ActionResult.CONTINUE;
+    }
+    return result;
+  }
+
+  @Override
+  public boolean canExecute(ActionContext context) {
+    return true;
+  }
+
+  @Override
+  public Component getDisplayName() {
+    return Component.literal("Behavior Tree");
+  }
+
+  @Override
+  public ActionCategory getCategory() {
+    return ActionCategory.LOGIC;
+  }
+
+  @Override
+  public CompoundTag serializeNBT() {
+    CompoundTag tag = new CompoundTag();
+    tag.putString("action_type", "behavior_tree");
+    tag.putBoolean("looping", looping);
+    return tag;
+  }
+
+  @Override
+  public void deserializeNBT(CompoundTag tag) {}
+
+  @Override
+  public Object createState() {
+    return new TreeFrame(tree);
+  }
+
+  @Override
+  public List<VariableKey<?>> getVariableKeys() {
+    return tree.getVariableKeys();
+  }
+
+  @Override
+  public IAction copy() {
+    return new BehaviorTreeAction(tree, looping);
+  }
+}
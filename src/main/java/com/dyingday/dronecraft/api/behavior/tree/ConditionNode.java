@@ -0,0 +1,145 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.tree;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.NodeResult;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Leaf that checks a predicate and succeeds or fails straight away.
+ *
+ * <p>A {@link #reactive()} condition keeps guarding its branch after it has been checked. If it
+ * held, the sequence it starts is stopped and fails as soon as the condition no longer holds. If it
+ * did not hold, the selector above it switches back to its branch as soon as the condition holds,
+ * stopping whatever lower priority branch is running. Reactive conditions are not re-checked every
+ * tick: they are checked again once one of the {@link #watching(VariableKey[]) watched} variables
+ * changes, or once their {@link #recheckEvery(int) recheck interval} has passed for conditions on
+ * the world rather than on variables.
+ */
+@ApiStatus.Experimental
+public final class ConditionNode extends BehaviorNode {
+  private final Predicate<ActionContext> predicate;
+  private final List<VariableKey<?>> watchedKeys;
+  private final boolean reactive;
+  private final int recheckTicks;
+
+  private ConditionNode(
+      Predicate<ActionContext> predicate,
+      List<VariableKey<?>> watchedKeys,
+      boolean reactive,
+      int recheckTicks) {
+    this.predicate = predicate;
+    this.watchedKeys = watchedKeys;
+    this.reactive = reactive;
+    this.recheckTicks = recheckTicks;
+  }
+
+  /**
+   * Create a condition.
+   *
+   * @param predicate The check, which must not change the world or the context
+   * @return A condition that is checked once each time it is reached
+   */
+  public static ConditionNode of(Predicate<ActionContext> predicate) {
+    return new ConditionNode(predicate, List.of(), false, 0);
+  }
+
+  /**
+   * Create a condition that holds while a variable is set.
+   *
+   * @param key The variable
+   * @return A condition watching the variable
+   */
+  public static ConditionNode isSet(VariableKey<?> key) {
+    return of(context -> context.hasVariable(key)).watching(key);
+  }
+
+  /**
+   * Copy this condition with variables whose changes make a reactive condition be checked again.
+   *
+   * @param keys The variables the predicate reads
+   * @return A condition watching the variables
+   */
+  public ConditionNode watching(VariableKey<?>... keys) {
+    return new ConditionNode(predicate, List.of(keys), reactive, recheckTicks);
+  }
+
+  /**
+   * Copy this condition as a reactive one, which keeps guarding its branch after it is checked.
+   *
+   * @return A reactive condition
+   */
+  public ConditionNode reactive() {
+    return new ConditionNode(predicate, watchedKeys, true, recheckTicks);
+  }
+
+  /**
+   * Copy this condition with an interval after which a reactive condition is checked again even
+   * if no watched variable changed.
+   *
+   * @param ticks Ticks between checks, or 0 to only check on variable changes
+   * @return A condition with the interval set
+   */
+  public ConditionNode recheckEvery(int ticks) {
+    return new ConditionNode(predicate, watchedKeys, reactive, Math.max(0, ticks));
+  }
+
+  /**
+   * Get the variables whose changes make this condition be checked again.
+   *
+   * @return Unmodifiable list of variable keys
+   */
+  public List<VariableKey<?>> getWatchedKeys() {
+    return watchedKeys;
+  }
+
+  /**
+   * Check if this condition keeps guarding its branch after it is checked.
+   *
+   * @return True if the condition is reactive
+   */
+  public boolean isReactive() {
+    return reactive;
+  }
+
+  @Override
+  void start(TreeFrame frame, int index, ActionContext context) {
+    boolean holds = evaluate(frame, index, context, context.getWorld().getGameTime());
+    if (reactive) {
+      frame.observeCondition(index, holds);
+    }
+    frame.finish(index, holds ? NodeResult.SUCCESS : NodeResult.FAILURE, context);
+  }
+
+  /** Check the predicate, remembering when and on which variable versions it was checked */
+  boolean evaluate(TreeFrame frame, int index, ActionContext context, long now) {
+    frame.times[index] = now;
+    frame.stamps[index] = versionSum(context);
+    return predicate.test(context);
+  }
+
+  /** Check if a watched variable changed or the recheck interval passed since the last check */
+  boolean isDirty(TreeFrame frame, int index, ActionContext context, long now) {
+    if (!watchedKeys.isEmpty() && frame.stamps[index] != versionSum(context)) {
+      return true;
+    }
+    return recheckTicks > 0 && now - frame.times[index] >= recheckTicks;
+  }
+
+  /** Get the game time this condition is due to be checked again, ignoring variable changes */
+  long nextCheck(TreeFrame frame, int index) {
+    return recheckTicks > 0 ? frame.times[index] + recheckTicks : Long.MAX_VALUE;
+  }
+
+  /** Variable versions only grow, so their sum changes whenever any of them does */
+  private long versionSum(ActionContext context) {
+    long sum = 0;
+    for (int i = 0; i < watchedKeys.size(); i++) {
+      sum += context.getVariableVersion(watchedKeys.get(i));
+    }
+    return sum;
+  }
+}
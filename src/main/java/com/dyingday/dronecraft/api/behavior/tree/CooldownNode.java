@@ -0,0 +1,50 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.tree;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.NodeResult;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import java.util.List;
+
+/**
+ * Runs its child at most once per cooldown. Once the child finishes, the node fails straight away
+ * without running it until the cooldown has passed. The cooldown is kept per executor and survives
+ * the node being stopped and started again.
+ */
+@ApiStatus.Experimental
+public final class CooldownNode extends BehaviorNode {
+  private final List<BehaviorNode> children;
+  private final int cooldownTicks;
+
+  /**
+   * Create a cooldown node.
+   *
+   * @param child The node to run
+   * @param cooldownTicks Ticks after the child finishes before it can run again
+   */
+  public CooldownNode(BehaviorNode child, int cooldownTicks) {
+    this.children = List.of(child);
+    this.cooldownTicks = cooldownTicks;
+  }
+
+  @Override
+  public List<BehaviorNode> getChildren() {
+    return children;
+  }
+
+  @Override
+  void start(TreeFrame frame, int index, ActionContext context) {
+    if (context.getWorld().getGameTime() < frame.times[index]) {
+      frame.finish(index, NodeResult.FAILURE, context);
+      return;
+    }
+    frame.startChild(index, 0, context);
+  }
+
+  @Override
+  void childFinished(
+      TreeFrame frame, int index, int position, NodeResult result, ActionContext context) {
+    frame.times[index] = context.getWorld().getGameTime() + cooldownTicks;
+    frame.finish(index, result, context);
+  }
+}
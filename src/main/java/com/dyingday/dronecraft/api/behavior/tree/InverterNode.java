@@ -0,0 +1,39 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.tree;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.NodeResult;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import java.util.List;
+
+/** Runs its child and turns success into failure and failure into success */
+@ApiStatus.Experimental
+public final class InverterNode extends BehaviorNode {
+  private final List<BehaviorNode> children;
+
+  /**
+   * Create an inverter.
+   *
+   * @param child The node whose result is inverted
+   */
+  public InverterNode(BehaviorNode child) {
+    this.children = List.of(child);
+  }
+
+  @Override
+  public List<BehaviorNode> getChildren() {
+    return children;
+  }
+
+  @Override
+  void start(TreeFrame frame, int index, ActionContext context) {
+    frame.startChild(index, 0, context);
+  }
+
+  @Override
+  void childFinished(
+      TreeFrame frame, int index, int position, NodeResult result, ActionContext context) {
+    NodeResult inverted = result == NodeResult.SUCCESS ? NodeResult.FAILURE : NodeResult.SUCCESS;
+    frame.finish(index, inverted, context);
+  }
+}
@@ -0,0 +1,83 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.tree;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.NodeResult;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import java.util.List;
+
+/**
+ * Runs all of its children at the same time, finishing once its {@link Policy} is decided.
+ * Children still running at that point are stopped. An empty parallel node succeeds straight away.
+ */
+@ApiStatus.Experimental
+public final class ParallelNode extends BehaviorNode {
+  private final Policy policy;
+  private final List<BehaviorNode> children;
+
+  /**
+   * Create a parallel node.
+   *
+   * @param policy When the node succeeds or fails
+   * @param children The children to run
+   */
+  public ParallelNode(Policy policy, BehaviorNode... children) {
+    this.policy = policy;
+    this.children = List.of(children);
+  }
+
+  /**
+   * Get when this node succeeds or fails.
+   *
+   * @return The policy
+   */
+  public Policy getPolicy() {
+    return policy;
+  }
+
+  @Override
+  public List<BehaviorNode> getChildren() {
+    return children;
+  }
+
+  @Override
+  void start(TreeFrame frame, int index, ActionContext context) {
+    if (children.isEmpty()) {
+      frame.finish(index, NodeResult.SUCCESS, context);
+      return;
+    }
+    frame.counters[index] = 0;
+    frame.failures[index] = 0;
+    // A child that finishes straight away can decide the policy before the rest are started
+    for (int i = 0; i < children.size() && frame.isRunning(index); i++) {
+      frame.startChild(index, i, context);
+    }
+  }
+
+  @Override
+  void childFinished(
+      TreeFrame frame, int index, int position, NodeResult result, ActionContext context) {
+    boolean succeeded = result == NodeResult.SUCCESS;
+    int count = succeeded ? ++frame.counters[index] : ++frame.failures[index];
+    switch (policy) {
+      case REQUIRE_ALL -> {
+        if (!succeeded || count == children.size()) {
+          frame.finish(index, result, context);
+        }
+      }
+      case REQUIRE_ONE -> {
+        if (succeeded || count == children.size()) {
+          frame.finish(index, result, context);
+        }
+      }
+    }
+  }
+
+  /** When a parallel node finishes */
+  public enum Policy {
+    /** Succeed once every child has succeeded, fail as soon as one fails */
+    REQUIRE_ALL,
+    /** Succeed as soon as one child succeeds, fail once every child has failed */
+    REQUIRE_ONE
+  }
+}
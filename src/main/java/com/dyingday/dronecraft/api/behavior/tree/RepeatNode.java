@@ -0,0 +1,73 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.tree;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.NodeResult;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import java.util.List;
+
+/**
+ * Runs its child again every time it succeeds, until it has succeeded a number of times. Fails as
+ * soon as the child fails. Each repetition starts on the tick after the previous one finished, so
+ * repeating a child that finishes straight away costs one run per tick.
+ */
+@ApiStatus.Experimental
+public final class RepeatNode extends BehaviorNode {
+  private final List<BehaviorNode> children;
+  private final int times;
+
+  /**
+   * Create a repeat node.
+   *
+   * @param child The node to repeat
+   * @param times Number of successful runs before the node succeeds, or 0 to repeat forever
+   */
+  public RepeatNode(BehaviorNode child, int times) {
+    if (times < 0) {
+      throw new IllegalArgumentException("Repeat count must not be negative");
+    }
+    this.children = List.of(child);
+    this.times = times;
+  }
+
+  /**
+   * Create a node that repeats its child until it fails.
+   *
+   * @param child The node to repeat
+   * @return The repeat node
+   */
+  public static RepeatNode forever(BehaviorNode child) {
+    return new RepeatNode(child, 0);
+  }
+
+  @Override
+  public List<BehaviorNode> getChildren() {
+    return children;
+  }
+
+  @Override
+  void start(TreeFrame frame, int index, ActionContext context) {
+    frame.counters[index] = 0;
+    frame.startChild(index, 0, context);
+  }
+
+  @Override
+  void childFinished(
+      TreeFrame frame, int index, int position, NodeResult result, ActionContext context) {
+    if (result == NodeResult.FAILURE) {
+      frame.finish(index, result, context);
+      return;
+    }
+    if (times > 0 && ++frame.counters[index] >= times) {
+      frame.finish(index, NodeResult.SUCCESS, context);
+      return;
+    }
+    frame.schedule(index);
+  }
+
+  @Override
+  void tick(TreeFrame frame, int index, ActionContext context) {
+    frame.unschedule(index);
+    frame.startChild(index, 0, context);
+  }
+}
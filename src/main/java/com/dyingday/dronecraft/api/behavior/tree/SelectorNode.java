@@ -0,0 +1,53 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.tree;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.NodeResult;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import java.util.List;
+
+/**
+ * Tries its children in priority order. Succeeds as soon as a child succeeds and fails once every
+ * child has failed. An empty selector fails straight away.
+ *
+ * <p>A {@link ConditionNode#reactive() reactive} condition at the start of a higher priority
+ * branch keeps being observed while a lower priority branch runs, and the selector switches back
+ * to the higher priority branch as soon as the condition holds.
+ */
+@ApiStatus.Experimental
+public final class SelectorNode extends BehaviorNode {
+  private final List<BehaviorNode> children;
+
+  /**
+   * Create a selector.
+   *
+   * @param children The children, highest priority first
+   */
+  public SelectorNode(BehaviorNode... children) {
+    this.children = List.of(children);
+  }
+
+  @Override
+  public List<BehaviorNode> getChildren() {
+    return children;
+  }
+
+  @Override
+  void start(TreeFrame frame, int index, ActionContext context) {
+    if (children.isEmpty()) {
+      frame.finish(index, NodeResult.FAILURE, context);
+      return;
+    }
+    frame.startChild(index, 0, context);
+  }
+
+  @Override
+  void childFinished(
+      TreeFrame frame, int index, int position, NodeResult result, ActionContext context) {
+    if (result == NodeResult.SUCCESS || position == children.size() - 1) {
+      frame.finish(index, result, context);
+      return;
+    }
+    frame.startChild(index, position + 1, context);
+  }
+}
@@ -0,0 +1,49 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.tree;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.NodeResult;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import java.util.List;
+
+/**
+ * Runs its children one after another. Fails as soon as a child fails and succeeds once every
+ * child has succeeded. An empty sequence succeeds straight away.
+ */
+@ApiStatus.Experimental
+public final class SequenceNode extends BehaviorNode {
+  private final List<BehaviorNode> children;
+
+  /**
+   * Create a sequence.
+   *
+   * @param children The children, in the order they run
+   */
+  public SequenceNode(BehaviorNode... children) {
+    this.children = List.of(children);
+  }
+
+  @Override
+  public List<BehaviorNode> getChildren() {
+    return children;
+  }
+
+  @Override
+  void start(TreeFrame frame, int index, ActionContext context) {
+    if (children.isEmpty()) {
+      frame.finish(index, NodeResult.SUCCESS, context);
+      return;
+    }
+    frame.startChild(index, 0, context);
+  }
+
+  @Override
+  void childFinished(
+      TreeFrame frame, int index, int position, NodeResult result, ActionContext context) {
+    if (result == NodeResult.FAILURE || position == children.size() - 1) {
+      frame.finish(index, result, context);
+      return;
+    }
+    frame.startChild(index, position + 1, context);
+  }
+}
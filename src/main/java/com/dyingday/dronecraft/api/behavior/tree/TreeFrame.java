@@ -0,0 +1,370 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.behavior.tree;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.BehaviorResult;
+import com.dyingday.dronecraft.api.behavior.NodeResult;
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.Arrays;
+import net.minecraft.resources.Identifier;
+
+/**
+ * Execution state one executor keeps for the {@link BehaviorTree} it runs. Node state lives in flat
+ * arrays indexed by node, so the tree itself stays immutable and shared.
+ *
+ * <p>The frame only ever touches nodes that have something to do. Running leaves and nodes waiting
+ * to restart are kept in a scheduled list and ticked directly, and a finished node hands its
+ * result straight to its parent, so resuming a tree costs the same however deep the running leaves
+ * are. Reactive conditions are re-evaluated only once a variable they watch has changed or their
+ * recheck interval has passed, and abort the branches they guard when their result flips.
+ *
+ * <p>Leaves started while the scheduled nodes are being ticked run from the next tick on, the way a
+ * {@link com.dyingday.dronecraft.api.behavior.BehaviorExecutor} moves to its next action, so a
+ * tree that keeps finishing and restarting instant nodes cannot spin within one tick. When every
+ * scheduled leaf is sleeping or waiting for the same signal the frame parks the whole executor.
+ */
+@ApiStatus.Experimental
+public final class TreeFrame {
+  static final byte IDLE = 0;
+  static final byte RUNNING = 1;
+  static final byte SCHEDULED = 2;
+
+  /** The tree being run */
+  private final BehaviorTree tree;
+
+  /** Whether each node is idle, running, or running and scheduled to be ticked */
+  private final byte[] status;
+
+  /** Counter of each node: successes of parallel nodes, completed runs of repeat nodes */
+  final int[] counters;
+
+  /** Failures of parallel nodes */
+  final int[] failures;
+
+  /** Game time of each node: cooldown end, last condition evaluation or leaf wake time */
+  final long[] times;
+
+  /** Sum of the watched variable versions each condition saw when it was last evaluated */
+  final long[] stamps;
+
+  /** State of each running action leaf, created when the leaf is first ticked */
+  private final Object[] states;
+
+  /** Signal each blocked action leaf waits for, or null */
+  private final Identifier[] signals;
+
+  /** Nodes to tick, in the order they were scheduled */
+  private final IntArrayList scheduled = new IntArrayList();
+
+  /** Copy of the scheduled nodes being ticked, reused between ticks */
+  private int[] pass = new int[8];
+
+  /** Reactive conditions being observed */
+  private final IntArrayList observers = new IntArrayList();
+
+  /** Node each observer belongs to; the observer is dropped once that node stops running */
+  private final IntArrayList observerOwners = new IntArrayList();
+
+  /** Child of the owner to restart from when the condition starts holding, or -1 to fail it */
+  private final IntArrayList observerRestarts = new IntArrayList();
+
+  /** Result of the root node */
+  private BehaviorResult result = BehaviorResult.RUNNING;
+
+  /** Whether the root node has been started */
+  private boolean started = false;
+
+  /**
+   * Create the state for one run of a tree.
+   *
+   * @param tree The tree to run
+   */
+  public TreeFrame(BehaviorTree tree) {
+    int size = tree.size();
+    this.tree = tree;
+    this.status = new byte[size];
+    this.counters = new int[size];
+    this.failures = new int[size];
+    this.times = new long[size];
+    this.stamps = new long[size];
+    this.states = new Object[size];
+    this.signals = new Identifier[size];
+  }
+
+  /**
+   * Get the tree being run.
+   *
+   * @return The tree
+   */
+  public BehaviorTree getTree() {
+    return tree;
+  }
+
+  /**
+   * Get the result of the tree.
+   *
+   * @return RUNNING until the root node finishes, then its result
+   */
+  public BehaviorResult getResult() {
+    return result;
+  }
+
+  /**
+   * Check if a node is running.
+   *
+   * @param index Index of the node in the tree
+   * @return True if the node has started and not finished
+   */
+  public boolean isRunning(int index) {
+    return status[index] != IDLE;
+  }
+
+  /**
+   * Get the nodes scheduled to be ticked, which are the running leaves and nodes about to restart.
+   *
+   * @return A copy of the scheduled node indices
+   */
+  public int[] getScheduledNodes() {
+    return scheduled.toIntArray();
+  }
+
+  /** Run the tree again from the root on the next tick, keeping node state such as cooldowns */
+  void restart() {
+    result = BehaviorResult.RUNNING;
+    started = false;
+  }
+
+  /**
+   * Run the tree for one tick: re-evaluate observed conditions whose inputs changed, then tick the
+   * scheduled nodes.
+   *
+   * @param context The execution context
+   * @return SUCCESS or FAILURE once the root finishes, BLOCKING if every scheduled leaf is waiting
+   *     and the executor was asked to park, CONTINUE otherwise
+   */
+  ActionResult execute(ActionContext context) {
+    long now = context.getWorld().getGameTime();
+    if (!started) {
+      started = true;
+      start(0, context);
+    } else {
+      checkObservers(context, now);
+    }
+
+    int count = scheduled.size();
+    if (pass.length < count) {
+      pass = new int[Math.max(count, pass.length * 2)];
+    }
+    scheduled.getElements(0, pass, 0, count);
+    for (int i = 0; i < count && result == BehaviorResult.RUNNING; i++) {
+      int index = pass[i];
+      // Skip nodes that finished or were aborted earlier in this pass, and sleeping leaves
+      if (status[index] == SCHEDULED && (times[index] <= now || signals[index] != null)) {
+        tree.node(index).tick(this, index, context);
+      }
+    }
+
+    return switch (result) {
+      case SUCCESS -> ActionResult.SUCCESS;
+      case FAILURE -> ActionResult.FAILURE;
+      case RUNNING -> park(context, now);
+    };
+  }
+
+  /** Ask the executor to park if no scheduled node needs the next tick */
+  private ActionResult park(ActionContext context, long now) {
+    long wakeTime = Long.MAX_VALUE;
+    Identifier signal = null;
+    for (int i = 0; i < scheduled.size(); i++) {
+      int index = scheduled.getInt(i);
+      Identifier nodeSignal = signals[index];
+      if (nodeSignal != null) {
+        if (signal != null && !signal.equals(nodeSignal)) {
+          // The executor can only wait for one signal, poll the leaves instead
+          return ActionResult.CONTINUE;
+        }
+        signal = nodeSignal;
+      } else if (times[index] <= now) {
+        return ActionResult.CONTINUE;
+      }
+      if (times[index] > now) {
+        wakeTime = Math.min(wakeTime, times[index]);
+      }
+    }
+    for (int i = 0; i < observers.size(); i++) {
+      int condition = observers.getInt(i);
+      ConditionNode node = (ConditionNode) tree.node(condition);
+      wakeTime = Math.min(wakeTime, node.nextCheck(this, condition));
+    }
+
+    if (signal != null) {
+      return wakeTime == Long.MAX_VALUE
+          ? context.blockUntil(signal)
+          : context.blockUntil(signal, ticksUntil(wakeTime, now));
+    }
+    return wakeTime == Long.MAX_VALUE
+        ? ActionResult.CONTINUE
+        : context.sleepFor(ticksUntil(wakeTime, now));
+  }
+
+  private static int ticksUntil(long time, long now) {
+    return (int) Math.min(Math.max(1, time - now), Integer.MAX_VALUE);
+  }
+
+  /** Re-evaluate observed conditions whose inputs changed and abort the branches they guard */
+  private void checkObservers(ActionContext context, long now) {
+    for (int i = 0; i < observers.size() && result == BehaviorResult.RUNNING; i++) {
+      int condition = observers.getInt(i);
+      ConditionNode node = (ConditionNode) tree.node(condition);
+      if (!node.isDirty(this, condition, context, now)) {
+        continue;
+      }
+      boolean holds = node.evaluate(this, condition, context, now);
+      int owner = observerOwners.getInt(i);
+      int restart = observerRestarts.getInt(i);
+      if (holds == (restart < 0)) {
+        // Same result as before, the guarded branch keeps running
+        continue;
+      }
+
+      if (restart < 0) {
+        // The condition guarding a running sequence stopped holding
+        observeCondition(condition, false);
+        finish(owner, NodeResult.FAILURE, context);
+      } else {
+        // A higher priority branch of a selector became possible, drop the running one
+        clear(owner, tree.end(owner));
+        status[owner] = RUNNING;
+        startChild(owner, restart, context);
+      }
+      // Observers changed, scan them again
+      i = -1;
+    }
+  }
+
+  /**
+   * Observe a reactive condition that has just been evaluated. A condition that holds guards the
+   * rest of its sequence; one that does not hold preempts the lower priority branches of the
+   * selector its sequence belongs to.
+   */
+  void observeCondition(int condition, boolean holds) {
+    int parent = tree.parent(condition);
+    if (holds) {
+      if (parent >= 0 && tree.node(parent) instanceof SequenceNode) {
+        observe(condition, parent, -1);
+      }
+      return;
+    }
+
+    int branch = condition;
+    while (parent >= 0 && tree.node(parent) instanceof SequenceNode) {
+      branch = parent;
+      parent = tree.parent(parent);
+    }
+    if (parent >= 0
+        && tree.node(parent) instanceof SelectorNode
+        && tree.position(branch) < tree.childCount(parent) - 1) {
+      observe(condition, parent, tree.position(branch));
+    }
+  }
+
+  private void observe(int condition, int owner, int restart) {
+    observers.add(condition);
+    observerOwners.add(owner);
+    observerRestarts.add(restart);
+  }
+
+  /** Start a node */
+  void start(int index, ActionContext context) {
+    status[index] = RUNNING;
+    tree.node(index).start(this, index, context);
+  }
+
+  /** Start a child of a node */
+  void startChild(int index, int position, ActionContext context) {
+    start(tree.child(index, position), context);
+  }
+
+  /** Get the number of children of a node */
+  int childCount(int index) {
+    return tree.childCount(index);
+  }
+
+  /** Schedule a running node to be ticked */
+  void schedule(int index) {
+    if (status[index] != SCHEDULED) {
+      status[index] = SCHEDULED;
+      scheduled.add(index);
+    }
+  }
+
+  /** Stop ticking a node that stays running */
+  void unschedule(int index) {
+    status[index] = RUNNING;
+    scheduled.rem(index);
+  }
+
+  /**
+   * Finish a node, stopping everything still running below it, and hand its result to its parent.
+   */
+  void finish(int index, NodeResult nodeResult, ActionContext context) {
+    clear(index, tree.end(index));
+    int parent = tree.parent(index);
+    if (parent < 0) {
+      result = nodeResult == NodeResult.SUCCESS ? BehaviorResult.SUCCESS : BehaviorResult.FAILURE;
+      return;
+    }
+    tree.node(parent).childFinished(this, parent, tree.position(index), nodeResult, context);
+  }
+
+  /** Execute an action leaf with its own state */
+  ActionResult executeLeaf(int index, IAction action, ActionContext context) {
+    Object state = states[index];
+    if (state == null) {
+      state = action.createState();
+      states[index] = state;
+    }
+    context.setActionState(state);
+    ActionResult actionResult = action.execute(context);
+    context.setActionState(this);
+    return actionResult;
+  }
+
+  /** Record the sleep or signal a blocked leaf asked the context for */
+  void block(int index, ActionContext context) {
+    int sleepTicks = context.getRequestedSleepTicks();
+    times[index] = sleepTicks > 0 ? context.getWorld().getGameTime() + sleepTicks : 0;
+    signals[index] = context.getRequestedWakeSignal();
+    context.clearParkRequest();
+  }
+
+  /** Forget the sleep or signal of a leaf that is running again */
+  void unblock(int index) {
+    times[index] = 0;
+    signals[index] = null;
+  }
+
+  /** Stop a range of nodes and drop their leaf state, scheduling and observers */
+  private void clear(int from, int to) {
+    Arrays.fill(status, from, to + 1, IDLE);
+    Arrays.fill(states, from, to + 1, null);
+    Arrays.fill(signals, from, to + 1, null);
+    for (int i = scheduled.size() - 1; i >= 0; i--) {
+      int index = scheduled.getInt(i);
+      if (index >= from && index <= to) {
+        scheduled.removeInt(i);
+      }
+    }
+    for (int i = observers.size() - 1; i >= 0; i--) {
+      int owner = observerOwners.getInt(i);
+      if (owner >= from && owner <= to) {
+        observers.removeInt(i);
+        observerOwners.removeInt(i);
+        observerRestarts.removeInt(i);
+      }
+    }
+  }
+}
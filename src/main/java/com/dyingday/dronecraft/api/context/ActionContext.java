@@ -1,12 +1,17 @@
 /* (C)2025 */
 package com.dyingday.dronecraft.api.context;
 
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.CancellationToken;
 import com.dyingday.dronecraft.api.behavior.action.ActionExecutionRecord;
 import com.dyingday.dronecraft.api.behavior.action.ActionResult;
 import com.dyingday.dronecraft.api.context.executor.IExecutor;
 import com.dyingday.dronecraft.api.context.executor.IExecutorBlockEntity;
 import com.dyingday.dronecraft.api.context.executor.IExecutorEntity;
+import com.dyingday.dronecraft.api.registry.ActionRegistry;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import java.util.*;
+import java.util.function.Predicate;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.resources.Identifier;
@@ -40,17 +45,35 @@ public class ActionContext {
   /** The executor performing actions (drone, block entity, etc.) */
   private final IExecutor executor;
 
-  /** The world/level the executor exists in */
+  /** The world/level the executor exists in, or null when running against another world */
   private final Level level;
 
+  /** World reads and writes of actions, backed by the level unless another world was given */
+  private final IWorldAccess world;
+
   /** The executor's current position in the world */
   private final Vec3 executorPosition;
 
   /** The executor's current block position */
   private final BlockPos executorBlockPos;
 
-  /** Temporary variables for action execution, cleared between action trees */
-  private final Map<String, Object> variables;
+  /** Slots of the variables, taken from the behavior being executed */
+  private VariableLayout variableLayout;
+
+  /**
+   * Numeric ids of the variables the layout does not declare, in the order of their slots after the
+   * layout's slots, or null if there are none. Usually only a few, so looked up by a linear scan
+   */
+  @Nullable private IntArrayList undeclaredIds;
+
+  /** Temporary variables for action execution, indexed by slot, null where a variable is unset */
+  private Object[] variableFrame;
+
+  /** Write stamp of each variable slot, the value of the write counter when it last changed */
+  private long[] variableVersions;
+
+  /** Number of variable changes made through this context */
+  private long variableWrites;
 
   /** Persistent data that survives across executions */
   private final Map<String, Object> persistentData;
@@ -61,8 +84,14 @@ public class ActionContext {
   /** Action-specific temporary storage, cleared after each action */
   private final Map<String, Object> actionLocalData;
 
-  /** Historical record of action executions for debugging and optimization */
-  private final List<ActionExecutionRecord> executionHistory;
+  /** State the executing action keeps for this executor, or null if it keeps none */
+  private Object actionState;
+
+  /** Cancelled once the executor running the actions stops wanting their work */
+  private CancellationToken cancellationToken = CancellationToken.NONE;
+
+  /** Bounded record of recent action executions for debugging and optimization */
+  private final ExecutionHistory executionHistory;
 
   /** Whether to track execution history */
   private final boolean trackHistory;
@@ -88,6 +117,12 @@ public class ActionContext {
   /** Whether capabilities have been cached yet */
   private boolean capabilitiesCached = false;
 
+  /** Number of ticks the current action asked to sleep for, or 0 if it did not ask to sleep */
+  private int requestedSleepTicks;
+
+  /** Signal the current action asked to wait for, or null if it did not ask to wait */
+  private Identifier requestedWakeSignal;
+
   /**
    * Private constructor - use Builder to create instances
    *
@@ -96,14 +131,19 @@ public class ActionContext {
   private ActionContext(Builder builder) {
     this.executor = builder.executor;
     this.level = executor.getLevel();
+    this.world = builder.world != null ? builder.world : new LevelWorldAccess(level);
     this.executorPosition = executor.getPosition();
     this.executorBlockPos = executor.getBlockPos();
-    this.variables = new HashMap<>(builder.variables);
+    this.variableLayout = VariableLayout.EMPTY;
+    this.variableFrame = new Object[builder.variables.size()];
+    this.variableVersions = new long[variableFrame.length];
+    builder.variables.forEach(this::setVariable);
     this.persistentData = builder.persistentData;
     this.ticksExecuting = 0;
     this.executionId = UUID.randomUUID();
     this.actionLocalData = new HashMap<>();
-    this.executionHistory = builder.trackHistory ? new ArrayList<>() : null;
+    this.executionHistory =
+        builder.trackHistory ? new ExecutionHistory(builder.historyCapacity) : null;
     this.trackHistory = builder.trackHistory;
     this.maxTicksPerAction = builder.maxTicksPerAction;
     this.resourceManager = new ResourceManager(builder.resourceLimits);
@@ -140,12 +180,22 @@ public class ActionContext {
   /**
    * Get the level/world the executor exists in
    *
-   * @return The level instance
+   * @return The level instance, or null if the context runs against a world access without a level
    */
   public Level getLevel() {
     return level;
   }
 
+  /**
+   * Get the world access that block reads and writes go through. Prefer this over {@link
+   * #getLevel()} for block access so actions also run against worlds without a level
+   *
+   * @return The world access
+   */
+  public IWorldAccess getWorld() {
+    return world;
+  }
+
   /**
    * Get the executor's current position as a Vec3
    *
@@ -197,7 +247,9 @@ public class ActionContext {
    * @return Optional containing the server, or empty if client-side
    */
   public Optional<MinecraftServer> getServer() {
-    return level.isClientSide() ? Optional.empty() : Optional.of(level.getServer());
+    return level == null || level.isClientSide()
+        ? Optional.empty()
+        : Optional.of(level.getServer());
   }
 
   /**
@@ -206,11 +258,10 @@ public class ActionContext {
    * @return True if the context is valid (server-side, executor exists, chunk loaded)
    */
   public boolean isValid() {
-    return level != null
-        && !level.isClientSide()
+    return (level == null || !level.isClientSide())
         && executor != null
         && !executor.isRemoved()
-        && level.isLoaded(executorBlockPos);
+        && world.isLoaded(executorBlockPos);
   }
 
   /// Capability Access
@@ -356,7 +407,7 @@ public class ActionContext {
       BlockPos pos,
       BlockCapability<@NotNull T, @Nullable Direction> capability,
       @Nullable Direction side) {
-    return level.getCapability(capability, pos, side);
+    return world.getCapability(capability, pos, side);
   }
 
   /**
@@ -384,17 +435,115 @@ public class ActionContext {
 
   /// Variable system
   /**
-   * Set a temporary variable in the action context
+   * Store variables at the slots of a behavior's layout, moving any variables already set. Called
+   * by the executor of the behavior, so the variables its actions declared have fixed slots
+   *
+   * @param layout The variable layout of the behavior
+   */
+  public void useVariableLayout(VariableLayout layout) {
+    if (layout == variableLayout) {
+      return;
+    }
+    Object[] previousFrame = variableFrame;
+    int[] previousIds = new int[previousFrame.length];
+    for (int slot = 0; slot < previousFrame.length; slot++) {
+      if (previousFrame[slot] != null) {
+        previousIds[slot] = idAt(slot);
+      }
+    }
+
+    variableLayout = layout;
+    undeclaredIds = null;
+    variableFrame = new Object[layout.size()];
+    variableVersions = new long[variableFrame.length];
+    for (int slot = 0; slot < previousFrame.length; slot++) {
+      if (previousFrame[slot] != null) {
+        store(slotOf(previousIds[slot]), previousFrame[slot]);
+      }
+    }
+  }
+
+  /**
+   * Set a temporary variable through its key. Setting a variable to null removes it
+   *
+   * @param <T> The variable type
+   * @param key The variable key
+   * @param value The variable value
+   */
+  public <T> void setVariable(VariableKey<T> key, @Nullable T value) {
+    store(slotOf(key.getId()), value);
+  }
+
+  /**
+   * Get a variable through its key, without allocating
+   *
+   * @param <T> The variable type
+   * @param key The variable key
+   * @return The value, or null if not set or not of the key's type
+   */
+  public <T> @Nullable T getVariable(VariableKey<T> key) {
+    Object value = load(key.getId());
+    Class<T> type = key.getType();
+    return type.isInstance(value) ? type.cast(value) : null;
+  }
+
+  /**
+   * Get a variable through its key or return a default value
+   *
+   * @param <T> The variable type
+   * @param key The variable key
+   * @param defaultValue The default value to return if not found
+   * @return The variable value or default
+   */
+  public <T> T getVariableOrDefault(VariableKey<T> key, T defaultValue) {
+    T value = getVariable(key);
+    return value != null ? value : defaultValue;
+  }
+
+  /**
+   * Check if a variable is set to a value of its key's type
+   *
+   * @param key The variable key
+   * @return True if the variable exists
+   */
+  public boolean hasVariable(VariableKey<?> key) {
+    return key.getType().isInstance(load(key.getId()));
+  }
+
+  /**
+   * Remove a variable through its key
+   *
+   * @param key The variable key
+   */
+  public void removeVariable(VariableKey<?> key) {
+    store(findSlot(key.getId()), null);
+  }
+
+  /**
+   * Get the version of a variable, which changes every time the variable is set to a different
+   * value or removed. Lets callers find out whether a variable changed without comparing values
+   *
+   * @param key The variable key
+   * @return The version, or 0 if the variable has never been set
+   */
+  public long getVariableVersion(VariableKey<?> key) {
+    int slot = findSlot(key.getId());
+    return slot >= 0 && slot < variableVersions.length ? variableVersions[slot] : 0;
+  }
+
+  /**
+   * Set a temporary variable in the action context. Setting a variable to null removes it. Slower
+   * than {@link #setVariable(VariableKey, Object)}
    *
    * @param key The variable key
    * @param value The variable value
    */
   public void setVariable(String key, Object value) {
-    variables.put(key, value);
+    store(slotOf(VariableKey.idOf(key)), value);
   }
 
   /**
-   * Get a variable with type checking
+   * Get a variable with type checking. Slower than {@link #getVariable(VariableKey)}
    *
    * @param <T> The expected type
    * @param key The variable key
@@ -402,7 +551,7 @@ public class ActionContext {
    * @return Optional containing the typed value, or empty if not found or wrong type
    */
   public <T> Optional<T> getVariable(String key, Class<T> type) {
-    Object value = variables.get(key);
+    Object value = load(VariableKey.findId(key));
     if (type.isInstance(value)) {
       return Optional.of(type.cast(value));
     }
@@ -429,7 +578,7 @@ public class ActionContext {
    * @return True if the variable exists
    */
   public boolean hasVariable(String key) {
-    return variables.containsKey(key);
+    return load(VariableKey.findId(key)) != null;
   }
 
   /**
@@ -438,7 +587,10 @@ public class ActionContext {
    * @param key The variable key to remove
    */
   public void removeVariable(String key) {
-    variables.remove(key);
+    int id = VariableKey.findId(key);
+    if (id >= 0) {
+      store(findSlot(id), null);
+    }
   }
 
   /**
@@ -447,7 +599,75 @@ public class ActionContext {
    * @return Unmodifiable set of variable keys
    */
   public Set<String> getVariableKeys() {
-    return Collections.unmodifiableSet(variables.keySet());
+    return Collections.unmodifiableSet(getVariables().keySet());
+  }
+
+  /** Get the value of a variable, or null if it is unset */
+  private @Nullable Object load(int id) {
+    if (id < 0) {
+      return null;
+    }
+    int slot = findSlot(id);
+    return slot >= 0 && slot < variableFrame.length ? variableFrame[slot] : null;
+  }
+
+  /** Get the slot of a variable, or -1 if it has none */
+  private int findSlot(int id) {
+    int slot = variableLayout.findSlot(id);
+    if (slot >= 0 || undeclaredIds == null) {
+      return slot;
+    }
+    int index = undeclaredIds.indexOf(id);
+    return index >= 0 ? variableLayout.size() + index : -1;
+  }
+
+  /** Get the slot of a variable, giving it a slot of this context's own if it is undeclared */
+  private int slotOf(int id) {
+    int slot = findSlot(id);
+    if (slot >= 0) {
+      return slot;
+    }
+    // The layout is shared by every executor of the behavior, so it is never grown
+    if (undeclaredIds == null) {
+      undeclaredIds = new IntArrayList();
+    }
+    undeclaredIds.add(id);
+    return variableLayout.size() + undeclaredIds.size() - 1;
+  }
+
+  /** Get the numeric id of the variable in a slot */
+  private int idAt(int slot) {
+    int declared = variableLayout.size();
+    return slot < declared ? variableLayout.idAt(slot) : undeclaredIds.getInt(slot - declared);
+  }
+
+  /** Set the value in a variable slot, growing the frame if needed and stamping a change */
+  private void store(int slot, @Nullable Object value) {
+    if (slot < 0) {
+      return;
+    }
+    if (slot >= variableFrame.length) {
+      if (value == null) {
+        return;
+      }
+      variableFrame = Arrays.copyOf(variableFrame, Math.max(slot + 1, variableFrame.length * 2));
+      variableVersions = Arrays.copyOf(variableVersions, variableFrame.length);
+    }
+    if (variableFrame[slot] != value) {
+      variableFrame[slot] = value;
+      variableVersions[slot] = ++variableWrites;
+    }
+  }
+
+  /** Copy every set variable into a map keyed by name */
+  private Map<String, Object> getVariables() {
+    Map<String, Object> variables = new LinkedHashMap<>();
+    for (int slot = 0; slot < variableFrame.length; slot++) {
+      if (variableFrame[slot] != null) {
+        variables.put(VariableKey.nameOf(idAt(slot)), variableFrame[slot]);
+      }
+    }
+    return variables;
   }
 
   /**
@@ -538,6 +758,57 @@ public class ActionContext {
     actionLocalData.clear();
   }
 
+  /// Action state
+  /**
+   * Get the state the executing action keeps for this executor. The state is created by {@link
+   * com.dyingday.dronecraft.api.behavior.action.IAction#createState()} when the action starts and
+   * dropped once it succeeds or fails
+   *
+   * @param <S> The state type
+   * @param type The class of the action's state
+   * @return The action's state
+   * @throws IllegalStateException if the executing action keeps no state
+   */
+  public <S> S getActionState(Class<S> type) {
+    if (actionState == null) {
+      throw new IllegalStateException("The executing action has no state");
+    }
+    return type.cast(actionState);
+  }
+
+  /**
+   * Set the state of the action about to be executed. Called by the executor around each action
+   * execution
+   *
+   * @param state The action's state, or null once it is done executing
+   */
+  @ApiStatus.Internal
+  public void setActionState(@Nullable Object state) {
+    this.actionState = state;
+  }
+
+  /**
+   * Get the token that is cancelled once the executor running the actions is stopped, reset or
+   * removed. Work an action hands to other threads should stop once it is cancelled
+   *
+   * @return The executor's cancellation token, or a token that is never cancelled if no executor
+   *     uses this context
+   */
+  public CancellationToken getCancellationToken() {
+    return cancellationToken;
+  }
+
+  /**
+   * Use the cancellation token of the executor running actions with this context. Called by the
+   * executor whenever its token changes
+   *
+   * @param token The executor's current token
+   */
+  @ApiStatus.Internal
+  public void useCancellationToken(CancellationToken token) {
+    this.cancellationToken = token;
+  }
+
   ///  World query helpers
   /**
    * Get the block state at a specific position
@@ -546,7 +817,7 @@ public class ActionContext {
    * @return The block state at that position
    */
   public BlockState getBlockState(BlockPos pos) {
-    return level.getBlockState(pos);
+    return world.getBlockState(pos);
   }
 
   /**
@@ -556,7 +827,7 @@ public class ActionContext {
    * @return Optional containing the block entity, or empty if none exists
    */
   public Optional<BlockEntity> getBlockEntity(BlockPos pos) {
-    return Optional.ofNullable(level.getBlockEntity(pos));
+    return Optional.ofNullable(world.getBlockEntity(pos));
   }
 
   /**
@@ -568,7 +839,7 @@ public class ActionContext {
    * @return Optional containing the typed block entity, or empty if wrong type or doesn't exist
    */
   public <T extends BlockEntity> Optional<T> getBlockEntity(BlockPos pos, Class<T> type) {
-    BlockEntity be = level.getBlockEntity(pos);
+    BlockEntity be = world.getBlockEntity(pos);
     if (type.isInstance(be)) {
       return Optional.of(type.cast(be));
     }
@@ -655,6 +926,70 @@ public class ActionContext {
     return Optional.ofNullable(result);
   }
 
+  /**
+   * Start a search for blocks matching a predicate in the cube around the executor. Sections whose
+   * palette cannot contain a match are skipped without reading their blocks. The search can be
+   * stepped with a budget and kept in action-local data to spread it over several ticks.
+   *
+   * @param radius Distance from the executor to each face of the cube
+   * @param predicate Predicate a block state must match
+   * @return A new search that has not read any blocks yet
+   */
+  public BlockSearch searchBlocks(int radius, Predicate<BlockState> predicate) {
+    return BlockSearch.around(executorBlockPos, radius, predicate);
+  }
+
+  /**
+   * Find the first block matching a predicate in the cube around the executor, searching the whole
+   * cube in one go
+   *
+   * @param radius Distance from the executor to each face of the cube
+   * @param predicate Predicate a block state must match
+   * @return The first matching position, or empty if there is none
+   */
+  public Optional<BlockPos> findBlock(int radius, Predicate<BlockState> predicate) {
+    BlockSearch search = searchBlocks(radius, predicate);
+    search.step(world, Integer.MAX_VALUE);
+    return search.getResult();
+  }
+
+  /**
+   * Capture an immutable copy of the blocks in a box, which work on other threads can read. The
+   * chunk sections covering the box are copied on first use in a tick and shared with every other
+   * snapshot taken in the same tick, see {@link WorldSnapshot}
+   *
+   * @param from One corner of the box, inclusive
+   * @param to The opposite corner of the box, inclusive
+   * @return The snapshot, which must be closed once it is no longer read
+   */
+  public WorldSnapshot snapshotRegion(BlockPos from, BlockPos to) {
+    return WorldSnapshot.capture(world.getSnapshotCache(), from, to);
+  }
+
+  /**
+   * Get the block index of the executor's world
+   *
+   * @return The block index
+   */
+  public BlockIndex getBlockIndex() {
+    return world.getBlockIndex();
+  }
+
+  /**
+   * Find the indexed block of a category closest to the executor in the cube around it
+   *
+   * @param category The category to look for
+   * @param radius Distance from the executor to each face of the cube
+   * @return The closest matching position, or empty if there is none
+   */
+  public Optional<BlockPos> findNearestIndexed(BlockIndex.Category category, int radius) {
+    return world.findNearestIndexed(
+        category,
+        executorBlockPos,
+        executorBlockPos.offset(-radius, -radius, -radius),
+        executorBlockPos.offset(radius, radius, radius));
+  }
+
   /**
    * Check if a block position is loaded
    *
@@ -662,7 +997,7 @@ public class ActionContext {
    * @return True if the position is loaded
    */
   public boolean isLoaded(BlockPos pos) {
-    return level.isLoaded(pos);
+    return world.isLoaded(pos);
   }
 
   /**
@@ -785,7 +1120,81 @@ public class ActionContext {
     return ticksExecuting > maxTicksPerAction;
   }
 
+  /// Parking
+  /**
+   * Ask the executor to park for a number of ticks. The executor is taken out of the tick order
+   * and executes the current action again once the ticks have passed, so waiting costs nothing per
+   * tick. The result must be returned from {@code execute} for the request to take effect.
+   *
+   * @param ticks Number of ticks to sleep for
+   * @return {@link ActionResult#BLOCKING}
+   */
+  public ActionResult sleepFor(int ticks) {
+    requestedSleepTicks = Math.max(1, ticks);
+    return ActionResult.BLOCKING;
+  }
+
+  /**
+   * Ask the executor to park until a signal is raised through {@link
+   * com.dyingday.dronecraft.api.behavior.DroneTickScheduler#signal(Identifier)}. The current
+   * action is executed again once the signal has been raised. The result must be returned from
+   * {@code execute} for the request to take effect.
+   *
+   * @param signal The signal to wait for
+   * @return {@link ActionResult#BLOCKING}
+   */
+  public ActionResult blockUntil(Identifier signal) {
+    requestedWakeSignal = signal;
+    return ActionResult.BLOCKING;
+  }
+
+  /**
+   * Ask the executor to park until a signal is raised or a timeout passes, whichever comes first.
+   *
+   * @param signal The signal to wait for
+   * @param timeoutTicks Maximum number of ticks to wait for
+   * @return {@link ActionResult#BLOCKING}
+   * @see #blockUntil(Identifier)
+   */
+  public ActionResult blockUntil(Identifier signal, int timeoutTicks) {
+    requestedWakeSignal = signal;
+    requestedSleepTicks = Math.max(1, timeoutTicks);
+    return ActionResult.BLOCKING;
+  }
+
+  /**
+   * Get the number of ticks the current action asked to sleep for.
+   *
+   * @return The requested ticks, or 0 if the action did not ask to sleep
+   */
+  public int getRequestedSleepTicks() {
+    return requestedSleepTicks;
+  }
+
+  /**
+   * Get the signal the current action asked to wait for.
+   *
+   * @return The requested signal, or null if the action did not ask to wait for one
+   */
+  @Nullable public Identifier getRequestedWakeSignal() {
+    return requestedWakeSignal;
+  }
+
+  /** Forget any sleep or wait requested by the current action */
+  public void clearParkRequest() {
+    requestedSleepTicks = 0;
+    requestedWakeSignal = null;
+  }
+
   ///  Resource management
+  /**
+   * Reset the per-tick resource budgets. Called by the behavior executor once at the start of each
+   * tick, so the limits in {@link ResourceLimits} apply per tick.
+   */
+  public void resetResourceLimits() {
+    resourceManager.reset();
+  }
+
   /**
    * Attempt to consume energy from the executor
    *
@@ -853,32 +1262,93 @@ public class ActionContext {
     resourceManager.trackBlocksModified(count);
   }
 
+  /**
+   * Get the number of items moved since the resource budgets were last reset
+   *
+   * @return The number of items moved this tick
+   */
+  public int getItemsMovedThisTick() {
+    return resourceManager.getItemsMoved();
+  }
+
+  /**
+   * Get the number of blocks modified since the resource budgets were last reset
+   *
+   * @return The number of blocks modified this tick
+   */
+  public int getBlocksModifiedThisTick() {
+    return resourceManager.getBlocksModified();
+  }
+
+  /**
+   * Get the energy consumed since the resource budgets were last reset
+   *
+   * @return The energy consumed this tick
+   */
+  public int getEnergyConsumedThisTick() {
+    return resourceManager.getEnergyConsumed();
+  }
+
   /**
    * Record an action execution in the history (if tracking is enabled)
    *
    * @param actionId The action identifier
    * @param result The execution result
    * @param nanos Execution time in nanoseconds
+   * @deprecated Use {@link #recordExecution(int, ActionResult, long)} with the numeric id, which
+   *     does not look the identifier up on every execution
    */
+  @Deprecated
   public void recordExecution(Identifier actionId, ActionResult result, long nanos) {
+    recordExecution(ActionRegistry.getNumericId(actionId), result, nanos);
+  }
+
+  /**
+   * Record an action execution in the history (if tracking is enabled)
+   *
+   * @param actionId The action's numeric id in the action registry
+   * @param result The execution result
+   * @param nanos Execution time in nanoseconds
+   */
+  public void recordExecution(int actionId, ActionResult result, long nanos) {
     if (trackHistory && executionHistory != null) {
-      executionHistory.add(
-          new ActionExecutionRecord(
-              actionId, result, nanos, ticksExecuting, System.currentTimeMillis()));
+      executionHistory.record(
+          actionId, result, nanos, ticksExecuting, System.currentTimeMillis());
     }
   }
 
   /**
-   * Get the execution history records
+   * Check if execution history is being tracked
+   *
+   * @return True if executions are recorded
+   */
+  public boolean isTrackingHistory() {
+    return trackHistory;
+  }
+
+  /**
+   * Get a copy of the execution records still held in the history, which keeps only the most
+   * recent executions
    *
-   * @return Unmodifiable list of execution records, or empty list if not tracking
+   * @return List of execution records, oldest first, or empty list if not tracking
    */
   public List<ActionExecutionRecord> getExecutionHistory() {
-    return trackHistory ? Collections.unmodifiableList(executionHistory) : Collections.emptyList();
+    return trackHistory ? executionHistory.getAll() : Collections.emptyList();
   }
 
   /**
-   * Get the total execution time of all recorded actions
+   * Get a copy of the most recent execution records
+   *
+   * @param count Maximum number of records to copy
+   * @return List of execution records, oldest first, or empty list if not tracking
+   */
+  public List<ActionExecutionRecord> getExecutionHistory(int count) {
+    return trackHistory ? executionHistory.getRecent(count) : Collections.emptyList();
+  }
+
+  /**
+   * Get the total execution time of all recorded actions, including those no longer held in the
+   * history
    *
    * @return Total time in nanoseconds, or 0 if not tracking
    */
@@ -886,7 +1356,7 @@ public class ActionContext {
     if (!trackHistory || executionHistory == null) {
       return 0;
     }
-    return executionHistory.stream().mapToLong(ActionExecutionRecord::executionTimeNanos).sum();
+    return executionHistory.getTotalNanos();
   }
 
   /// Inventory helpers
@@ -945,14 +1415,25 @@ public class ActionContext {
    * @return A ContextSnapshot containing current state
    */
   public ContextSnapshot createSnapshot() {
+    return createSnapshot(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Create a snapshot of the current context state, copying only the most recent part of the
+   * execution history
+   *
+   * @param historyWindow Maximum number of execution records to copy
+   * @return Snapshot of the context state
+   */
+  public ContextSnapshot createSnapshot(int historyWindow) {
     return new ContextSnapshot(
         executionId,
         executorBlockPos,
         ticksExecuting,
-        new HashMap<>(variables),
+        getVariables(),
         new HashMap<>(persistentData),
         new HashMap<>(actionLocalData),
-        trackHistory ? new ArrayList<>(executionHistory) : null);
+        trackHistory ? executionHistory.getRecent(historyWindow) : null);
   }
 
   @Override
@@ -963,7 +1444,7 @@ public class ActionContext {
         + ", ticks="
         + ticksExecuting
         + ", vars="
-        + variables.size()
+        + getVariables().size()
         + ", persistent="
         + persistentData.size()
         + ", valid="
@@ -986,12 +1467,18 @@ public class ActionContext {
     /** Whether to track execution history */
     private boolean trackHistory = false;
 
+    /** Number of execution records kept when tracking history */
+    private int historyCapacity = ExecutionHistory.DEFAULT_CAPACITY;
+
     /** Maximum ticks before timing out */
     private int maxTicksPerAction = 200;
 
     /** Resource consumption limits */
     private ResourceLimits resourceLimits = ResourceLimits.DEFAULT;
 
+    /** World access to use instead of the executor's level, or null to use the level */
+    private IWorldAccess world;
+
     /**
      * Create a builder with an executor
      *
@@ -1052,6 +1539,19 @@ public class ActionContext {
       return this;
     }
 
+    /**
+     * Add a single variable to the context through its key
+     *
+     * @param <T> The variable type
+     * @param key The variable key
+     * @param value The variable value
+     * @return This builder for chaining
+     */
+    public <T> Builder withVariable(VariableKey<T> key, T value) {
+      this.variables.put(key.getName(), value);
+      return this;
+    }
+
     /**
      * Set the persistent data for the context
      *
@@ -1074,6 +1574,17 @@ public class ActionContext {
       return this;
     }
 
+    /**
+     * Set how many of the most recent execution records are kept when tracking history
+     *
+     * @param capacity Number of records to keep
+     * @return This builder for chaining
+     */
+    public Builder historyCapacity(int capacity) {
+      this.historyCapacity = capacity;
+      return this;
+    }
+
     /**
      * Set the maximum ticks per action before timing out
      *
@@ -1096,18 +1607,30 @@ public class ActionContext {
       return this;
     }
 
+    /**
+     * Route world reads and writes through a world access instead of the executor's level. The
+     * executor may then have no level at all, which allows running actions without a server
+     *
+     * @param world The world access to use
+     * @return This builder for chaining
+     */
+    public Builder world(IWorldAccess world) {
+      this.world = world;
+      return this;
+    }
+
     /**
      * Build the ActionContext
      *
      * @return The constructed ActionContext
-     * @throws IllegalStateException if executor or level is null
+     * @throws IllegalStateException if executor is null, or level is null and no world was given
      */
     public ActionContext build() {
       if (executor == null) {
         throw new IllegalStateException("Executor cannot be null");
       }
-      if (executor.getLevel() == null) {
-        throw new IllegalStateException("Executor level cannot be null");
+      if (executor.getLevel() == null && world == null) {
+        throw new IllegalStateException("Executor level cannot be null without a world access");
       }
       return new ActionContext(this);
     }
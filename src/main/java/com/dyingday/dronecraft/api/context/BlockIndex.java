@@ -0,0 +1,475 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.context;
+
+import com.dyingday.dronecraft.DroneCraft;
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.Identifier;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.neoforged.neoforge.event.level.BlockEvent;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Per-level index of interesting block positions, grouped by chunk section and {@link Category}.
+ * Finding the blocks of a category near a position then costs one lookup per section in range plus
+ * one check per indexed block, instead of reading every block in range.
+ *
+ * <p>Sections are indexed lazily the first time a query covers them, reusing the palette check of
+ * {@link BlockSearch} so that sections which cannot contain a category are never read. Indexed
+ * sections are kept up to date from block change notifications and dropped when their chunk
+ * unloads. Changes made without neighbor notifications bypass the events, so lookups verify each
+ * result against the world and drop stale entries; code that changes blocks silently should call
+ * {@link #onBlockChanged(BlockPos)} itself.
+ *
+ * <p>Sections are read through an {@link IWorldAccess}, so worlds that are not levels can be
+ * indexed too with {@link #create(IWorldAccess)}. Such indexes receive no events and must be told
+ * about every change.
+ *
+ * <p>The index is held in memory only and is rebuilt lazily after a restart.
+ *
+ * <p>Thread-safety: Indexes must only be accessed from the server thread.
+ */
+@ApiStatus.Experimental
+public final class BlockIndex {
+  /** Registered categories, in index order */
+  private static final List<Category> CATEGORIES = new ArrayList<>();
+
+  /** Index for each loaded server-side level */
+  private static final Map<Level, BlockIndex> INDEXES = new IdentityHashMap<>();
+
+  /** Any block in the logs tag */
+  public static final Category LOGS =
+      registerCategory(
+          Identifier.fromNamespaceAndPath(DroneCraft.MODID, "logs"),
+          state -> state.is(BlockTags.LOGS),
+          null);
+
+  /** Any block in the saplings tag */
+  public static final Category SAPLINGS =
+      registerCategory(
+          Identifier.fromNamespaceAndPath(DroneCraft.MODID, "saplings"),
+          state -> state.is(BlockTags.SAPLINGS),
+          null);
+
+  /** Dirt-like blocks with air directly above them, where a sapling can be planted */
+  public static final Category PLANTABLE_SOIL =
+      registerCategory(
+          Identifier.fromNamespaceAndPath(DroneCraft.MODID, "plantable_soil"),
+          state -> state.is(BlockTags.DIRT),
+          BlockState::isAir);
+
+  /** The world this index reads, backed by its level for the indexes of levels */
+  private final IWorldAccess world;
+
+  /** Indexed sections keyed by packed section position */
+  private final Long2ObjectOpenHashMap<IndexedSection> sections = new Long2ObjectOpenHashMap<>();
+
+  private BlockIndex(IWorldAccess world) {
+    this.world = world;
+  }
+
+  /**
+   * Get the index for a level, creating it if needed.
+   *
+   * @param level The server-side level
+   * @return The index for that level
+   * @throws IllegalArgumentException if the level is client-side
+   */
+  public static BlockIndex get(Level level) {
+    if (level.isClientSide()) {
+      throw new IllegalArgumentException("Block indexes only exist on the server");
+    }
+    return INDEXES.computeIfAbsent(level, key -> new BlockIndex(new LevelWorldAccess(key)));
+  }
+
+  /**
+   * Create an index of a world that is not a level, such as an in-memory world. The index is not
+   * kept up to date by any event, so the world must call {@link #onBlockChanged(BlockPos)} for
+   * every block it changes. Every category must be registered before the index is created.
+   *
+   * @param world The world to index
+   * @return A new index that has not indexed any sections yet
+   */
+  public static BlockIndex create(IWorldAccess world) {
+    return new BlockIndex(world);
+  }
+
+  /**
+   * Register a category of blocks to index. Registering a category drops every section indexed so
+   * far so that it is rebuilt with the new category, so categories should be registered during
+   * mod construction.
+   *
+   * @param id Unique identifier of the category
+   * @param state Predicate the block state must match
+   * @param above Predicate the state of the block directly above must match, or null to not care
+   * @return The registered category
+   */
+  public static Category registerCategory(
+      Identifier id, Predicate<BlockState> state, @Nullable Predicate<BlockState> above) {
+    Category category = new Category(id, CATEGORIES.size(), state, above);
+    CATEGORIES.add(category);
+    INDEXES.values().forEach(index -> index.sections.clear());
+    return category;
+  }
+
+  /**
+   * Get every registered category.
+   *
+   * @return Unmodifiable list of categories in registration order
+   */
+  public static List<Category> getCategories() {
+    return Collections.unmodifiableList(CATEGORIES);
+  }
+
+  /**
+   * Update the index of a level after a block change notification.
+   *
+   * @param event The neighbor notification fired after a block changed
+   */
+  public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+    if (event.getLevel() instanceof Level level) {
+      BlockIndex index = INDEXES.get(level);
+      if (index != null) {
+        index.onBlockChanged(event.getPos());
+      }
+    }
+  }
+
+  /**
+   * Drop the indexed sections of a chunk when it unloads.
+   *
+   * @param event The chunk unload event
+   */
+  public static void onChunkUnload(ChunkEvent.Unload event) {
+    if (event.getLevel() instanceof Level level) {
+      BlockIndex index = INDEXES.get(level);
+      if (index != null) {
+        index.dropChunk(event.getChunk().getPos());
+      }
+    }
+  }
+
+  /**
+   * Drop the index of a level when it unloads.
+   *
+   * @param event The level unload event
+   */
+  public static void onLevelUnload(LevelEvent.Unload event) {
+    INDEXES.remove(event.getLevel());
+  }
+
+  /**
+   * Index the sections of a box that are not indexed yet, stopping once a budget of block reads has
+   * been used. Queries index missing sections themselves; this allows the cost to be spread over
+   * several ticks beforehand.
+   *
+   * @param from One corner of the box, inclusive
+   * @param to The opposite corner of the box, inclusive
+   * @param budget Maximum number of blocks to read, rounded up to whole sections so at least one
+   *     section is always indexed
+   * @return True if every loaded section in the box is now indexed
+   */
+  public boolean prepare(BlockPos from, BlockPos to, int budget) {
+    int remaining = Math.max(1, budget);
+    for (int sectionX = SectionPos.blockToSectionCoord(Math.min(from.getX(), to.getX()));
+        sectionX <= SectionPos.blockToSectionCoord(Math.max(from.getX(), to.getX()));
+        sectionX++) {
+      for (int sectionY = SectionPos.blockToSectionCoord(Math.min(from.getY(), to.getY()));
+          sectionY <= SectionPos.blockToSectionCoord(Math.max(from.getY(), to.getY()));
+          sectionY++) {
+        for (int sectionZ = SectionPos.blockToSectionCoord(Math.min(from.getZ(), to.getZ()));
+            sectionZ <= SectionPos.blockToSectionCoord(Math.max(from.getZ(), to.getZ()));
+            sectionZ++) {
+          if (sections.containsKey(SectionPos.asLong(sectionX, sectionY, sectionZ))) {
+            continue;
+          }
+          if (remaining <= 0) {
+            return false;
+          }
+          IndexedSection section = getOrBuild(sectionX, sectionY, sectionZ);
+          remaining -= section == null ? 1 : section.cost;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Find the block of a category closest to a position within a cube around it.
+   *
+   * @param category The category to look for
+   * @param center The position to measure distance from
+   * @param radius Distance from the centre to each face of the cube
+   * @return The closest matching position, or empty if there is none
+   */
+  public Optional<BlockPos> findNearest(Category category, BlockPos center, int radius) {
+    return findNearest(
+        category,
+        center,
+        center.offset(-radius, -radius, -radius),
+        center.offset(radius, radius, radius));
+  }
+
+  /**
+   * Find the block of a category closest to a position within a box. Every candidate is checked
+   * against the world before it is returned and stale entries are dropped from the index.
+   *
+   * @param category The category to look for
+   * @param center The position to measure distance from
+   * @param from One corner of the box, inclusive
+   * @param to The opposite corner of the box, inclusive
+   * @return The closest matching position, or empty if there is none
+   */
+  public Optional<BlockPos> findNearest(
+      Category category, BlockPos center, BlockPos from, BlockPos to) {
+    // Walk the candidates once from nearest to farthest, dropping stale entries on the way
+    List<BlockPos> candidates = findAll(category, from, to);
+    candidates.sort(Comparator.comparingDouble(pos -> pos.distSqr(center)));
+    for (BlockPos pos : candidates) {
+      if (matches(category, pos)) {
+        return Optional.of(pos);
+      }
+      onBlockChanged(pos);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Get every indexed block of a category within a box. Results are not checked against the world.
+   *
+   * @param category The category to look for
+   * @param from One corner of the box, inclusive
+   * @param to The opposite corner of the box, inclusive
+   * @return The matching positions, in no particular order
+   */
+  public List<BlockPos> findAll(Category category, BlockPos from, BlockPos to) {
+    int minX = Math.min(from.getX(), to.getX());
+    int minY = Math.min(from.getY(), to.getY());
+    int minZ = Math.min(from.getZ(), to.getZ());
+    int maxX = Math.max(from.getX(), to.getX());
+    int maxY = Math.max(from.getY(), to.getY());
+    int maxZ = Math.max(from.getZ(), to.getZ());
+
+    List<BlockPos> found = new ArrayList<>();
+    for (int sectionX = SectionPos.blockToSectionCoord(minX);
+        sectionX <= SectionPos.blockToSectionCoord(maxX);
+        sectionX++) {
+      for (int sectionY = SectionPos.blockToSectionCoord(minY);
+          sectionY <= SectionPos.blockToSectionCoord(maxY);
+          sectionY++) {
+        for (int sectionZ = SectionPos.blockToSectionCoord(minZ);
+            sectionZ <= SectionPos.blockToSectionCoord(maxZ);
+            sectionZ++) {
+          IndexedSection section = getOrBuild(sectionX, sectionY, sectionZ);
+          if (section == null || section.positions[category.index()] == null) {
+            continue;
+          }
+
+          LongIterator iterator = section.positions[category.index()].iterator();
+          while (iterator.hasNext()) {
+            long pos = iterator.nextLong();
+            int x = BlockPos.getX(pos);
+            int y = BlockPos.getY(pos);
+            int z = BlockPos.getZ(pos);
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+              found.add(new BlockPos(x, y, z));
+            }
+          }
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Re-check a changed block, and the block below it for categories that look above, in every
+   * indexed section. Positions in sections that are not indexed yet are ignored.
+   *
+   * @param pos The position that changed
+   */
+  public void onBlockChanged(BlockPos pos) {
+    update(pos, false);
+    update(pos.below(), true);
+  }
+
+  /**
+   * Get the number of sections currently indexed.
+   *
+   * @return The number of indexed sections
+   */
+  public int getIndexedSectionCount() {
+    return sections.size();
+  }
+
+  /** Re-check a position against every category, or only those that look above */
+  private void update(BlockPos pos, boolean aboveOnly) {
+    IndexedSection section =
+        sections.get(
+            SectionPos.asLong(
+                SectionPos.blockToSectionCoord(pos.getX()),
+                SectionPos.blockToSectionCoord(pos.getY()),
+                SectionPos.blockToSectionCoord(pos.getZ())));
+    if (section == null) {
+      return;
+    }
+
+    long packed = pos.asLong();
+    for (Category category : CATEGORIES) {
+      if (aboveOnly && category.above() == null) {
+        continue;
+      }
+      if (matches(category, pos)) {
+        section.add(category, packed);
+      } else {
+        section.remove(category, packed);
+      }
+    }
+  }
+
+  /** Check a single position against a category by reading the world */
+  private boolean matches(Category category, BlockPos pos) {
+    return category.matches(world, pos);
+  }
+
+  /** Get an indexed section, indexing it first if needed, or null if its chunk is not loaded */
+  @Nullable private IndexedSection getOrBuild(int sectionX, int sectionY, int sectionZ) {
+    long key = SectionPos.asLong(sectionX, sectionY, sectionZ);
+    IndexedSection indexed = sections.get(key);
+    if (indexed != null) {
+      return indexed;
+    }
+
+    IWorldAccess.SectionView section = world.getSectionView(sectionX, sectionY, sectionZ);
+    if (section == null) {
+      return null;
+    }
+
+    indexed = build(section, sectionX, sectionY, sectionZ);
+    sections.put(key, indexed);
+    return indexed;
+  }
+
+  /** Read the blocks of a section and record every position matching a category */
+  private IndexedSection build(
+      IWorldAccess.SectionView section, int sectionX, int sectionY, int sectionZ) {
+    IndexedSection indexed = new IndexedSection();
+
+    // Only read the blocks if the palette says some category can be present
+    List<Category> candidates = new ArrayList<>();
+    for (Category category : CATEGORIES) {
+      if (section.maybeHas(category.state())) {
+        candidates.add(category);
+      }
+    }
+    if (candidates.isEmpty()) {
+      return indexed;
+    }
+
+    int baseX = SectionPos.sectionToBlockCoord(sectionX);
+    int baseY = SectionPos.sectionToBlockCoord(sectionY);
+    int baseZ = SectionPos.sectionToBlockCoord(sectionZ);
+    BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
+    for (int y = 0; y < 16; y++) {
+      for (int z = 0; z < 16; z++) {
+        for (int x = 0; x < 16; x++) {
+          BlockState state = section.get(x, y, z);
+          for (Category category : candidates) {
+            if (!category.state().test(state)) {
+              continue;
+            }
+            if (category.above() != null) {
+              BlockState aboveState =
+                  y < 15
+                      ? section.get(x, y + 1, z)
+                      : world.getBlockState(above.set(baseX + x, baseY + 16, baseZ + z));
+              if (!category.above().test(aboveState)) {
+                continue;
+              }
+            }
+            indexed.add(category, BlockPos.asLong(baseX + x, baseY + y, baseZ + z));
+          }
+        }
+      }
+    }
+    indexed.cost = LevelChunkSection.SECTION_SIZE;
+    return indexed;
+  }
+
+  /** Drop every indexed section of a chunk column */
+  private void dropChunk(ChunkPos pos) {
+    for (int sectionY = SectionPos.blockToSectionCoord(world.getMinY());
+        sectionY <= SectionPos.blockToSectionCoord(world.getMinY() + world.getHeight() - 1);
+        sectionY++) {
+      sections.remove(SectionPos.asLong(pos.x, sectionY, pos.z));
+    }
+  }
+
+  /**
+   * A kind of block tracked by the index.
+   *
+   * @param id Unique identifier of the category
+   * @param index Position of the category in the registration order
+   * @param state Predicate the block state must match
+   * @param above Predicate the state of the block directly above must match, or null to not care
+   */
+  public record Category(
+      Identifier id,
+      int index,
+      Predicate<BlockState> state,
+      @Nullable Predicate<BlockState> above) {
+    /**
+     * Check a single position against this category by reading the world.
+     *
+     * @param world The world to read
+     * @param pos The block position
+     * @return True if the block, and the block above if required, match
+     */
+    public boolean matches(BlockGetter world, BlockPos pos) {
+      if (!state.test(world.getBlockState(pos))) {
+        return false;
+      }
+      return above == null || above.test(world.getBlockState(pos.above()));
+    }
+  }
+
+  /** Indexed positions of one chunk section */
+  private static final class IndexedSection {
+    /** Packed positions for each category, indexed by category index, null when empty */
+    private final LongOpenHashSet[] positions = new LongOpenHashSet[CATEGORIES.size()];
+
+    /** Number of blocks read to build this section */
+    private int cost = 1;
+
+    private void add(Category category, long pos) {
+      if (positions[category.index()] == null) {
+        positions[category.index()] = new LongOpenHashSet();
+      }
+      positions[category.index()].add(pos);
+    }
+
+    private void remove(Category category, long pos) {
+      if (positions[category.index()] != null) {
+        positions[category.index()].remove(pos);
+      }
+    }
+  }
+}
@@ -0,0 +1,303 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.context;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import java.util.Optional;
+import java.util.function.Predicate;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resumable search for blocks matching a state predicate inside a box. The box is walked one
+ * 16x16x16 chunk section at a time through {@link IWorldAccess#getSectionView(int, int, int)}, and
+ * each section's palette is checked before any of its blocks are read: sections that contain only
+ * air, or whose palette holds no state matching the predicate, are skipped as a whole. On normal
+ * terrain this removes the vast majority of block reads, since most sections around a search centre
+ * are solid stone or empty sky.
+ *
+ * <p>A search can be advanced in steps with a work budget, which lets an action spread a large
+ * search over several ticks by keeping the search object in its action-local data and returning
+ * CONTINUE until the search finishes. After a match is found the search can be stepped again to
+ * look for the next one.
+ *
+ * <p>Sections in chunks that are not loaded are skipped rather than loaded.
+ *
+ * <p>Thread-safety: Searches must only be stepped from the server thread.
+ */
+@ApiStatus.Experimental
+public final class BlockSearch {
+  /** Predicate a block state must match */
+  private final Predicate<BlockState> predicate;
+
+  /** Inclusive block bounds of the search box */
+  private final int minX;
+  private final int minY;
+  private final int minZ;
+  private final int maxX;
+  private final int maxY;
+  private final int maxZ;
+
+  /** Inclusive section bounds of the search box */
+  private final int minSectionX;
+  private final int minSectionY;
+  private final int minSectionZ;
+  private final int maxSectionX;
+  private final int maxSectionY;
+  private final int maxSectionZ;
+
+  /** Section the cursor is in */
+  private int sectionX;
+  private int sectionY;
+  private int sectionZ;
+
+  /** Whether the current section passed the palette check and is being read block by block */
+  private boolean inSection = false;
+
+  /** Next block to read in the current section */
+  private int x;
+  private int y;
+  private int z;
+
+  /** Bounds of the search box clipped to the current section */
+  private int sectionMinX;
+  private int sectionMinY;
+  private int sectionMinZ;
+  private int sectionMaxX;
+  private int sectionMaxY;
+  private int sectionMaxZ;
+
+  /** Most recent match, or null if the last step did not find one */
+  @Nullable private BlockPos result;
+
+  /** Whether the whole box has been searched */
+  private boolean exhausted = false;
+
+  /** Number of block states read so far */
+  private int blocksRead = 0;
+
+  /** Number of sections skipped without reading any blocks */
+  private int sectionsSkipped = 0;
+
+  private BlockSearch(
+      int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Predicate<BlockState> predicate) {
+    this.predicate = predicate;
+    this.minX = minX;
+    this.minY = minY;
+    this.minZ = minZ;
+    this.maxX = maxX;
+    this.maxY = maxY;
+    this.maxZ = maxZ;
+    this.minSectionX = SectionPos.blockToSectionCoord(minX);
+    this.minSectionY = SectionPos.blockToSectionCoord(minY);
+    this.minSectionZ = SectionPos.blockToSectionCoord(minZ);
+    this.maxSectionX = SectionPos.blockToSectionCoord(maxX);
+    this.maxSectionY = SectionPos.blockToSectionCoord(maxY);
+    this.maxSectionZ = SectionPos.blockToSectionCoord(maxZ);
+    this.sectionX = minSectionX;
+    this.sectionY = minSectionY;
+    this.sectionZ = minSectionZ;
+    this.exhausted = minX > maxX || minY > maxY || minZ > maxZ;
+  }
+
+  /**
+   * Create a search of the cube around a position.
+   *
+   * @param center The centre of the cube
+   * @param radius Distance from the centre to each face of the cube
+   * @param predicate Predicate a block state must match
+   * @return A new search that has not read any blocks yet
+   */
+  public static BlockSearch around(BlockPos center, int radius, Predicate<BlockState> predicate) {
+    return between(
+        center.offset(-radius, -radius, -radius), center.offset(radius, radius, radius), predicate);
+  }
+
+  /**
+   * Create a search of the box between two corners.
+   *
+   * @param from One corner of the box, inclusive
+   * @param to The opposite corner of the box, inclusive
+   * @param predicate Predicate a block state must match
+   * @return A new search that has not read any blocks yet
+   */
+  public static BlockSearch between(BlockPos from, BlockPos to, Predicate<BlockState> predicate) {
+    return new BlockSearch(
+        Math.min(from.getX(), to.getX()),
+        Math.min(from.getY(), to.getY()),
+        Math.min(from.getZ(), to.getZ()),
+        Math.max(from.getX(), to.getX()),
+        Math.max(from.getY(), to.getY()),
+        Math.max(from.getZ(), to.getZ()),
+        predicate);
+  }
+
+  /**
+   * Search a whole box in one go.
+   *
+   * @param world The world to search
+   * @param from One corner of the box, inclusive
+   * @param to The opposite corner of the box, inclusive
+   * @param predicate Predicate a block state must match
+   * @return The first matching position, or empty if there is none
+   */
+  public static Optional<BlockPos> findFirst(
+      IWorldAccess world, BlockPos from, BlockPos to, Predicate<BlockState> predicate) {
+    BlockSearch search = between(from, to, predicate);
+    search.step(world, Integer.MAX_VALUE);
+    return search.getResult();
+  }
+
+  /**
+   * Advance the search until a match is found, the box is exhausted or the budget runs out. Each
+   * block read and each skipped section costs one unit of the budget.
+   *
+   * @param world The world to search
+   * @param budget Maximum units of work to do in this step, at least one unit is always done
+   * @return The state of the search after this step
+   */
+  public Status step(IWorldAccess world, int budget) {
+    result = null;
+    if (exhausted) {
+      return Status.EXHAUSTED;
+    }
+
+    int remaining = Math.max(1, budget);
+    int worldMinY = world.getMinY();
+    int worldMaxY = worldMinY + world.getHeight() - 1;
+
+    while (sectionX <= maxSectionX) {
+      IWorldAccess.SectionView section = world.getSectionView(sectionX, sectionY, sectionZ);
+
+      if (!inSection) {
+        if (section == null || !section.maybeHas(predicate)) {
+          sectionsSkipped++;
+          nextSection();
+          if (--remaining <= 0) {
+            return exhausted ? Status.EXHAUSTED : Status.SEARCHING;
+          }
+          continue;
+        }
+        enterSection(worldMinY, worldMaxY);
+      } else if (section == null) {
+        // Chunk unloaded since the last step
+        nextSection();
+        continue;
+      }
+
+      while (x <= sectionMaxX) {
+        BlockState state = section.get(x & 15, y & 15, z & 15);
+        blocksRead++;
+
+        if (predicate.test(state)) {
+          result = new BlockPos(x, y, z);
+          if (nextBlock()) {
+            nextSection();
+          }
+          return Status.FOUND;
+        }
+        if (nextBlock()) {
+          nextSection();
+          break;
+        }
+        if (--remaining <= 0) {
+          return Status.SEARCHING;
+        }
+      }
+    }
+
+    exhausted = true;
+    return Status.EXHAUSTED;
+  }
+
+  /**
+   * Get the match found by the last step.
+   *
+   * @return The matching position, or empty if the last step did not find a match
+   */
+  public Optional<BlockPos> getResult() {
+    return Optional.ofNullable(result);
+  }
+
+  /**
+   * Check if the whole box has been searched.
+   *
+   * @return True if there is nothing left to search
+   */
+  public boolean isExhausted() {
+    return exhausted;
+  }
+
+  /**
+   * Get the number of block states read so far.
+   *
+   * @return The number of blocks read
+   */
+  public int getBlocksRead() {
+    return blocksRead;
+  }
+
+  /**
+   * Get the number of sections skipped by the palette check without reading any of their blocks.
+   *
+   * @return The number of skipped sections
+   */
+  public int getSectionsSkipped() {
+    return sectionsSkipped;
+  }
+
+  /** Clip the search box to the current section and move the block cursor to its first block */
+  private void enterSection(int worldMinY, int worldMaxY) {
+    sectionMinX = Math.max(minX, SectionPos.sectionToBlockCoord(sectionX));
+    sectionMinY = Math.max(Math.max(minY, worldMinY), SectionPos.sectionToBlockCoord(sectionY));
+    sectionMinZ = Math.max(minZ, SectionPos.sectionToBlockCoord(sectionZ));
+    sectionMaxX = Math.min(maxX, SectionPos.sectionToBlockCoord(sectionX, 15));
+    sectionMaxY = Math.min(Math.min(maxY, worldMaxY), SectionPos.sectionToBlockCoord(sectionY, 15));
+    sectionMaxZ = Math.min(maxZ, SectionPos.sectionToBlockCoord(sectionZ, 15));
+    x = sectionMinX;
+    y = sectionMinY;
+    z = sectionMinZ;
+    inSection = true;
+  }
+
+  /** Move the block cursor on by one block, returning true if it has left the section */
+  private boolean nextBlock() {
+    if (++z <= sectionMaxZ) {
+      return false;
+    }
+    z = sectionMinZ;
+    if (++y <= sectionMaxY) {
+      return false;
+    }
+    y = sectionMinY;
+    x++;
+    return x > sectionMaxX;
+  }
+
+  /** Move the section cursor on by one section */
+  private void nextSection() {
+    inSection = false;
+    if (++sectionZ <= maxSectionZ) {
+      return;
+    }
+    sectionZ = minSectionZ;
+    if (++sectionY <= maxSectionY) {
+      return;
+    }
+    sectionY = minSectionY;
+    if (++sectionX > maxSectionX) {
+      exhausted = true;
+    }
+  }
+
+  /** State of a search after a step */
+  public enum Status {
+    /** A match was found, the search can be stepped again to find the next one */
+    FOUND,
+    /** The budget ran out before a match was found or the box was exhausted */
+    SEARCHING,
+    /** Every block in the box has been searched */
+    EXHAUSTED
+  }
+}
@@ -0,0 +1,202 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.context;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.action.ActionExecutionRecord;
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.registry.ActionRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-size ring buffer of action executions. Records are stored column by column in preallocated
+ * primitive arrays, so recording an execution never allocates, and once the buffer is full the
+ * oldest record is overwritten. Totals are kept as running aggregates, so they cost O(1) no matter
+ * how many executions have been recorded.
+ *
+ * <p>Records are only turned back into {@link ActionExecutionRecord} objects when they are read.
+ */
+@ApiStatus.Experimental
+public final class ExecutionHistory {
+  /** Default number of records kept */
+  public static final int DEFAULT_CAPACITY = 256;
+
+  /** Numeric id of the executed action, see {@link ActionRegistry#getNumericId(IAction)} */
+  private final int[] actionIds;
+
+  /** Ordinal of the action's result */
+  private final byte[] results;
+
+  /** Time the execution took in nanoseconds */
+  private final long[] executionNanos;
+
+  /** Tick number the execution happened in */
+  private final int[] tickNumbers;
+
+  /** Wall clock time of the execution in milliseconds */
+  private final long[] timestamps;
+
+  /** Index the next record is written to */
+  private int head = 0;
+
+  /** Number of records currently held */
+  private int size = 0;
+
+  /** Number of executions recorded since creation */
+  private long totalRecorded = 0;
+
+  /** Execution time of every execution recorded since creation */
+  private long totalNanos = 0;
+
+  /** Execution time of the records currently held */
+  private long windowNanos = 0;
+
+  /** Number of executions recorded since creation, indexed by result ordinal */
+  private final long[] resultCounts = new long[ActionResult.values().length];
+
+  /**
+   * Create a history holding up to a number of records.
+   *
+   * @param capacity Maximum number of records kept
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public ExecutionHistory(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("History capacity must be positive: " + capacity);
+    }
+    actionIds = new int[capacity];
+    results = new byte[capacity];
+    executionNanos = new long[capacity];
+    tickNumbers = new int[capacity];
+    timestamps = new long[capacity];
+  }
+
+  /**
+   * Record an execution, overwriting the oldest record if the buffer is full.
+   *
+   * @param actionId Numeric id of the action, see {@link ActionRegistry#getNumericId(IAction)}
+   * @param result The execution result
+   * @param nanos Execution time in nanoseconds
+   * @param tickNumber Tick number the execution happened in
+   * @param timestamp Wall clock time of the execution in milliseconds
+   */
+  public void record(
+      int actionId, ActionResult result, long nanos, int tickNumber, long timestamp) {
+    if (size == actionIds.length) {
+      windowNanos -= executionNanos[head];
+    } else {
+      size++;
+    }
+
+    actionIds[head] = actionId;
+    results[head] = (byte) result.ordinal();
+    executionNanos[head] = nanos;
+    tickNumbers[head] = tickNumber;
+    timestamps[head] = timestamp;
+    head = (head + 1) % actionIds.length;
+
+    totalRecorded++;
+    totalNanos += nanos;
+    windowNanos += nanos;
+    resultCounts[result.ordinal()]++;
+  }
+
+  /**
+   * Copy the most recent records out of the buffer.
+   *
+   * @param count Maximum number of records to copy
+   * @return Up to {@code count} of the most recent records, oldest first
+   */
+  public List<ActionExecutionRecord> getRecent(int count) {
+    int copied = Math.max(0, Math.min(count, size));
+    List<ActionExecutionRecord> records = new ArrayList<>(copied);
+    ActionResult[] resultValues = ActionResult.values();
+    for (int i = copied; i > 0; i--) {
+      int index = Math.floorMod(head - i, actionIds.length);
+      records.add(
+          new ActionExecutionRecord(
+              ActionRegistry.getIdByNumericId(actionIds[index]),
+              resultValues[results[index]],
+              executionNanos[index],
+              tickNumbers[index],
+              timestamps[index]));
+    }
+    return records;
+  }
+
+  /**
+   * Copy every record held in the buffer.
+   *
+   * @return All held records, oldest first
+   */
+  public List<ActionExecutionRecord> getAll() {
+    return getRecent(size);
+  }
+
+  /**
+   * Get the number of records currently held.
+   *
+   * @return The number of records, at most the capacity
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get the maximum number of records held.
+   *
+   * @return The capacity
+   */
+  public int capacity() {
+    return actionIds.length;
+  }
+
+  /**
+   * Get the number of executions recorded since creation, including overwritten ones.
+   *
+   * @return The total number of executions
+   */
+  public long getTotalRecorded() {
+    return totalRecorded;
+  }
+
+  /**
+   * Get the execution time of every execution recorded since creation, including overwritten ones.
+   *
+   * @return Total time in nanoseconds
+   */
+  public long getTotalNanos() {
+    return totalNanos;
+  }
+
+  /**
+   * Get the execution time of the records currently held.
+   *
+   * @return Time in nanoseconds
+   */
+  public long getWindowNanos() {
+    return windowNanos;
+  }
+
+  /**
+   * Get the number of executions since creation that ended with a result.
+   *
+   * @param result The result to count
+   * @return The number of executions with that result
+   */
+  public long getResultCount(ActionResult result) {
+    return resultCounts[result.ordinal()];
+  }
+
+  /** Forget every record and reset the totals */
+  public void clear() {
+    head = 0;
+    size = 0;
+    totalRecorded = 0;
+    totalNanos = 0;
+    windowNanos = 0;
+    Arrays.fill(resultCounts, 0);
+  }
+}
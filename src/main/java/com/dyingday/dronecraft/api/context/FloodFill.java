@@ -0,0 +1,148 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.context;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import it.unimi.dsi.fastutil.longs.LongConsumer;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import java.util.function.Predicate;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Breadth-first search for the connected region of blocks matching a predicate, such as the logs of
+ * a tree. Positions are packed into longs with {@link BlockPos#asLong()}, visited positions are
+ * kept in an open-addressing long set, the frontier is a long ring buffer and blocks are read
+ * through a single mutable cursor, so a fill allocates nothing once the instance has grown to the
+ * size of the regions it is used for. Instances should therefore be kept and reused.
+ *
+ * <p>Thread-safety: An instance must not be used by more than one thread at a time.
+ */
+@ApiStatus.Experimental
+public final class FloodFill {
+  /** Offsets of the six face neighbors */
+  private static final int[][] FACE_OFFSETS = {
+    {0, -1, 0}, {0, 1, 0}, {0, 0, -1}, {0, 0, 1}, {-1, 0, 0}, {1, 0, 0}
+  };
+
+  /** Offsets of all 26 face, edge and corner neighbors */
+  private static final int[][] ALL_OFFSETS = allOffsets();
+
+  /** Positions already read during the current fill */
+  private final LongOpenHashSet visited = new LongOpenHashSet();
+
+  /** Cursor used to read block states without allocating */
+  private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+  /** Ring buffer of positions waiting to be expanded, its length is always a power of two */
+  private long[] queue = new long[64];
+
+  /** Index of the next position to take from the queue */
+  private int head = 0;
+
+  /** Number of positions in the queue */
+  private int size = 0;
+
+  /**
+   * Find the region of matching blocks connected to a start position. The start block itself must
+   * match for the region to be non-empty.
+   *
+   * @param level The world to read blocks from
+   * @param start The position to start filling from
+   * @param predicate Predicate a block must match to be part of the region
+   * @param connectivity Which neighbors count as connected
+   * @param maxBlocks Maximum number of blocks in the region, the fill stops once it is reached
+   * @param visitor Receives the packed position of each block in the region, in breadth-first order
+   * @return The number of blocks in the region
+   */
+  public int fill(
+      BlockGetter level,
+      BlockPos start,
+      Predicate<BlockState> predicate,
+      Connectivity connectivity,
+      int maxBlocks,
+      LongConsumer visitor) {
+    visited.clear();
+    head = 0;
+    size = 0;
+
+    int[][] offsets = connectivity == Connectivity.FACES ? FACE_OFFSETS : ALL_OFFSETS;
+    long startPos = start.asLong();
+    visited.add(startPos);
+    push(startPos);
+
+    int found = 0;
+    while (size > 0 && found < maxBlocks) {
+      long pos = poll();
+      if (!predicate.test(level.getBlockState(cursor.set(pos)))) {
+        continue;
+      }
+
+      visitor.accept(pos);
+      found++;
+
+      for (int[] offset : offsets) {
+        long neighbor = BlockPos.offset(pos, offset[0], offset[1], offset[2]);
+        if (visited.add(neighbor)) {
+          push(neighbor);
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Check if a position was read during the last fill, whether or not it matched.
+   *
+   * @param pos The packed position
+   * @return True if the position was visited
+   */
+  public boolean wasVisited(long pos) {
+    return visited.contains(pos);
+  }
+
+  /** Add a position to the back of the queue, doubling the ring buffer if it is full */
+  private void push(long pos) {
+    if (size == queue.length) {
+      long[] grown = new long[queue.length * 2];
+      for (int i = 0; i < size; i++) {
+        grown[i] = queue[(head + i) & (queue.length - 1)];
+      }
+      queue = grown;
+      head = 0;
+    }
+    queue[(head + size) & (queue.length - 1)] = pos;
+    size++;
+  }
+
+  /** Take the position at the front of the queue */
+  private long poll() {
+    long pos = queue[head];
+    head = (head + 1) & (queue.length - 1);
+    size--;
+    return pos;
+  }
+
+  private static int[][] allOffsets() {
+    int[][] offsets = new int[26][];
+    int i = 0;
+    for (int x = -1; x <= 1; x++) {
+      for (int y = -1; y <= 1; y++) {
+        for (int z = -1; z <= 1; z++) {
+          if (x != 0 || y != 0 || z != 0) {
+            offsets[i++] = new int[] {x, y, z};
+          }
+        }
+      }
+    }
+    return offsets;
+  }
+
+  /** Which neighbors of a block count as connected to it */
+  public enum Connectivity {
+    /** Only the six blocks sharing a face */
+    FACES,
+    /** All 26 blocks sharing a face, edge or corner */
+    ALL
+  }
+}
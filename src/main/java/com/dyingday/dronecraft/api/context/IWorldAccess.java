@@ -0,0 +1,216 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.context;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.gameevent.GameEvent;
+import net.neoforged.neoforge.capabilities.BlockCapability;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The world reads and writes an {@link ActionContext} performs on behalf of its actions. In game
+ * this is backed by the executor's level, see {@link LevelWorldAccess}, but any implementation can
+ * be given to {@link ActionContext.Builder#world(IWorldAccess)}. This lets actions and executors
+ * run against an in-memory world without a Minecraft server, for example to simulate thousands of
+ * executors offline.
+ *
+ * <p>Actions should prefer {@link ActionContext#getWorld()} over {@link ActionContext#getLevel()}
+ * for block access, so they keep working without a level.
+ */
+@ApiStatus.Experimental
+public interface IWorldAccess extends BlockGetter {
+  /**
+   * Set the block state at a position.
+   *
+   * @param pos The block position
+   * @param state The new block state
+   * @param flags Update flags, see {@link Block#UPDATE_ALL}
+   * @return True if the block was changed
+   */
+  boolean setBlock(BlockPos pos, BlockState state, int flags);
+
+  /**
+   * Destroy the block at a position as if it were broken, replacing it with its fluid or air.
+   *
+   * @param pos The block position
+   * @param dropBlock Whether the block should drop its loot
+   * @return True if a block was destroyed
+   */
+  boolean destroyBlock(BlockPos pos, boolean dropBlock);
+
+  /**
+   * Play a level event, such as block break particles, for nearby players.
+   *
+   * @param type The level event type, see {@link net.minecraft.world.level.block.LevelEvent}
+   * @param pos The position of the event
+   * @param data Event specific data
+   */
+  void levelEvent(int type, BlockPos pos, int data);
+
+  /**
+   * Emit a game event, such as a block being destroyed, to listeners like sculk sensors.
+   *
+   * @param event The game event, see {@link GameEvent}
+   * @param pos The position of the event
+   * @param context The entity that caused the event and the block state affected
+   */
+  void gameEvent(Holder<GameEvent> event, BlockPos pos, GameEvent.Context context);
+
+  /**
+   * Notify the neighbors of a position that the block there changed.
+   *
+   * @param pos The changed position
+   * @param block The block that was there before the change
+   */
+  void updateNeighborsAt(BlockPos pos, Block block);
+
+  /**
+   * Check if a position is loaded.
+   *
+   * @param pos The block position
+   * @return True if the position can be read and written
+   */
+  boolean isLoaded(BlockPos pos);
+
+  /**
+   * Get a block capability at a position.
+   *
+   * @param <T> The capability type
+   * @param <C> The capability context type
+   * @param capability The capability to look up
+   * @param pos The block position
+   * @param context The capability context, usually the side
+   * @return The capability, or null if the block does not provide it
+   */
+  @Nullable <T, C> T getCapability(
+      BlockCapability<@NotNull T, C> capability, BlockPos pos, @Nullable C context);
+
+  /**
+   * Get the current game time.
+   *
+   * @return The game time in ticks
+   */
+  long getGameTime();
+
+  /**
+   * Get the random source of the world.
+   *
+   * @return The random source
+   */
+  RandomSource getRandom();
+
+  /**
+   * Get the index of notable blocks in this world.
+   *
+   * @return The block index
+   */
+  BlockIndex getBlockIndex();
+
+  /**
+   * Make sure the block index covers a box, indexing at most a budget of blocks per call. See
+   * {@link BlockIndex#prepare(BlockPos, BlockPos, int)}.
+   *
+   * @param from One corner of the box, inclusive
+   * @param to The opposite corner of the box, inclusive
+   * @param budget Maximum number of blocks to index in this call
+   * @return True once the whole box is indexed
+   */
+  boolean prepareIndex(BlockPos from, BlockPos to, int budget);
+
+  /**
+   * Find the indexed block of a category closest to a position within a box. See {@link
+   * BlockIndex#findNearest(BlockIndex.Category, BlockPos, BlockPos, BlockPos)}.
+   *
+   * @param category The category to look for
+   * @param center The position to measure distance from
+   * @param from One corner of the box, inclusive
+   * @param to The opposite corner of the box, inclusive
+   * @return The closest matching position, or empty if there is none
+   */
+  Optional<BlockPos> findNearestIndexed(
+      BlockIndex.Category category, BlockPos center, BlockPos from, BlockPos to);
+
+  /**
+   * Get every indexed block of a category within a box. See {@link
+   * BlockIndex#findAll(BlockIndex.Category, BlockPos, BlockPos)}.
+   *
+   * @param category The category to look for
+   * @param from One corner of the box, inclusive
+   * @param to The opposite corner of the box, inclusive
+   * @return The matching positions, in no particular order and not checked against the world
+   */
+  List<BlockPos> findAllIndexed(BlockIndex.Category category, BlockPos from, BlockPos to);
+
+  /**
+   * Get read access to the blocks of a chunk section, for searches that check what a section can
+   * contain before reading its blocks. The default implementation reads every block through {@link
+   * #getBlockState(BlockPos)} and cannot rule out any state; implementations with direct access to
+   * section storage should read from there and check the section's palette instead.
+   *
+   * @param sectionX Section x coordinate
+   * @param sectionY Section y coordinate
+   * @param sectionZ Section z coordinate
+   * @return The section, or null if it is not loaded or outside the world
+   */
+  default @Nullable SectionView getSectionView(int sectionX, int sectionY, int sectionZ) {
+    BlockPos origin =
+        new BlockPos(
+            SectionPos.sectionToBlockCoord(sectionX),
+            SectionPos.sectionToBlockCoord(sectionY),
+            SectionPos.sectionToBlockCoord(sectionZ));
+    if (origin.getY() + 15 < getMinY()
+        || origin.getY() >= getMinY() + getHeight()
+        || !isLoaded(origin)) {
+      return null;
+    }
+    BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+    return (x, y, z) -> getBlockState(pos.setWithOffset(origin, x, y, z));
+  }
+
+  /**
+   * Copy the blocks of a chunk section. The default implementation copies the blocks read through
+   * {@link #getSectionView(int, int, int)}; implementations with direct access to section storage
+   * may copy from there instead.
+   *
+   * @param sectionX Section x coordinate
+   * @param sectionY Section y coordinate
+   * @param sectionZ Section z coordinate
+   * @return The snapshot, holding one reference, or null if the section is not loaded or outside
+   *     the world
+   */
+  default @Nullable SectionSnapshot captureSection(int sectionX, int sectionY, int sectionZ) {
+    SectionView section = getSectionView(sectionX, sectionY, sectionZ);
+    return section == null ? null : SectionSnapshot.capture(section);
+  }
+
+  /**
+   * Get the cache that shares section snapshots of this world within a tick.
+   *
+   * @return The snapshot cache
+   */
+  SnapshotCache getSnapshotCache();
+
+  /** Read access to the blocks of one chunk section, in local coordinates from 0 to 15 */
+  @FunctionalInterface
+  interface SectionView extends SectionSnapshot.Reader {
+    /**
+     * Check if the section may contain a state matching a predicate, without reading its blocks.
+     *
+     * @param predicate The predicate to check
+     * @return False only if no block in the section can match, the default never rules a state out
+     */
+    default boolean maybeHas(Predicate<BlockState> predicate) {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,209 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.context;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.gameevent.GameEvent;
+import net.minecraft.world.level.material.FluidState;
+import net.neoforged.neoforge.capabilities.BlockCapability;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link IWorldAccess} backed by a level. This is the world access every {@link ActionContext}
+ * uses unless it is built with another one. Index lookups go through the level's {@link
+ * BlockIndex}.
+ */
+@ApiStatus.Experimental
+public final class LevelWorldAccess implements IWorldAccess {
+  /** The level all reads and writes go to */
+  private final Level level;
+
+  /** Block index of the level, looked up on first use */
+  @Nullable private BlockIndex blockIndex;
+
+  /** Snapshot cache of the level, looked up on first use */
+  @Nullable private SnapshotCache snapshotCache;
+
+  /**
+   * Create a world access for a level.
+   *
+   * @param level The level to read and write
+   */
+  public LevelWorldAccess(Level level) {
+    this.level = level;
+  }
+
+  /**
+   * Get the level this world access is backed by.
+   *
+   * @return The level
+   */
+  public Level getLevel() {
+    return level;
+  }
+
+  @Override
+  public BlockState getBlockState(BlockPos pos) {
+    return level.getBlockState(pos);
+  }
+
+  @Override
+  public FluidState getFluidState(BlockPos pos) {
+    return level.getFluidState(pos);
+  }
+
+  @Override
+  public @Nullable BlockEntity getBlockEntity(BlockPos pos) {
+    return level.getBlockEntity(pos);
+  }
+
+  @Override
+  public int getHeight() {
+    return level.getHeight();
+  }
+
+  @Override
+  public int getMinY() {
+    return level.getMinY();
+  }
+
+  @Override
+  public boolean setBlock(BlockPos pos, BlockState state, int flags) {
+    return level.setBlock(pos, state, flags);
+  }
+
+  @Override
+  public boolean destroyBlock(BlockPos pos, boolean dropBlock) {
+    return level.destroyBlock(pos, dropBlock);
+  }
+
+  @Override
+  public void levelEvent(int type, BlockPos pos, int data) {
+    level.levelEvent(type, pos, data);
+  }
+
+  @Override
+  public void gameEvent(Holder<GameEvent> event, BlockPos pos, GameEvent.Context context) {
+    level.gameEvent(event, pos, context);
+  }
+
+  @Override
+  public void updateNeighborsAt(BlockPos pos, Block block) {
+    level.updateNeighborsAt(pos, block);
+  }
+
+  @Override
+  public boolean isLoaded(BlockPos pos) {
+    return level.isLoaded(pos);
+  }
+
+  @Override
+  public @Nullable <T, C> T getCapability(
+      BlockCapability<@NotNull T, C> capability, BlockPos pos, @Nullable C context) {
+    return level.getCapability(capability, pos, context);
+  }
+
+  @Override
+  public long getGameTime() {
+    return level.getGameTime();
+  }
+
+  @Override
+  public RandomSource getRandom() {
+    return level.getRandom();
+  }
+
+  @Override
+  public BlockIndex getBlockIndex() {
+    // Cached since the index lives as long as the level
+    if (blockIndex == null) {
+      blockIndex = BlockIndex.get(level);
+    }
+    return blockIndex;
+  }
+
+  @Override
+  public boolean prepareIndex(BlockPos from, BlockPos to, int budget) {
+    return getBlockIndex().prepare(from, to, budget);
+  }
+
+  @Override
+  public Optional<BlockPos> findNearestIndexed(
+      BlockIndex.Category category, BlockPos center, BlockPos from, BlockPos to) {
+    return getBlockIndex().findNearest(category, center, from, to);
+  }
+
+  @Override
+  public List<BlockPos> findAllIndexed(BlockIndex.Category category, BlockPos from, BlockPos to) {
+    return getBlockIndex().findAll(category, from, to);
+  }
+
+  @Override
+  public @Nullable SectionView getSectionView(int sectionX, int sectionY, int sectionZ) {
+    LevelChunkSection section = getChunkSection(sectionX, sectionY, sectionZ);
+    if (section == null) {
+      return null;
+    }
+    return new SectionView() {
+      @Override
+      public BlockState get(int x, int y, int z) {
+        return section.getBlockState(x, y, z);
+      }
+
+      @Override
+      public boolean maybeHas(Predicate<BlockState> predicate) {
+        // Palettes keep states that have since been removed, so trust the block count for air
+        if (section.hasOnlyAir()) {
+          return section.maybeHas(state -> state.isAir() && predicate.test(state));
+        }
+        return section.maybeHas(predicate);
+      }
+    };
+  }
+
+  @Override
+  public @Nullable SectionSnapshot captureSection(int sectionX, int sectionY, int sectionZ) {
+    LevelChunkSection section = getChunkSection(sectionX, sectionY, sectionZ);
+    if (section == null) {
+      return null;
+    }
+    // Air-only sections may still hold cave or void air, only plain air can skip the copy
+    BlockState air = Blocks.AIR.defaultBlockState();
+    return section.hasOnlyAir() && !section.maybeHas(state -> state != air)
+        ? SectionSnapshot.uniform(air)
+        : SectionSnapshot.capture(section);
+  }
+
+  @Override
+  public SnapshotCache getSnapshotCache() {
+    if (snapshotCache == null) {
+      snapshotCache = SnapshotCache.get(level);
+    }
+    return snapshotCache;
+  }
+
+  /** Get a section of a loaded chunk, or null if it is not loaded or outside the level */
+  @Nullable private LevelChunkSection getChunkSection(int sectionX, int sectionY, int sectionZ) {
+    if (sectionY < level.getMinSectionY() || sectionY > level.getMaxSectionY()) {
+      return null;
+    }
+    LevelChunk chunk = level.getChunkSource().getChunkNow(sectionX, sectionZ);
+    if (chunk == null) {
+      return null;
+    }
+    return chunk.getSection(chunk.getSectionIndexFromSectionY(sectionY));
+  }
+}
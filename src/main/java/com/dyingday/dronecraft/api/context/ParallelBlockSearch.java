@@ -0,0 +1,478 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.context;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.behavior.CancellationToken;
+import com.dyingday.dronecraft.api.behavior.async.AsyncActions;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Search for blocks matching a state predicate in a box of a {@link WorldSnapshot}, split into
+ * chunk-section tasks that run on a dedicated fork-join pool. It is meant for searches too large
+ * for a {@link BlockSearch} stepped on the server thread, such as the area of a quarry, and is run
+ * from the computation of an {@link com.dyingday.dronecraft.api.behavior.async.IAsyncAction},
+ * which captures the snapshot on the server thread and hands it to a worker.
+ *
+ * <p>Like {@link BlockSearch}, each section's palette is checked before any of its blocks are
+ * read, and sections that were not loaded when the snapshot was captured are skipped. A search
+ * can look for any match, stopping every task as soon as one is found, for the match nearest to a
+ * position, skipping sections that cannot hold anything nearer than the best match so far, or for
+ * every match.
+ *
+ * <p>A search belongs to the {@link CancellationToken#current() current} token of the thread that
+ * creates it, normally the token of the executor whose async action runs it. Once that token is
+ * cancelled every task stops at its next block layer and the find methods throw.
+ *
+ * <p>Thread-safety: The find methods wait for the search threads, so they must not be called on
+ * the server thread. The snapshot must stay open until they return.
+ */
+@ApiStatus.Experimental
+public final class ParallelBlockSearch {
+  /** Default number of search threads, using the cores the server thread and workers leave */
+  public static final int DEFAULT_PARALLELISM =
+      Math.max(
+          1,
+          Math.min(
+              4,
+              Runtime.getRuntime().availableProcessors()
+                  - 1
+                  - AsyncActions.DEFAULT_WORKER_THREADS));
+
+  /** Sections a task scans itself rather than splitting them with other search threads */
+  private static final int SECTIONS_PER_TASK = 2;
+
+  /** Number of search threads */
+  private static int parallelism = DEFAULT_PARALLELISM;
+
+  /** The search thread pool, started on first use */
+  @Nullable private static ForkJoinPool pool;
+
+  /** The snapshot to search */
+  private final WorldSnapshot snapshot;
+
+  /** Predicate a block state must match */
+  private final Predicate<BlockState> predicate;
+
+  /** Stops the search once the work it was started for is cancelled */
+  private final CancellationToken cancellationToken = CancellationToken.current();
+
+  /** Inclusive lower x bound of the search box */
+  private final int minX;
+
+  /** Inclusive lower y bound of the search box */
+  private final int minY;
+
+  /** Inclusive lower z bound of the search box */
+  private final int minZ;
+
+  /** Inclusive upper x bound of the search box */
+  private final int maxX;
+
+  /** Inclusive upper y bound of the search box */
+  private final int maxY;
+
+  /** Inclusive upper z bound of the search box */
+  private final int maxZ;
+
+  /** Packed positions of the sections overlapping the box that the snapshot holds */
+  private final long[] sections;
+
+  /** Number of block states read so far */
+  private final AtomicLong blocksRead = new AtomicLong();
+
+  /** Number of sections skipped without reading any blocks */
+  private final AtomicInteger sectionsSkipped = new AtomicInteger();
+
+  private ParallelBlockSearch(
+      WorldSnapshot snapshot,
+      int minX,
+      int minY,
+      int minZ,
+      int maxX,
+      int maxY,
+      int maxZ,
+      Predicate<BlockState> predicate) {
+    this.snapshot = snapshot;
+    this.predicate = predicate;
+    this.minX = minX;
+    this.minY = minY;
+    this.minZ = minZ;
+    this.maxX = maxX;
+    this.maxY = maxY;
+    this.maxZ = maxZ;
+
+    int maxSectionX = SectionPos.blockToSectionCoord(maxX);
+    int maxSectionY = SectionPos.blockToSectionCoord(maxY);
+    int maxSectionZ = SectionPos.blockToSectionCoord(maxZ);
+    LongArrayList loaded = new LongArrayList();
+    for (int x = SectionPos.blockToSectionCoord(minX); x <= maxSectionX; x++) {
+      for (int z = SectionPos.blockToSectionCoord(minZ); z <= maxSectionZ; z++) {
+        for (int y = SectionPos.blockToSectionCoord(minY); y <= maxSectionY; y++) {
+          int blockX = SectionPos.sectionToBlockCoord(x);
+          int blockY = SectionPos.sectionToBlockCoord(y);
+          int blockZ = SectionPos.sectionToBlockCoord(z);
+          if (snapshot.getSection(blockX, blockY, blockZ) != null) {
+            loaded.add(SectionPos.asLong(x, y, z));
+          }
+        }
+      }
+    }
+    this.sections = loaded.toLongArray();
+  }
+
+  /**
+   * Create a search of the cube around a position.
+   *
+   * @param snapshot The snapshot to search, which should cover the cube
+   * @param center The centre of the cube
+   * @param radius Distance from the centre to each face of the cube
+   * @param predicate Predicate a block state must match, called from the search threads
+   * @return A new search
+   */
+  public static ParallelBlockSearch around(
+      WorldSnapshot snapshot, BlockPos center, int radius, Predicate<BlockState> predicate) {
+    return between(
+        snapshot,
+        center.offset(-radius, -radius, -radius),
+        center.offset(radius, radius, radius),
+        predicate);
+  }
+
+  /**
+   * Create a search of the box between two corners.
+   *
+   * @param snapshot The snapshot to search, which should cover the box
+   * @param from One corner of the box, inclusive
+   * @param to The opposite corner of the box, inclusive
+   * @param predicate Predicate a block state must match, called from the search threads
+   * @return A new search
+   */
+  public static ParallelBlockSearch between(
+      WorldSnapshot snapshot, BlockPos from, BlockPos to, Predicate<BlockState> predicate) {
+    return new ParallelBlockSearch(
+        snapshot,
+        Math.min(from.getX(), to.getX()),
+        Math.min(from.getY(), to.getY()),
+        Math.min(from.getZ(), to.getZ()),
+        Math.max(from.getX(), to.getX()),
+        Math.max(from.getY(), to.getY()),
+        Math.max(from.getZ(), to.getZ()),
+        predicate);
+  }
+
+  /**
+   * Set the number of search threads. A running pool is resized straight away.
+   *
+   * @param threads The number of threads, at least 1
+   */
+  public static synchronized void setParallelism(int threads) {
+    parallelism = Math.max(1, threads);
+    if (pool != null) {
+      pool.setParallelism(parallelism);
+    }
+  }
+
+  /**
+   * Find a match, stopping the search as soon as one is found. Which match is found depends on the
+   * order the search threads get to the sections in.
+   *
+   * @return A matching position, or empty if there is none
+   * @throws CancellationException if the search was cancelled
+   */
+  public Optional<BlockPos> findAny() {
+    AnyMatcher matcher = new AnyMatcher();
+    run(matcher, sections);
+    return Optional.ofNullable(matcher.found.get());
+  }
+
+  /**
+   * Find the match nearest to a position. Sections are searched in order of distance, and sections
+   * that cannot hold a match nearer than the best one found so far are skipped.
+   *
+   * @param center The position to measure distance from
+   * @return The nearest matching position, or empty if there is none
+   * @throws CancellationException if the search was cancelled
+   */
+  public Optional<BlockPos> findNearest(BlockPos center) {
+    NearestMatcher matcher = new NearestMatcher(center);
+    long[] distances = new long[sections.length];
+    int[] order = new int[sections.length];
+    for (int i = 0; i < sections.length; i++) {
+      long section = sections[i];
+      distances[i] =
+          matcher.distance(
+              clamp(center.getX(), minX, maxX, SectionPos.x(section)),
+              clamp(center.getY(), minY, maxY, SectionPos.y(section)),
+              clamp(center.getZ(), minZ, maxZ, SectionPos.z(section)));
+      order[i] = i;
+    }
+    IntArrays.quickSort(order, (a, b) -> Long.compare(distances[a], distances[b]));
+    long[] nearestFirst = new long[sections.length];
+    for (int i = 0; i < order.length; i++) {
+      nearestFirst[i] = sections[order[i]];
+    }
+
+    run(matcher, nearestFirst);
+    Match nearest = matcher.nearest.get();
+    return nearest != null ? Optional.of(nearest.pos()) : Optional.empty();
+  }
+
+  /**
+   * Find every match.
+   *
+   * @return The matching positions, ordered by section and then by y, z and x within a section
+   * @throws CancellationException if the search was cancelled
+   */
+  public List<BlockPos> findAll() {
+    AllMatcher matcher = new AllMatcher(sections.length);
+    run(matcher, sections);
+    List<BlockPos> matches = new ArrayList<>();
+    for (List<BlockPos> sectionMatches : matcher.found) {
+      if (sectionMatches != null) {
+        matches.addAll(sectionMatches);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Get the number of block states read so far, by all find calls on this search.
+   *
+   * @return The number of blocks read
+   */
+  public long getBlocksRead() {
+    return blocksRead.get();
+  }
+
+  /**
+   * Get the number of sections skipped by the palette check or the distance bound without reading
+   * any of their blocks, by all find calls on this search.
+   *
+   * @return The number of skipped sections
+   */
+  public int getSectionsSkipped() {
+    return sectionsSkipped.get();
+  }
+
+  private void run(Matcher matcher, long[] order) {
+    cancellationToken.throwIfCancelled();
+    if (order.length > 0) {
+      pool().invoke(new ScanTask(matcher, order, 0, order.length));
+    }
+    cancellationToken.throwIfCancelled();
+  }
+
+  /** Whether the search can stop, because the matcher is done or the search was cancelled */
+  private boolean shouldStop(Matcher matcher) {
+    return matcher.isDone() || cancellationToken.isCancelled();
+  }
+
+  /** Read the blocks of one section that lie in the box, unless the matcher can skip them */
+  private void scanSection(long section, int index, Matcher matcher) {
+    int sectionX = SectionPos.x(section);
+    int sectionY = SectionPos.y(section);
+    int sectionZ = SectionPos.z(section);
+    int fromX = Math.max(minX, SectionPos.sectionToBlockCoord(sectionX));
+    int fromY = Math.max(minY, SectionPos.sectionToBlockCoord(sectionY));
+    int fromZ = Math.max(minZ, SectionPos.sectionToBlockCoord(sectionZ));
+    int toX = Math.min(maxX, SectionPos.sectionToBlockCoord(sectionX, 15));
+    int toY = Math.min(maxY, SectionPos.sectionToBlockCoord(sectionY, 15));
+    int toZ = Math.min(maxZ, SectionPos.sectionToBlockCoord(sectionZ, 15));
+
+    SectionSnapshot snapshotSection = snapshot.getSection(fromX, fromY, fromZ);
+    if (snapshotSection == null
+        || !snapshotSection.maybeHas(predicate)
+        || !matcher.wants(fromX, fromY, fromZ, toX, toY, toZ)) {
+      sectionsSkipped.incrementAndGet();
+      return;
+    }
+
+    int read = 0;
+    // Walk in storage order, y then z then x, and check for cancellation once per layer
+    for (int y = fromY; y <= toY && !shouldStop(matcher); y++) {
+      for (int z = fromZ; z <= toZ; z++) {
+        for (int x = fromX; x <= toX; x++) {
+          read++;
+          if (predicate.test(snapshotSection.getBlockState(x, y, z))) {
+            matcher.match(index, x, y, z);
+          }
+        }
+      }
+    }
+    blocksRead.addAndGet(read);
+  }
+
+  /** Clamp a coordinate to the part of the box that lies in a section */
+  private static int clamp(int value, int min, int max, int section) {
+    int from = Math.max(min, SectionPos.sectionToBlockCoord(section));
+    int to = Math.min(max, SectionPos.sectionToBlockCoord(section, 15));
+    return Math.clamp(value, from, to);
+  }
+
+  private static synchronized ForkJoinPool pool() {
+    if (pool == null) {
+      AtomicInteger count = new AtomicInteger();
+      pool =
+          new ForkJoinPool(
+              parallelism,
+              forkJoinPool -> {
+                ForkJoinWorkerThread thread =
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("DroneCraft Search #" + count.incrementAndGet());
+                return thread;
+              },
+              null,
+              false);
+    }
+    return pool;
+  }
+
+  /** Scans a range of sections, splitting it in halves for other search threads to steal */
+  private final class ScanTask extends RecursiveAction {
+    private final Matcher matcher;
+    private final long[] order;
+    private final int from;
+    private final int to;
+
+    ScanTask(Matcher matcher, long[] order, int from, int to) {
+      this.matcher = matcher;
+      this.order = order;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > SECTIONS_PER_TASK) {
+        int middle = (from + to) >>> 1;
+        invokeAll(
+            new ScanTask(matcher, order, from, middle), new ScanTask(matcher, order, middle, to));
+        return;
+      }
+      for (int i = from; i < to && !shouldStop(matcher); i++) {
+        scanSection(order[i], i, matcher);
+      }
+    }
+  }
+
+  /** Collects the matches of one find call, called concurrently from the search threads */
+  private interface Matcher {
+    /** Whether the search can stop */
+    default boolean isDone() {
+      return false;
+    }
+
+    /** Whether a section with these block bounds is worth reading */
+    default boolean wants(int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+      return true;
+    }
+
+    /** Record a matching block of the section at an index of the scanned order */
+    void match(int index, int x, int y, int z);
+  }
+
+  private static final class AnyMatcher implements Matcher {
+    private final AtomicReference<BlockPos> found = new AtomicReference<>();
+
+    @Override
+    public boolean isDone() {
+      return found.get() != null;
+    }
+
+    @Override
+    public void match(int index, int x, int y, int z) {
+      found.compareAndSet(null, new BlockPos(x, y, z));
+    }
+  }
+
+  private static final class NearestMatcher implements Matcher {
+    private final int centerX;
+    private final int centerY;
+    private final int centerZ;
+    private final AtomicReference<Match> nearest = new AtomicReference<>();
+
+    NearestMatcher(BlockPos center) {
+      this.centerX = center.getX();
+      this.centerY = center.getY();
+      this.centerZ = center.getZ();
+    }
+
+    /** Squared distance of a block from the centre */
+    long distance(int x, int y, int z) {
+      long dx = x - centerX;
+      long dy = y - centerY;
+      long dz = z - centerZ;
+      return dx * dx + dy * dy + dz * dz;
+    }
+
+    @Override
+    public boolean wants(int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+      Match best = nearest.get();
+      return best == null
+          || distance(
+                  Math.clamp(centerX, fromX, toX),
+                  Math.clamp(centerY, fromY, toY),
+                  Math.clamp(centerZ, fromZ, toZ))
+              <= best.distance();
+    }
+
+    @Override
+    public void match(int index, int x, int y, int z) {
+      long distance = distance(x, y, z);
+      Match best = nearest.get();
+      if (best != null && distance > best.distance()) {
+        return;
+      }
+      nearest.accumulateAndGet(
+          new Match(new BlockPos(x, y, z), distance), NearestMatcher::nearer);
+    }
+
+    /** Pick the nearer of two matches, breaking ties by position so the result is repeatable */
+    private static Match nearer(@Nullable Match current, Match candidate) {
+      if (current == null || candidate.distance() < current.distance()) {
+        return candidate;
+      }
+      if (candidate.distance() == current.distance()
+          && candidate.pos().compareTo(current.pos()) < 0) {
+        return candidate;
+      }
+      return current;
+    }
+  }
+
+  private static final class AllMatcher implements Matcher {
+    /** Matches of each section, each only written by the thread scanning that section */
+    private final List<BlockPos>[] found;
+
+    @SuppressWarnings("unchecked")
+    AllMatcher(int sections) {
+      this.found = new List[sections];
+    }
+
+    @Override
+    public void match(int index, int x, int y, int z) {
+      if (found[index] == null) {
+        found[index] = new ArrayList<>();
+      }
+      found[index].add(new BlockPos(x, y, z));
+    }
+  }
+
+  private record Match(BlockPos pos, long distance) {}
+}
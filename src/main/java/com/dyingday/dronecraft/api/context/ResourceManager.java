@@ -51,6 +51,18 @@ class ResourceManager {
     blocksModified += count;
   }
 
+  public int getItemsMoved() {
+    return itemsMoved;
+  }
+
+  public int getBlocksModified() {
+    return blocksModified;
+  }
+
+  public int getEnergyConsumed() {
+    return energyConsumed;
+  }
+
   public void reset() {
     itemsMoved = 0;
     blocksModified = 0;
@@ -0,0 +1,232 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.context;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+/**
+ * Immutable copy of the blocks of one 16x16x16 chunk section, which can be read from any thread.
+ * Blocks are stored the way a {@link PalettedContainer} stores them, as an index into a palette of
+ * the states that occur in the section: one byte per block, or two for sections with more than 256
+ * different states, and no per-block data at all for sections made of a single state.
+ *
+ * <p>Snapshots are reference counted so one capture can be shared by every {@link WorldSnapshot}
+ * that covers the section. A snapshot starts with one reference, owned by whoever captured it;
+ * once the last reference is released the block data is dropped and the snapshot must not be read
+ * any more.
+ */
+@ApiStatus.Experimental
+public final class SectionSnapshot {
+  /** Blocks in a section */
+  private static final int SIZE = LevelChunkSection.SECTION_SIZE;
+
+  /** The states occurring in the section, or null once released */
+  private BlockState[] palette;
+
+  /** Palette index of each block, or null if the palette is not small enough or has one state */
+  private byte[] byteIndices;
+
+  /** Palette index of each block for palettes of more than 256 states, or null */
+  private short[] shortIndices;
+
+  /** Number of holders of this snapshot */
+  private final AtomicInteger references = new AtomicInteger(1);
+
+  private SectionSnapshot(BlockState[] palette, byte[] byteIndices, short[] shortIndices) {
+    this.palette = palette;
+    this.byteIndices = byteIndices;
+    this.shortIndices = shortIndices;
+  }
+
+  /**
+   * Create a snapshot of a section made of a single state, such as an empty section.
+   *
+   * @param state The state of every block
+   * @return The snapshot, holding one reference
+   */
+  public static SectionSnapshot uniform(BlockState state) {
+    return new SectionSnapshot(new BlockState[] {state}, null, null);
+  }
+
+  /**
+   * Copy the blocks of a loaded chunk section. Must be called on the server thread.
+   *
+   * @param section The section
+   * @return The snapshot, holding one reference
+   */
+  public static SectionSnapshot capture(LevelChunkSection section) {
+    PalettedContainer<BlockState> states = section.getStates();
+    return capture(states::get);
+  }
+
+  /**
+   * Copy the blocks of a section through a reader. Must be called on the thread that may read the
+   * section.
+   *
+   * @param reader Reads the state at local coordinates from 0 to 15
+   * @return The snapshot, holding one reference
+   */
+  public static SectionSnapshot capture(Reader reader) {
+    Reference2IntOpenHashMap<BlockState> ids = new Reference2IntOpenHashMap<>();
+    ids.defaultReturnValue(-1);
+    BlockState[] palette = new BlockState[16];
+    short[] indices = new short[SIZE];
+    BlockState last = null;
+    int lastId = -1;
+    int size = 0;
+    for (int i = 0; i < SIZE; i++) {
+      BlockState state = reader.get(i & 15, i >> 8, (i >> 4) & 15);
+      if (state != last) {
+        // Runs of the same state are common, only look up the palette when the state changes
+        lastId = ids.getInt(state);
+        if (lastId < 0) {
+          lastId = size++;
+          ids.put(state, lastId);
+          if (lastId == palette.length) {
+            palette = Arrays.copyOf(palette, palette.length * 2);
+          }
+          palette[lastId] = state;
+        }
+        last = state;
+      }
+      indices[i] = (short) lastId;
+    }
+
+    palette = Arrays.copyOf(palette, size);
+    if (size == 1) {
+      return new SectionSnapshot(palette, null, null);
+    }
+    if (size > 256) {
+      return new SectionSnapshot(palette, null, indices);
+    }
+    byte[] bytes = new byte[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      bytes[i] = (byte) indices[i];
+    }
+    return new SectionSnapshot(palette, bytes, null);
+  }
+
+  /**
+   * Get the state of a block.
+   *
+   * @param x Local x coordinate, only the lowest 4 bits are used
+   * @param y Local y coordinate, only the lowest 4 bits are used
+   * @param z Local z coordinate, only the lowest 4 bits are used
+   * @return The block state
+   * @throws IllegalStateException if every reference has been released
+   */
+  public BlockState getBlockState(int x, int y, int z) {
+    int index = ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    if (byteIndices != null) {
+      return palette[byteIndices[index] & 0xFF];
+    }
+    if (shortIndices != null) {
+      return palette[shortIndices[index]];
+    }
+    if (palette == null) {
+      throw new IllegalStateException("Section snapshot was released");
+    }
+    return palette[0];
+  }
+
+  /**
+   * Get the different states in the section.
+   *
+   * @return The palette size, 0 once released
+   */
+  public int getPaletteSize() {
+    BlockState[] states = palette;
+    return states == null ? 0 : states.length;
+  }
+
+  /**
+   * Check if the section contains a state.
+   *
+   * @param state The state
+   * @return True if some block in the section has the state
+   */
+  public boolean contains(BlockState state) {
+    BlockState[] states = palette;
+    if (states == null) {
+      return false;
+    }
+    for (BlockState entry : states) {
+      if (entry == state) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Check if the section may contain a state matching a predicate, by testing its palette only.
+   *
+   * @param predicate The predicate
+   * @return True if some state in the palette matches, false if no block in the section can
+   */
+  public boolean maybeHas(Predicate<BlockState> predicate) {
+    BlockState[] states = palette;
+    if (states == null) {
+      return false;
+    }
+    for (BlockState entry : states) {
+      if (predicate.test(entry)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get the number of holders of this snapshot.
+   *
+   * @return The reference count, 0 once released
+   */
+  public int getReferenceCount() {
+    return references.get();
+  }
+
+  /**
+   * Add a reference to this snapshot. Safe to call from any thread.
+   *
+   * @throws IllegalStateException if every reference has been released already
+   */
+  public void retain() {
+    if (references.getAndUpdate(count -> count > 0 ? count + 1 : 0) <= 0) {
+      throw new IllegalStateException("Section snapshot was released");
+    }
+  }
+
+  /** Release a reference to this snapshot, dropping its block data with the last one */
+  public void release() {
+    int remaining = references.decrementAndGet();
+    if (remaining == 0) {
+      palette = null;
+      byteIndices = null;
+      shortIndices = null;
+    } else if (remaining < 0) {
+      references.set(0);
+      throw new IllegalStateException("Section snapshot released more often than retained");
+    }
+  }
+
+  /** Reads the blocks of a section being captured */
+  @FunctionalInterface
+  public interface Reader {
+    /**
+     * Read a block.
+     *
+     * @param x Local x coordinate from 0 to 15
+     * @param y Local y coordinate from 0 to 15
+     * @param z Local z coordinate from 0 to 15
+     * @return The block state
+     */
+    BlockState get(int x, int y, int z);
+  }
+}
@@ -0,0 +1,181 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.context;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.neoforged.neoforge.event.level.BlockEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Shares {@link SectionSnapshot}s between everything that snapshots a world within one game tick.
+ * The first {@link WorldSnapshot} covering a section captures it, and every later one in the same
+ * tick takes another reference to the same copy, so executors scanning overlapping areas copy each
+ * section once. The cache holds a reference to each section until the tick ends or a block in the
+ * section changes, whichever comes first.
+ *
+ * <p>Thread-safety: The cache must only be accessed from the server thread. The snapshots it hands
+ * out can be read from any thread.
+ */
+@ApiStatus.Experimental
+public final class SnapshotCache {
+  /** Cache of each loaded level */
+  private static final Map<Level, SnapshotCache> CACHES = new IdentityHashMap<>();
+
+  /** The world sections are captured from */
+  private final IWorldAccess world;
+
+  /** Sections captured this tick, null for sections that could not be captured */
+  private final Long2ObjectOpenHashMap<SectionSnapshot> sections = new Long2ObjectOpenHashMap<>();
+
+  /** Game time the cached sections were captured at */
+  private long tick = Long.MIN_VALUE;
+
+  /** Number of sections captured */
+  private long captures = 0;
+
+  /** Number of sections served from the cache */
+  private long hits = 0;
+
+  /**
+   * Create a cache for a world. Levels share one cache each, see {@link #get(Level)}.
+   *
+   * @param world The world to capture sections from
+   */
+  public SnapshotCache(IWorldAccess world) {
+    this.world = world;
+  }
+
+  /**
+   * Get the cache of a level, creating it if needed.
+   *
+   * @param level The level
+   * @return The level's cache
+   */
+  public static SnapshotCache get(Level level) {
+    return CACHES.computeIfAbsent(level, key -> new SnapshotCache(new LevelWorldAccess(key)));
+  }
+
+  /**
+   * Drop the cached section of a changed block.
+   *
+   * @param event The neighbor notification fired after a block changed
+   */
+  public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+    if (event.getLevel() instanceof Level level) {
+      SnapshotCache cache = CACHES.get(level);
+      if (cache != null) {
+        cache.invalidate(event.getPos());
+      }
+    }
+  }
+
+  /**
+   * Release the sections a level captured this tick, so their copies do not outlive the tick. Runs
+   * after the level's drones have ticked.
+   *
+   * @param event The level tick event
+   */
+  public static void onLevelTick(LevelTickEvent.Post event) {
+    SnapshotCache cache = CACHES.get(event.getLevel());
+    if (cache != null && !cache.sections.isEmpty()) {
+      cache.clear();
+    }
+  }
+
+  /**
+   * Drop the cache of a level when it unloads.
+   *
+   * @param event The level unload event
+   */
+  public static void onLevelUnload(LevelEvent.Unload event) {
+    SnapshotCache cache = CACHES.remove(event.getLevel());
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+
+  /**
+   * Get a reference to the snapshot of a section, capturing it if it was not captured this tick.
+   * The caller owns the reference and must release it. Caches not cleared by {@link
+   * #onLevelTick(LevelTickEvent.Post)} drop the previous tick's sections here instead.
+   *
+   * @param sectionX Section x coordinate
+   * @param sectionY Section y coordinate
+   * @param sectionZ Section z coordinate
+   * @return The snapshot, or null if the section is not loaded or outside the world
+   */
+  @Nullable public SectionSnapshot acquire(int sectionX, int sectionY, int sectionZ) {
+    long now = world.getGameTime();
+    if (now != tick) {
+      clear();
+      tick = now;
+    }
+
+    long key = SectionPos.asLong(sectionX, sectionY, sectionZ);
+    SectionSnapshot section = sections.get(key);
+    if (section == null && !sections.containsKey(key)) {
+      section = world.captureSection(sectionX, sectionY, sectionZ);
+      sections.put(key, section);
+      captures++;
+    } else {
+      hits++;
+    }
+    if (section != null) {
+      section.retain();
+    }
+    return section;
+  }
+
+  /**
+   * Drop the cached section containing a block, so the next snapshot sees the block's new state.
+   * Snapshots taken already keep the old copy.
+   *
+   * @param pos The changed block
+   */
+  public void invalidate(BlockPos pos) {
+    SectionSnapshot section =
+        sections.remove(
+            SectionPos.asLong(
+                SectionPos.blockToSectionCoord(pos.getX()),
+                SectionPos.blockToSectionCoord(pos.getY()),
+                SectionPos.blockToSectionCoord(pos.getZ())));
+    if (section != null) {
+      section.release();
+    }
+  }
+
+  /** Release every cached section */
+  public void clear() {
+    for (SectionSnapshot section : sections.values()) {
+      if (section != null) {
+        section.release();
+      }
+    }
+    sections.clear();
+  }
+
+  /**
+   * Get the number of sections captured by this cache.
+   *
+   * @return The capture count
+   */
+  public long getCaptureCount() {
+    return captures;
+  }
+
+  /**
+   * Get the number of sections handed out without capturing them again.
+   *
+   * @return The hit count
+   */
+  public long getHitCount() {
+    return hits;
+  }
+}
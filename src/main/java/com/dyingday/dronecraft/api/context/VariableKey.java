@@ -0,0 +1,141 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.context;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Typed handle to a context variable. Keys should be created once, usually as a {@code static
+ * final} constant of the action that uses them, and declared through {@link
+ * com.dyingday.dronecraft.api.behavior.action.IAction#getVariableKeys()} so a {@link
+ * com.dyingday.dronecraft.api.behavior.Behavior} can give each of them a slot in its {@link
+ * VariableLayout} when it is built. Reading or writing a variable through a key is then an array
+ * access, without hashing the name or allocating.
+ *
+ * <p>Every variable name is interned to a numeric id. Keys with the same name refer to the same
+ * variable, also when their types differ, and the string variable methods of {@link
+ * ActionContext} see the same values as the keys. A value that is not an instance of a key's type
+ * reads as absent through that key.
+ */
+@ApiStatus.Experimental
+public final class VariableKey<T> {
+  /** Numeric id of every interned variable name */
+  private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+
+  /** Interned variable names, indexed by numeric id */
+  private static final List<String> NAMES = new ArrayList<>();
+
+  /** The variable name */
+  private final String name;
+
+  /** Type of the variable's values */
+  private final Class<T> type;
+
+  /** Numeric id of the variable name */
+  private final int id;
+
+  private VariableKey(String name, Class<T> type, int id) {
+    this.name = name;
+    this.type = type;
+    this.id = id;
+  }
+
+  /**
+   * Create a key for a variable.
+   *
+   * @param <T> The type of the variable's values
+   * @param name The variable name
+   * @param type The class of the variable's values
+   * @return A key for the variable
+   */
+  public static <T> VariableKey<T> of(String name, Class<T> type) {
+    return new VariableKey<>(name, type, idOf(name));
+  }
+
+  /**
+   * Get the numeric id of a variable name, interning the name if it has not been seen before.
+   *
+   * @param name The variable name
+   * @return The id of the name
+   */
+  static int idOf(String name) {
+    Integer id = IDS.get(name);
+    return id != null ? id : intern(name);
+  }
+
+  /**
+   * Get the numeric id of a variable name without interning it.
+   *
+   * @param name The variable name
+   * @return The id of the name, or -1 if it has never been interned
+   */
+  static int findId(String name) {
+    Integer id = IDS.get(name);
+    return id != null ? id : -1;
+  }
+
+  /**
+   * Get the variable name interned with an id.
+   *
+   * @param id The numeric id
+   * @return The variable name
+   */
+  static synchronized String nameOf(int id) {
+    return NAMES.get(id);
+  }
+
+  private static synchronized int intern(String name) {
+    Integer id = IDS.get(name);
+    if (id == null) {
+      id = NAMES.size();
+      NAMES.add(name);
+      IDS.put(name, id);
+    }
+    return id;
+  }
+
+  /**
+   * Get the variable name.
+   *
+   * @return The name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Get the type of the variable's values.
+   *
+   * @return The value class
+   */
+  public Class<T> getType() {
+    return type;
+  }
+
+  /**
+   * Get the numeric id of the variable name.
+   *
+   * @return The id, shared by every key with the same name
+   */
+  int getId() {
+    return id;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof VariableKey<?> other && other.id == id && other.type == type;
+  }
+
+  @Override
+  public int hashCode() {
+    return id * 31 + type.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return name + " (" + type.getSimpleName() + ")";
+  }
+}
@@ -0,0 +1,82 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.context;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Assigns the variables of a behavior to slots of the flat frame an {@link ActionContext} stores
+ * variable values in. A layout is built from the keys the behavior's actions declare, so those
+ * variables get the first slots; variables that were not declared, including ones only used
+ * through the string variable methods, are given slots after those by each context that uses them.
+ *
+ * <p>Layouts are immutable, so one layout is shared by every executor running its behavior.
+ *
+ * <p>Thread-safety: Layouts are safe to read from any thread.
+ */
+@ApiStatus.Experimental
+public final class VariableLayout {
+  /** Layout without any declared variables */
+  public static final VariableLayout EMPTY = new VariableLayout(List.of());
+
+  /** Slot of each variable, indexed by the numeric id of its name, or -1 if it has no slot */
+  private final int[] slotsById;
+
+  /** Numeric id of the variable in each slot */
+  private final int[] idsBySlot;
+
+  /**
+   * Create a layout with slots for a set of variables.
+   *
+   * @param keys The variables to assign slots to, in slot order
+   */
+  public VariableLayout(Collection<? extends VariableKey<?>> keys) {
+    int maxId = -1;
+    for (VariableKey<?> key : keys) {
+      maxId = Math.max(maxId, key.getId());
+    }
+    int[] slots = new int[maxId + 1];
+    int[] ids = new int[keys.size()];
+    Arrays.fill(slots, -1);
+    int size = 0;
+    for (VariableKey<?> key : keys) {
+      if (slots[key.getId()] < 0) {
+        slots[key.getId()] = size;
+        ids[size++] = key.getId();
+      }
+    }
+    slotsById = slots;
+    idsBySlot = Arrays.copyOf(ids, size);
+  }
+
+  /**
+   * Get the number of slots assigned, which is the frame size needed to hold every variable.
+   *
+   * @return The number of slots
+   */
+  public int size() {
+    return idsBySlot.length;
+  }
+
+  /**
+   * Get the slot of a declared variable.
+   *
+   * @param id Numeric id of the variable name
+   * @return The slot index, or -1 if the variable has no slot
+   */
+  int findSlot(int id) {
+    return id < slotsById.length ? slotsById[id] : -1;
+  }
+
+  /**
+   * Get the variable held in a slot.
+   *
+   * @param slot The slot index
+   * @return Numeric id of the variable name
+   */
+  int idAt(int slot) {
+    return idsBySlot[slot];
+  }
+}
@@ -0,0 +1,156 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.context;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable copy of the blocks in a box of chunk sections, for work that runs off the server
+ * thread, such as the computation of an {@link
+ * com.dyingday.dronecraft.api.behavior.async.IAsyncAction}. Snapshots are captured on the server
+ * thread, see {@link ActionContext#snapshotRegion(BlockPos, BlockPos)}, and can then be read from
+ * any thread.
+ *
+ * <p>The sections are shared through the world's {@link SnapshotCache}, so every snapshot taken in
+ * the same tick sees the same copy of a section. A snapshot holds a reference to each of its
+ * sections until it is closed; close it once the work reading it is done, from any thread, and do
+ * not read it after that.
+ *
+ * <p>A snapshot shows the world as it was when its sections were captured. Work planned on it
+ * must check the live world again before changing it.
+ */
+@ApiStatus.Experimental
+public final class WorldSnapshot implements AutoCloseable {
+  private final int minSectionX;
+  private final int minSectionY;
+  private final int minSectionZ;
+  private final int sizeX;
+  private final int sizeY;
+  private final int sizeZ;
+
+  /** Sections ordered by x, then z, then y; null where the world was not loaded */
+  private final SectionSnapshot[] sections;
+
+  /** Whether the section references have been released */
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  private WorldSnapshot(
+      int minSectionX,
+      int minSectionY,
+      int minSectionZ,
+      int sizeX,
+      int sizeY,
+      int sizeZ,
+      SectionSnapshot[] sections) {
+    this.minSectionX = minSectionX;
+    this.minSectionY = minSectionY;
+    this.minSectionZ = minSectionZ;
+    this.sizeX = sizeX;
+    this.sizeY = sizeY;
+    this.sizeZ = sizeZ;
+    this.sections = sections;
+  }
+
+  /**
+   * Capture the sections covering a box. Must be called on the server thread.
+   *
+   * @param cache The cache of the world to capture
+   * @param from One corner of the box, inclusive
+   * @param to The opposite corner of the box, inclusive
+   * @return The snapshot, which the caller must close
+   */
+  public static WorldSnapshot capture(SnapshotCache cache, BlockPos from, BlockPos to) {
+    int minX = SectionPos.blockToSectionCoord(Math.min(from.getX(), to.getX()));
+    int minY = SectionPos.blockToSectionCoord(Math.min(from.getY(), to.getY()));
+    int minZ = SectionPos.blockToSectionCoord(Math.min(from.getZ(), to.getZ()));
+    int sizeX = SectionPos.blockToSectionCoord(Math.max(from.getX(), to.getX())) - minX + 1;
+    int sizeY = SectionPos.blockToSectionCoord(Math.max(from.getY(), to.getY())) - minY + 1;
+    int sizeZ = SectionPos.blockToSectionCoord(Math.max(from.getZ(), to.getZ())) - minZ + 1;
+
+    SectionSnapshot[] sections = new SectionSnapshot[sizeX * sizeY * sizeZ];
+    int i = 0;
+    for (int x = 0; x < sizeX; x++) {
+      for (int z = 0; z < sizeZ; z++) {
+        for (int y = 0; y < sizeY; y++) {
+          sections[i++] = cache.acquire(minX + x, minY + y, minZ + z);
+        }
+      }
+    }
+    return new WorldSnapshot(minX, minY, minZ, sizeX, sizeY, sizeZ, sections);
+  }
+
+  /**
+   * Get the state of a block.
+   *
+   * @param x Block x coordinate
+   * @param y Block y coordinate
+   * @param z Block z coordinate
+   * @return The block state, or void air if the block is outside the snapshot or was not loaded
+   */
+  public BlockState getBlockState(int x, int y, int z) {
+    SectionSnapshot section = getSection(x, y, z);
+    return section != null ? section.getBlockState(x, y, z) : Blocks.VOID_AIR.defaultBlockState();
+  }
+
+  /**
+   * Get the state of a block.
+   *
+   * @param pos The block position
+   * @return The block state, or void air if the block is outside the snapshot or was not loaded
+   */
+  public BlockState getBlockState(BlockPos pos) {
+    return getBlockState(pos.getX(), pos.getY(), pos.getZ());
+  }
+
+  /**
+   * Check if a block was captured.
+   *
+   * @param x Block x coordinate
+   * @param y Block y coordinate
+   * @param z Block z coordinate
+   * @return True if the block is inside the snapshot and was loaded when it was captured
+   */
+  public boolean isLoaded(int x, int y, int z) {
+    return getSection(x, y, z) != null;
+  }
+
+  /**
+   * Get the snapshot of the section containing a block.
+   *
+   * @param x Block x coordinate
+   * @param y Block y coordinate
+   * @param z Block z coordinate
+   * @return The section, or null if it is outside the snapshot or was not loaded
+   */
+  @Nullable public SectionSnapshot getSection(int x, int y, int z) {
+    int sectionX = SectionPos.blockToSectionCoord(x) - minSectionX;
+    int sectionY = SectionPos.blockToSectionCoord(y) - minSectionY;
+    int sectionZ = SectionPos.blockToSectionCoord(z) - minSectionZ;
+    if (sectionX < 0
+        || sectionY < 0
+        || sectionZ < 0
+        || sectionX >= sizeX
+        || sectionY >= sizeY
+        || sectionZ >= sizeZ) {
+      return null;
+    }
+    return sections[(sectionX * sizeZ + sectionZ) * sizeY + sectionY];
+  }
+
+  /** Release the sections of this snapshot. Closing it again has no effect */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      for (SectionSnapshot section : sections) {
+        if (section != null) {
+          section.release();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.profiling;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder event emitted around every action execution by a {@link
+ * com.dyingday.dronecraft.api.behavior.BehaviorExecutor}. Events are only committed while a
+ * recording has this event enabled, and by default only for executions slower than the threshold,
+ * so a server can be profiled on demand with {@code jcmd <pid> JFR.start} without a restart. Lower
+ * the threshold in the recording settings ({@code dronecraft.ActionExecute#threshold=0 ms}) to
+ * record every execution.
+ *
+ * <p>The resource fields hold what the action consumed from its executor's per-tick budgets during
+ * this execution.
+ */
+@ApiStatus.Internal
+@Name("dronecraft.ActionExecute")
+@Label("Action Execute")
+@Description("Execution of a single DroneCraft behavior action")
+@Category({"DroneCraft", "Behavior"})
+@Threshold("1 ms")
+@StackTrace(false)
+public final class ActionExecuteEvent extends jdk.jfr.Event {
+  @Label("Executor Type")
+  public String executorType;
+
+  @Label("Behavior")
+  public String behaviorId;
+
+  @Label("Action Index")
+  public int actionIndex;
+
+  @Label("Action")
+  public String actionId;
+
+  @Label("Action Class")
+  public Class<?> actionClass;
+
+  @Label("Result")
+  public String result;
+
+  @Label("Blocks Modified")
+  public int blocksModified;
+
+  @Label("Items Moved")
+  public int itemsMoved;
+
+  @Label("Energy Consumed")
+  public int energyConsumed;
+}
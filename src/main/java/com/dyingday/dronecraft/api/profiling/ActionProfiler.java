@@ -0,0 +1,166 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.profiling;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import com.dyingday.dronecraft.api.registry.ActionRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import net.minecraft.resources.Identifier;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+/**
+ * Server-wide timing of action executions. While enabled, every {@link
+ * com.dyingday.dronecraft.api.behavior.BehaviorExecutor} times each action it executes and records
+ * the duration here, in one {@link LatencyHistogram} per action id aggregated across all executors
+ * and levels. The report gives the median, p99 and maximum duration of each action along with how
+ * often it runs per tick, which shows which actions are worth optimising.
+ *
+ * <p>When disabled, the only cost to executors is reading one static field per action execution.
+ *
+ * <p>Thread-safety: The profiler must only be accessed from the server thread.
+ */
+@ApiStatus.Experimental
+public final class ActionProfiler {
+  /** Whether action executions are being timed */
+  private static boolean enabled = false;
+
+  /** Latency histogram of each action, indexed by numeric action id */
+  private static LatencyHistogram[] histograms = new LatencyHistogram[16];
+
+  /** Number of executions of each action in the current tick, indexed by numeric action id */
+  private static long[] callsThisTick = new long[16];
+
+  /** Most executions of each action in a single tick, indexed by numeric action id */
+  private static long[] maxCallsPerTick = new long[16];
+
+  /** Number of server ticks profiled */
+  private static long ticks = 0;
+
+  private ActionProfiler() {}
+
+  /**
+   * Check if action executions are being timed.
+   *
+   * @return True if profiling is enabled
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Turn timing of action executions on or off. Recorded data is kept until {@link #reset()}.
+   *
+   * @param enabled True to start profiling, false to stop
+   */
+  public static void setEnabled(boolean enabled) {
+    ActionProfiler.enabled = enabled;
+  }
+
+  /**
+   * Record one execution of an action.
+   *
+   * @param actionId Numeric id of the action, see {@link ActionRegistry#getNumericId(Identifier)}
+   * @param nanos Time the execution took in nanoseconds
+   */
+  public static void record(int actionId, long nanos) {
+    if (actionId >= histograms.length) {
+      int length = Math.max(actionId + 1, histograms.length * 2);
+      histograms = Arrays.copyOf(histograms, length);
+      callsThisTick = Arrays.copyOf(callsThisTick, length);
+      maxCallsPerTick = Arrays.copyOf(maxCallsPerTick, length);
+    }
+    if (histograms[actionId] == null) {
+      histograms[actionId] = new LatencyHistogram();
+    }
+    histograms[actionId].record(nanos);
+    callsThisTick[actionId]++;
+  }
+
+  /**
+   * Close the per-tick call counts at the end of each server tick.
+   *
+   * @param event The server tick event
+   */
+  public static void onServerTick(ServerTickEvent.Post event) {
+    if (!enabled) {
+      return;
+    }
+    ticks++;
+    for (int i = 0; i < callsThisTick.length; i++) {
+      maxCallsPerTick[i] = Math.max(maxCallsPerTick[i], callsThisTick[i]);
+      callsThisTick[i] = 0;
+    }
+  }
+
+  /** Forget all recorded timings */
+  public static void reset() {
+    for (LatencyHistogram histogram : histograms) {
+      if (histogram != null) {
+        histogram.clear();
+      }
+    }
+    Arrays.fill(callsThisTick, 0);
+    Arrays.fill(maxCallsPerTick, 0);
+    ticks = 0;
+  }
+
+  /**
+   * Get the number of server ticks profiled since the last reset.
+   *
+   * @return The number of ticks
+   */
+  public static long getTicks() {
+    return ticks;
+  }
+
+  /**
+   * Summarise the recorded timings of every action that has executed.
+   *
+   * @return One entry per action, most total time first
+   */
+  public static List<ActionTiming> getReport() {
+    List<ActionTiming> report = new ArrayList<>();
+    for (int actionId = 0; actionId < histograms.length; actionId++) {
+      LatencyHistogram histogram = histograms[actionId];
+      if (histogram == null || histogram.getCount() == 0) {
+        continue;
+      }
+      report.add(
+          new ActionTiming(
+              ActionRegistry.getIdByNumericId(actionId),
+              histogram.getCount(),
+              ticks == 0 ? histogram.getCount() : (double) histogram.getCount() / ticks,
+              Math.max(maxCallsPerTick[actionId], callsThisTick[actionId]),
+              histogram.getPercentile(0.5),
+              histogram.getPercentile(0.99),
+              histogram.getMax(),
+              histogram.getSum()));
+    }
+    report.sort(Comparator.comparingLong(ActionTiming::totalNanos).reversed());
+    return report;
+  }
+
+  /**
+   * Recorded timings of one action.
+   *
+   * @param actionId The action identifier
+   * @param calls Number of executions recorded
+   * @param callsPerTick Average number of executions per profiled tick
+   * @param maxCallsPerTick Most executions in a single tick
+   * @param p50Nanos Median execution time in nanoseconds
+   * @param p99Nanos 99th percentile execution time in nanoseconds
+   * @param maxNanos Longest execution time in nanoseconds
+   * @param totalNanos Total execution time in nanoseconds
+   */
+  public record ActionTiming(
+      Identifier actionId,
+      long calls,
+      double callsPerTick,
+      long maxCallsPerTick,
+      long p50Nanos,
+      long p99Nanos,
+      long maxNanos,
+      long totalNanos) {}
+}
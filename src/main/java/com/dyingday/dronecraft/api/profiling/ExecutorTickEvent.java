@@ -0,0 +1,38 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.profiling;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder event emitted for every tick of a running {@link
+ * com.dyingday.dronecraft.api.behavior.BehaviorExecutor}, covering the action execution and the
+ * handling of its result. Like {@link ActionExecuteEvent} it is only committed while a recording
+ * has it enabled, and by default only for ticks slower than the threshold.
+ */
+@ApiStatus.Internal
+@Name("dronecraft.ExecutorTick")
+@Label("Executor Tick")
+@Description("One tick of a DroneCraft behavior executor")
+@Category({"DroneCraft", "Behavior"})
+@Threshold("1 ms")
+@StackTrace(false)
+public final class ExecutorTickEvent extends jdk.jfr.Event {
+  @Label("Executor Type")
+  public String executorType;
+
+  @Label("Behavior")
+  public String behaviorId;
+
+  @Label("Action Index")
+  public int actionIndex;
+
+  @Label("State")
+  @Description("Executor state after the tick")
+  public String state;
+}
@@ -0,0 +1,127 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.api.profiling;
+
+import com.dyingday.dronecraft.api.annotations.ApiStatus;
+import java.util.Arrays;
+
+/**
+ * Fixed-size log-linear histogram of durations in nanoseconds. Every power of two is split into
+ * eight equally sized buckets, so any recorded value is reported to within 12.5% while the whole
+ * range of a long fits in under 500 buckets. Recording is a few bit operations and an array
+ * increment, and never allocates.
+ *
+ * <p>Thread-safety: Histograms are not thread-safe.
+ */
+@ApiStatus.Experimental
+public final class LatencyHistogram {
+  /** Number of bits of each value used to pick the linear bucket within its power of two */
+  private static final int SUB_BUCKET_BITS = 3;
+
+  /** Number of linear buckets per power of two */
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /** Total number of buckets, enough for every non-negative long */
+  private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  /** Number of values recorded in each bucket */
+  private final long[] counts = new long[BUCKETS];
+
+  /** Number of values recorded */
+  private long count = 0;
+
+  /** Sum of all values recorded */
+  private long sum = 0;
+
+  /** Largest value recorded */
+  private long max = 0;
+
+  /**
+   * Record a duration.
+   *
+   * @param nanos The duration in nanoseconds, negative values are recorded as 0
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    counts[bucketOf(value)]++;
+    count++;
+    sum += value;
+    max = Math.max(max, value);
+  }
+
+  /**
+   * Get an upper bound of the duration below which a fraction of the recorded values fall.
+   *
+   * @param percentile The fraction, from 0 to 1 (0.5 for the median, 0.99 for p99)
+   * @return The duration in nanoseconds, or 0 if nothing has been recorded
+   */
+  public long getPercentile(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile * count));
+    long seen = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      seen += counts[bucket];
+      if (seen >= rank) {
+        return Math.min(upperBoundOf(bucket), max);
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Get the number of values recorded.
+   *
+   * @return The count
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Get the sum of all values recorded.
+   *
+   * @return The total in nanoseconds
+   */
+  public long getSum() {
+    return sum;
+  }
+
+  /**
+   * Get the largest value recorded.
+   *
+   * @return The maximum in nanoseconds, or 0 if nothing has been recorded
+   */
+  public long getMax() {
+    return max;
+  }
+
+  /** Forget every recorded value */
+  public void clear() {
+    Arrays.fill(counts, 0);
+    count = 0;
+    sum = 0;
+    max = 0;
+  }
+
+  /** Get the bucket a non-negative value falls into */
+  private static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /** Get the largest value that falls into a bucket */
+  private static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    long subBucket = bucket % SUB_BUCKETS;
+    long lower = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+  }
+}
@@ -1,11 +1,14 @@
 /* (C)2025 */
 package com.dyingday.dronecraft.api.registry;
 
+import com.dyingday.dronecraft.DroneCraft;
 import com.dyingday.dronecraft.api.behavior.action.ActionCategory;
 import com.dyingday.dronecraft.api.behavior.action.IAction;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import net.minecraft.resources.Identifier;
 
 /**
@@ -18,9 +21,31 @@ import net.minecraft.resources.Identifier;
  * single-threaded initialization or synchronized contexts.
  */
 public class ActionRegistry {
+  /** Identifier reported for actions whose class was never registered */
+  public static final Identifier UNREGISTERED =
+      Identifier.fromNamespaceAndPath(DroneCraft.MODID, "unregistered");
+
   /** Map of action identifiers to their factory instances */
   private static final Map<Identifier, ActionFactory<?>> ACTIONS = new HashMap<>();
 
+  /** Map of action classes to the identifier they were registered with */
+  private static final Map<Class<?>, Identifier> IDS_BY_CLASS = new HashMap<>();
+
+  /** Action identifiers indexed by their numeric id */
+  private static final List<Identifier> NUMERIC_IDS = new ArrayList<>();
+
+  /** Map of action identifiers to their numeric id */
+  private static final Map<Identifier, Integer> NUMERIC_IDS_BY_ID = new HashMap<>();
+
+  /** Numeric ids of action classes, cached per class for lookups on the execution path */
+  private static final ClassValue<Integer> NUMERIC_IDS_BY_CLASS =
+      new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+          return getNumericId(IDS_BY_CLASS.getOrDefault(type, UNREGISTERED));
+        }
+      };
+
   /**
    * Register an action factory with a unique identifier. This should be called during mod
    * initialization to make actions available to the behavior system and visual programming
@@ -36,6 +61,8 @@ public class ActionRegistry {
       throw new IllegalStateException("Action already registered: " + id);
     }
     ACTIONS.put(id, factory);
+    IDS_BY_CLASS.putIfAbsent(factory.create().getClass(), id);
+    getNumericId(id);
   }
 
   /**
@@ -78,4 +105,55 @@ public class ActionRegistry {
   public static boolean isRegistered(Identifier id) {
     return ACTIONS.containsKey(id);
   }
+
+  /**
+   * Get the identifier an action's class was registered with.
+   *
+   * @param action The action to look up
+   * @return The action's identifier, or empty if its class was never registered
+   */
+  public static Optional<Identifier> getId(IAction action) {
+    return Optional.ofNullable(IDS_BY_CLASS.get(action.getClass()));
+  }
+
+  /**
+   * Get a compact numeric id for an action identifier, assigning the next free one if the
+   * identifier has none yet. Numeric ids are only stable for the lifetime of the game session and
+   * are meant for compact in-memory storage, such as execution history and profiling tables.
+   *
+   * @param id The action identifier
+   * @return The numeric id, starting from 0
+   */
+  public static int getNumericId(Identifier id) {
+    Integer numericId = NUMERIC_IDS_BY_ID.get(id);
+    if (numericId == null) {
+      numericId = NUMERIC_IDS.size();
+      NUMERIC_IDS.add(id);
+      NUMERIC_IDS_BY_ID.put(id, numericId);
+    }
+    return numericId;
+  }
+
+  /**
+   * Get the numeric id of an action's class. The lookup is cached per class, so it is cheap enough
+   * to call on every action execution.
+   *
+   * @param action The action to look up
+   * @return The numeric id of the action's identifier, or of {@link #UNREGISTERED} if its class was
+   *     never registered
+   */
+  public static int getNumericId(IAction action) {
+    return NUMERIC_IDS_BY_CLASS.get(action.getClass());
+  }
+
+  /**
+   * Get the action identifier behind a numeric id.
+   *
+   * @param numericId A numeric id returned by {@link #getNumericId(Identifier)}
+   * @return The action identifier
+   * @throws IndexOutOfBoundsException if the numeric id was never assigned
+   */
+  public static Identifier getIdByNumericId(int numericId) {
+    return NUMERIC_IDS.get(numericId);
+  }
 }
@@ -0,0 +1,98 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.behavior;
+
+import com.dyingday.dronecraft.api.behavior.BehaviorOptimizer;
+import com.dyingday.dronecraft.api.behavior.FailurePolicy;
+import com.dyingday.dronecraft.api.behavior.Instruction;
+import com.dyingday.dronecraft.api.behavior.OptimizationPass;
+import com.dyingday.dronecraft.behavior.action.FindTreeAction;
+import com.dyingday.dronecraft.behavior.action.HarvestPlanAction;
+import com.dyingday.dronecraft.behavior.action.HarvestTreeAction;
+import com.dyingday.dronecraft.behavior.action.PlantSaplingAction;
+import com.dyingday.dronecraft.behavior.action.WaitAction;
+import java.util.List;
+
+public final class BehaviorPasses {
+  /** Merges waits that directly follow each other into one wait */
+  public static final OptimizationPass FUSE_WAITS = BehaviorPasses::fuseWaits;
+
+  /** Merges finding, harvesting and replanting a tree into one {@link HarvestPlanAction} */
+  public static final OptimizationPass FUSE_HARVEST_PLAN = BehaviorPasses::fuseHarvestPlan;
+
+  /** Optimizer run over the behaviors drones load */
+  public static final BehaviorOptimizer OPTIMIZER =
+      new BehaviorOptimizer(
+          List.of(
+              BehaviorOptimizer.REMOVE_UNREACHABLE,
+              BehaviorOptimizer.RESOLVE_CONSTANT_GUARDS,
+              FUSE_WAITS,
+              FUSE_HARVEST_PLAN));
+
+  private BehaviorPasses() {}
+
+  private static boolean fuseWaits(List<Instruction> code, List<String> changes) {
+    boolean changed = false;
+    for (int i = code.size() - 2; i >= 0; i--) {
+      if (waitAction(code.get(i)) instanceof WaitAction first
+          && waitAction(code.get(i + 1)) instanceof WaitAction second) {
+        // Every wait takes at least the tick it runs in
+        int ticks = Math.max(1, first.getTicksToWait()) + Math.max(1, second.getTicksToWait());
+        FailurePolicy policy = ((Instruction.Action) code.get(i)).policy();
+        code.set(i, new Instruction.Action(new WaitAction(ticks), policy));
+        code.remove(i + 1);
+        changes.add(
+            "Merged waits of "
+                + first.getTicksToWait()
+                + " and "
+                + second.getTicksToWait()
+                + " ticks into one wait of "
+                + ticks
+                + " ticks");
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
+  private static WaitAction waitAction(Instruction instruction) {
+    return instruction instanceof Instruction.Action action
+            && action.action() instanceof WaitAction wait
+        ? wait
+        : null;
+  }
+
+  private static boolean fuseHarvestPlan(List<Instruction> code, List<String> changes) {
+    boolean changed = false;
+    for (int i = code.size() - 3; i >= 0; i--) {
+      if (code.get(i) instanceof Instruction.Action find
+          && find.action() instanceof FindTreeAction findTree
+          && code.get(i + 1) instanceof Instruction.Action harvest
+          && harvest.action() instanceof HarvestTreeAction harvestTree
+          && code.get(i + 2) instanceof Instruction.Action plant
+          && plant.action() instanceof PlantSaplingAction plantSapling
+          && skips(find.policy())
+          && skips(harvest.policy())
+          && skips(plant.policy())) {
+        HarvestPlanAction fused =
+            new HarvestPlanAction(
+                findTree,
+                harvestTree,
+                plantSapling,
+                find.policy(),
+                harvest.policy(),
+                plant.policy());
+        // The fused action retries and skips its steps itself and never fails
+        code.set(i, new Instruction.Action(fused, FailurePolicy.SKIP));
+        code.subList(i + 1, i + 3).clear();
+        changes.add("Merged finding, harvesting and replanting a tree into one action");
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
+  /** Aborting the behavior from inside the fused action is not possible */
+  private static boolean skips(FailurePolicy policy) {
+    return policy.onExhausted() == FailurePolicy.Exhausted.SKIP;
+  }
+}
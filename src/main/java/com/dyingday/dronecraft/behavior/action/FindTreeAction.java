@@ -5,40 +5,54 @@ import com.dyingday.dronecraft.api.behavior.action.ActionCategory;
 import com.dyingday.dronecraft.api.behavior.action.ActionResult;
 import com.dyingday.dronecraft.api.behavior.action.IAction;
 import com.dyingday.dronecraft.api.context.ActionContext;
+import com.dyingday.dronecraft.api.context.BlockIndex;
+import com.dyingday.dronecraft.api.context.IWorldAccess;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import java.util.List;
+import java.util.Optional;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
-import net.minecraft.tags.BlockTags;
-import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
 
 public class FindTreeAction implements IAction {
+  public static final VariableKey<BlockPos> TARGET_TREE =
+      VariableKey.of("target_tree", BlockPos.class);
+
+  /** Index one full section per tick, a partial budget only delays the next section */
+  private static final int DEFAULT_BLOCKS_PER_TICK = LevelChunkSection.SECTION_SIZE;
+
   private int searchRadius = 16;
-  private BlockPos foundTree = null;
+  private int blocksPerTick = DEFAULT_BLOCKS_PER_TICK;
+
+  public FindTreeAction() {}
+
+  public FindTreeAction(int searchRadius, int blocksPerTick) {
+    this.searchRadius = searchRadius;
+    this.blocksPerTick = blocksPerTick;
+  }
 
   @Override
   public ActionResult execute(ActionContext context) {
-    Level level = context.getLevel();
     BlockPos center = context.getExecutorBlockPos();
+    IWorldAccess world = context.getWorld();
+
+    // Index the search area a slice at a time so the first search does not spike the tick
+    BlockPos from = center.offset(-searchRadius, -searchRadius, -searchRadius);
+    BlockPos to = center.offset(searchRadius, searchRadius, searchRadius);
+    if (!world.prepareIndex(from, to, blocksPerTick)) {
+      return ActionResult.CONTINUE;
+    }
 
-    // Search for logs in radius
-    for (int x = -searchRadius; x <= searchRadius; x++) {
-      for (int y = -searchRadius; y <= searchRadius; y++) {
-        for (int z = -searchRadius; z <= searchRadius; z++) {
-          BlockPos checkPos = center.offset(x, y, z);
-          BlockState state = level.getBlockState(checkPos);
-
-          // Check if it's a log
-          if (state.is(BlockTags.LOGS)) {
-            foundTree = checkPos;
-            context.setVariable("target_tree", checkPos);
-            return ActionResult.SUCCESS;
-          }
-        }
-      }
+    // Look up the closest log in radius
+    Optional<BlockPos> tree = world.findNearestIndexed(BlockIndex.LOGS, center, from, to);
+    if (tree.isPresent()) {
+      context.setVariable(TARGET_TREE, tree.get());
+      return ActionResult.SUCCESS;
     }
 
-    // No tree found
+    // No tree found, make sure the next steps do not act on a tree found earlier
+    context.removeVariable(TARGET_TREE);
     return ActionResult.FAILURE;
   }
 
@@ -47,6 +61,11 @@ public class FindTreeAction implements IAction {
     return true;
   }
 
+  @Override
+  public boolean isAlwaysExecutable() {
+    return true;
+  }
+
   @Override
   public Component getDisplayName() {
     return Component.literal("Find Tree");
@@ -62,24 +81,23 @@ public class FindTreeAction implements IAction {
     CompoundTag tag = new CompoundTag();
     tag.putString("action_type", "find_tree");
     tag.putInt("search_radius", searchRadius);
-    if (foundTree != null) {
-      tag.putLong("found_tree", foundTree.asLong());
-    }
+    tag.putInt("blocks_per_tick", blocksPerTick);
     return tag;
   }
 
   @Override
   public void deserializeNBT(CompoundTag tag) {
     searchRadius = tag.getInt("search_radius").orElse(16);
-    if (tag.getLong("found_tree").isPresent()) {
-      foundTree = BlockPos.of(tag.getLong("found_tree").get());
-    }
+    blocksPerTick = tag.getInt("blocks_per_tick").orElse(DEFAULT_BLOCKS_PER_TICK);
+  }
+
+  @Override
+  public List<VariableKey<?>> getVariableKeys() {
+    return List.of(TARGET_TREE);
   }
 
   @Override
   public IAction copy() {
-    FindTreeAction copy = new FindTreeAction();
-    copy.searchRadius = this.searchRadius;
-    return copy;
+    return new FindTreeAction(searchRadius, blocksPerTick);
   }
 }
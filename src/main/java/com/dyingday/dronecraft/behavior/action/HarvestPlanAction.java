@@ -0,0 +1,222 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.behavior.action;
+
+import com.dyingday.dronecraft.api.behavior.FailurePolicy;
+import com.dyingday.dronecraft.api.behavior.action.ActionCategory;
+import com.dyingday.dronecraft.api.behavior.action.ActionResult;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.context.ActionContext;
+import com.dyingday.dronecraft.api.context.BlockIndex;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import java.util.List;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
+
+/**
+ * Finds a tree, harvests it and plants a sapling in its place as one action, running one step per
+ * tick. Created by the behavior optimizer from the three separate actions. The steps share one scan
+ * of the world: the block index the find step prepares gives the harvest the logs of the tree
+ * without a flood fill through the world, and the harvest gives the planting step the base of the
+ * trunk. Each step keeps the failure policy it had as a separate action and is retried or skipped
+ * inside this action the way the executor would, so the action itself never fails.
+ */
+public class HarvestPlanAction implements IAction {
+  private static final int FIND = 0;
+  private static final int HARVEST = 1;
+  private static final int PLANT = 2;
+
+  /** How far logs of the found tree are looked for around it, sideways and up or down */
+  private static final int TREE_REACH_SIDEWAYS = 8;
+
+  private static final int TREE_REACH_VERTICAL = 32;
+
+  private final FindTreeAction find;
+  private final HarvestTreeAction harvest;
+  private final PlantSaplingAction plant;
+  private final FailurePolicy findPolicy;
+  private final FailurePolicy harvestPolicy;
+  private final FailurePolicy plantPolicy;
+
+  // Scratch space only used within a single execution, so it can be shared by every executor
+  private final LongOpenHashSet indexedLogs = new LongOpenHashSet();
+
+  public HarvestPlanAction() {
+    this(
+        new FindTreeAction(),
+        new HarvestTreeAction(),
+        new PlantSaplingAction(),
+        FailurePolicy.SKIP,
+        FailurePolicy.SKIP,
+        FailurePolicy.SKIP);
+  }
+
+  public HarvestPlanAction(
+      FindTreeAction find,
+      HarvestTreeAction harvest,
+      PlantSaplingAction plant,
+      FailurePolicy findPolicy,
+      FailurePolicy harvestPolicy,
+      FailurePolicy plantPolicy) {
+    if (findPolicy.onExhausted() != FailurePolicy.Exhausted.SKIP
+        || harvestPolicy.onExhausted() != FailurePolicy.Exhausted.SKIP
+        || plantPolicy.onExhausted() != FailurePolicy.Exhausted.SKIP) {
+      throw new IllegalArgumentException("Fused steps must skip once their retries are used up");
+    }
+    this.find = find;
+    this.harvest = harvest;
+    this.plant = plant;
+    this.findPolicy = findPolicy;
+    this.harvestPolicy = harvestPolicy;
+    this.plantPolicy = plantPolicy;
+  }
+
+  @Override
+  public ActionResult execute(ActionContext context) {
+    State state = context.getActionState(State.class);
+    IAction step = step(state.step);
+    if (state.stepState == null) {
+      state.stepState = step.createState();
+      startStep(context, state);
+    }
+    context.setActionState(state.stepState);
+    ActionResult result = step.execute(context);
+    context.setActionState(state);
+
+    if (result == ActionResult.SUCCESS) {
+      // Each step starts with a clean slate, as separate actions would
+      context.resetExecutionState();
+      // The next step runs next tick, so no tick pays for more than one step
+      return state.next() ? ActionResult.CONTINUE : ActionResult.SUCCESS;
+    }
+    if (result != ActionResult.FAILURE) {
+      return result;
+    }
+
+    // Retry the step from scratch, or skip it, like the executor would for a separate action
+    FailurePolicy policy = policy(state.step);
+    context.resetExecutionState();
+    state.stepState = null;
+    if (state.failures >= policy.maxRetries()) {
+      return state.next() ? ActionResult.CONTINUE : ActionResult.SUCCESS;
+    }
+    state.failures++;
+    int backoff = policy.getBackoffTicks(state.failures, context.getWorld().getRandom());
+    return backoff > 0 ? context.sleepFor(backoff) : ActionResult.CONTINUE;
+  }
+
+  /** Hand a step what the earlier steps found, so it does not read the world for it again */
+  private void startStep(ActionContext context, State state) {
+    if (state.step == HARVEST) {
+      BlockPos target = context.getVariable(FindTreeAction.TARGET_TREE);
+      if (target == null) {
+        return;
+      }
+      // Find indexed the area around the tree, so its logs are known without a flood fill
+      indexedLogs.clear();
+      List<BlockPos> logs =
+          context
+              .getWorld()
+              .findAllIndexed(
+                  BlockIndex.LOGS,
+                  target.offset(-TREE_REACH_SIDEWAYS, -TREE_REACH_VERTICAL, -TREE_REACH_SIDEWAYS),
+                  target.offset(TREE_REACH_SIDEWAYS, TREE_REACH_VERTICAL, TREE_REACH_SIDEWAYS));
+      for (BlockPos log : logs) {
+        indexedLogs.add(log.asLong());
+      }
+      state.treeBase = harvest.startFromLogs(state.stepState, target, indexedLogs);
+    } else if (state.step == PLANT && state.treeBase != null) {
+      plant.startAt(state.stepState, state.treeBase);
+    }
+  }
+
+  private FailurePolicy policy(int step) {
+    return switch (step) {
+      case FIND -> findPolicy;
+      case HARVEST -> harvestPolicy;
+      default -> plantPolicy;
+    };
+  }
+
+  private IAction step(int step) {
+    return switch (step) {
+      case FIND -> find;
+      case HARVEST -> harvest;
+      default -> plant;
+    };
+  }
+
+  @Override
+  public boolean canExecute(ActionContext context) {
+    return find.canExecute(context);
+  }
+
+  @Override
+  public boolean isAlwaysExecutable() {
+    return find.isAlwaysExecutable();
+  }
+
+  @Override
+  public Component getDisplayName() {
+    return Component.literal("Harvest and Replant Tree");
+  }
+
+  @Override
+  public ActionCategory getCategory() {
+    return ActionCategory.INTERACTION;
+  }
+
+  @Override
+  public CompoundTag serializeNBT() {
+    CompoundTag tag = new CompoundTag();
+    tag.putString("action_type", "harvest_plan");
+    tag.put("find", find.serializeNBT());
+    tag.put("harvest", harvest.serializeNBT());
+    tag.put("plant", plant.serializeNBT());
+    return tag;
+  }
+
+  @Override
+  public void deserializeNBT(CompoundTag tag) {
+    tag.getCompound("find").ifPresent(find::deserializeNBT);
+    tag.getCompound("harvest").ifPresent(harvest::deserializeNBT);
+    tag.getCompound("plant").ifPresent(plant::deserializeNBT);
+  }
+
+  @Override
+  public Object createState() {
+    return new State();
+  }
+
+  @Override
+  public List<VariableKey<?>> getVariableKeys() {
+    return List.of(FindTreeAction.TARGET_TREE);
+  }
+
+  @Override
+  public IAction copy() {
+    return new HarvestPlanAction(
+        (FindTreeAction) find.copy(),
+        (HarvestTreeAction) harvest.copy(),
+        (PlantSaplingAction) plant.copy(),
+        findPolicy,
+        harvestPolicy,
+        plantPolicy);
+  }
+
+  private static final class State {
+    private int step = FIND;
+    private Object stepState;
+    private int failures = 0;
+    private BlockPos treeBase;
+
+    /** Move on to the next step, returning false once every step is done */
+    private boolean next() {
+      step++;
+      stepState = null;
+      failures = 0;
+      return step <= PLANT;
+    }
+  }
+}
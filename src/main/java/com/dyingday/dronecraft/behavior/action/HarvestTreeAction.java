@@ -5,30 +5,43 @@ import com.dyingday.dronecraft.api.behavior.action.ActionCategory;
 import com.dyingday.dronecraft.api.behavior.action.ActionResult;
 import com.dyingday.dronecraft.api.behavior.action.IAction;
 import com.dyingday.dronecraft.api.context.ActionContext;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Set;
+import com.dyingday.dronecraft.api.context.FloodFill;
+import com.dyingday.dronecraft.api.context.IWorldAccess;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.ArrayList;
+import java.util.List;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
 import net.minecraft.tags.BlockTags;
-import net.minecraft.world.level.Level;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.LevelEvent;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.gameevent.GameEvent;
+import org.jetbrains.annotations.Nullable;
 
 public class HarvestTreeAction implements IAction {
-  private final Set<BlockPos> logsToBreak = new HashSet<>();
-  private final Set<BlockPos> leavesToBreak = new HashSet<>();
-  private BlockPos targetTree;
-  private boolean initialized = false;
+  private static final int MAX_TREE_SIZE = 4096;
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  // Scratch space only used within a single execution, so it can be shared by every executor
+  private final LongArrayList brokenLogs = new LongArrayList();
+  private final BlockPos.MutableBlockPos logPos = new BlockPos.MutableBlockPos();
+  private final List<Block> brokenBlocks = new ArrayList<>();
+  private final FloodFill floodFill = new FloodFill();
 
   @Override
   public ActionResult execute(ActionContext context) {
+    State state = context.getActionState(State.class);
+
     // Get target from variables
-    if (targetTree == null) {
-      targetTree = context.getVariable("target_tree", BlockPos.class).orElse(null);
-      if (targetTree == null) {
+    if (state.targetTree == null) {
+      state.targetTree = context.getVariable(FindTreeAction.TARGET_TREE);
+      if (state.targetTree == null) {
         return ActionResult.FAILURE;
       }
     }
@@ -37,24 +50,39 @@ public class HarvestTreeAction implements IAction {
     // TODO
 
     // Initialize - find all logs and leaves
-    if (!initialized) {
-      findAllTreeBlocks(context);
-      initialized = true;
+    if (!state.initialized) {
+      findAllTreeBlocks(context, state);
+      state.initialized = true;
     }
+    LongArrayList logsToBreak = state.logsToBreak;
 
-    Level level = context.getLevel();
+    IWorldAccess world = context.getWorld();
+    Entity breaker = context.getExecutorAsEntity().orElse(null);
 
-    // Break logs first
-    if (!logsToBreak.isEmpty()) {
-      BlockPos logPos = logsToBreak.iterator().next();
-      logsToBreak.remove(logPos);
+    // Break as many logs as the block budget allows this tick, from the top down
+    while (!logsToBreak.isEmpty() && context.canModifyBlocks(1)) {
+      logPos.set(logsToBreak.removeLong(logsToBreak.size() - 1));
 
-      BlockState state = level.getBlockState(logPos);
-      if (state.is(BlockTags.LOGS)) {
+      BlockState log = world.getBlockState(logPos);
+      if (log.is(BlockTags.LOGS)) {
         // Todo: Store drops in inventory
-        level.destroyBlock(logPos, false);
+        // Only update clients here, neighbors are notified once for the whole batch below
+        world.setBlock(logPos, log.getFluidState().createLegacyBlock(), Block.UPDATE_CLIENTS);
+        world.levelEvent(LevelEvent.PARTICLES_DESTROY_BLOCK, logPos, Block.getId(log));
+        world.gameEvent(GameEvent.BLOCK_DESTROY, logPos, GameEvent.Context.of(breaker, log));
+        brokenLogs.add(logPos.asLong());
+        brokenBlocks.add(log.getBlock());
+        context.trackBlocksModified(1);
       }
-      context.tick();
+    }
+
+    for (int i = 0; i < brokenLogs.size(); i++) {
+      world.updateNeighborsAt(logPos.set(brokenLogs.getLong(i)), brokenBlocks.get(i));
+    }
+    brokenLogs.clear();
+    brokenBlocks.clear();
+
+    if (!logsToBreak.isEmpty()) {
       return ActionResult.CONTINUE;
     }
 
@@ -62,40 +90,62 @@ public class HarvestTreeAction implements IAction {
     return ActionResult.SUCCESS;
   }
 
-  private void findAllTreeBlocks(ActionContext context) {
-    Level level = context.getLevel();
-    Queue<BlockPos> toCheck = new LinkedList<>();
-    Set<BlockPos> checked = new HashSet<>();
-
-    toCheck.add(targetTree);
-
+  private void findAllTreeBlocks(ActionContext context, State state) {
     // Flood fill to find all connected logs
-    while (!toCheck.isEmpty()) {
-      BlockPos pos = toCheck.poll();
-      if (checked.contains(pos)) {
-        continue;
-      }
-      checked.add(pos);
-
-      BlockState state = level.getBlockState(pos);
+    LongArrayList logsToBreak = state.logsToBreak;
+    floodFill.fill(
+        context.getWorld(),
+        state.targetTree,
+        block -> block.is(BlockTags.LOGS),
+        FloodFill.Connectivity.FACES,
+        MAX_TREE_SIZE,
+        logsToBreak::add);
+
+    sortBottomUp(logsToBreak);
+  }
 
-      if (state.is(BlockTags.LOGS)) {
-        logsToBreak.add(pos);
+  /**
+   * Start a harvest from logs that are already known, such as those in the block index, instead of
+   * flood filling the tree through the world. Only the logs connected to the target are harvested.
+   *
+   * @param actionState State from {@link #createState()} that has not been executed yet
+   * @param targetTree The log to start from
+   * @param logs Known log positions, removed from the set as they are reached
+   * @return The lowest log of the tree, or null if the target is not among the logs, in which case
+   *     the harvest flood fills the tree itself
+   */
+  @Nullable BlockPos startFromLogs(Object actionState, BlockPos targetTree, LongSet logs) {
+    State state = (State) actionState;
+    if (!logs.remove(targetTree.asLong())) {
+      return null;
+    }
 
-        // Check all 6 adjacent blocks for more logs
-        for (Direction dir : Direction.values()) {
-          BlockPos neighbor = pos.relative(dir);
-          if (!checked.contains(neighbor)) {
-            toCheck.add(neighbor);
-          }
+    // Breadth-first over the known logs, using the list to break as the queue
+    LongArrayList logsToBreak = state.logsToBreak;
+    logsToBreak.add(targetTree.asLong());
+    for (int i = 0; i < logsToBreak.size() && logsToBreak.size() < MAX_TREE_SIZE; i++) {
+      long pos = logsToBreak.getLong(i);
+      for (Direction direction : DIRECTIONS) {
+        long neighbor = BlockPos.offset(pos, direction);
+        if (logs.remove(neighbor)) {
+          logsToBreak.add(neighbor);
         }
       }
     }
+    sortBottomUp(logsToBreak);
+    state.targetTree = targetTree;
+    state.initialized = true;
+    return BlockPos.of(logsToBreak.getLong(0));
+  }
+
+  /** Lowest logs first so that breaking from the end of the list goes top-down */
+  private static void sortBottomUp(LongArrayList logs) {
+    logs.sort((long a, long b) -> Integer.compare(BlockPos.getY(a), BlockPos.getY(b)));
   }
 
   @Override
   public boolean canExecute(ActionContext context) {
-    return context.hasVariable("target_tree");
+    return context.hasVariable(FindTreeAction.TARGET_TREE);
   }
 
   @Override
@@ -112,23 +162,30 @@ public class HarvestTreeAction implements IAction {
   public CompoundTag serializeNBT() {
     CompoundTag tag = new CompoundTag();
     tag.putString("action_type", "harvest_tree");
-    if (targetTree != null) {
-      tag.putLong("target_tree", targetTree.asLong());
-    }
-    tag.putBoolean("initialized", initialized);
     return tag;
   }
 
   @Override
-  public void deserializeNBT(CompoundTag tag) {
-    if (tag.getLong("target_tree").isPresent()) {
-      targetTree = BlockPos.of(tag.getLong("target_tree").get());
-    }
-    initialized = tag.getBoolean("initialized").orElse(false);
+  public void deserializeNBT(CompoundTag tag) {}
+
+  @Override
+  public Object createState() {
+    return new State();
+  }
+
+  @Override
+  public List<VariableKey<?>> getVariableKeys() {
+    return List.of(FindTreeAction.TARGET_TREE);
   }
 
   @Override
   public IAction copy() {
     return new HarvestTreeAction();
   }
+
+  private static final class State {
+    private final LongArrayList logsToBreak = new LongArrayList();
+    private BlockPos targetTree;
+    private boolean initialized = false;
+  }
 }
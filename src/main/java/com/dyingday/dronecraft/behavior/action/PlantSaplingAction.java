@@ -5,41 +5,43 @@ import com.dyingday.dronecraft.api.behavior.action.ActionCategory;
 import com.dyingday.dronecraft.api.behavior.action.ActionResult;
 import com.dyingday.dronecraft.api.behavior.action.IAction;
 import com.dyingday.dronecraft.api.context.ActionContext;
+import com.dyingday.dronecraft.api.context.BlockIndex;
+import com.dyingday.dronecraft.api.context.IWorldAccess;
+import com.dyingday.dronecraft.api.context.VariableKey;
+import java.util.List;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
 import net.minecraft.tags.BlockTags;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 
 public class PlantSaplingAction implements IAction {
-  private BlockPos targetTree;
-  private BlockPos plantPosition;
-
   @Override
   public ActionResult execute(ActionContext context) {
-    Level level = context.getLevel();
+    IWorldAccess world = context.getWorld();
+    State state = context.getActionState(State.class);
 
     // Get the original tree position
-    if (targetTree == null) {
-      targetTree = context.getVariable("target_tree", BlockPos.class).orElse(null);
-      if (targetTree == null) {
+    if (state.targetTree == null) {
+      state.targetTree = context.getVariable(FindTreeAction.TARGET_TREE);
+      if (state.targetTree == null) {
         return ActionResult.FAILURE;
       }
     }
 
     // Find a suitable planting position
-    if (plantPosition == null) {
-      plantPosition = findPlantPosition(level, targetTree);
-      if (plantPosition == null) {
+    if (state.plantPosition == null) {
+      state.plantPosition = findPlantPosition(context, state.targetTree);
+      if (state.plantPosition == null) {
         return ActionResult.FAILURE;
       }
     }
+    BlockPos plantPosition = state.plantPosition;
 
     // Check if position is suitable
-    BlockState groundState = level.getBlockState(plantPosition.below());
-    BlockState airState = level.getBlockState(plantPosition);
+    BlockState groundState = world.getBlockState(plantPosition.below());
+    BlockState airState = world.getBlockState(plantPosition);
 
     if (!airState.isAir()) {
       return ActionResult.FAILURE;
@@ -50,28 +52,45 @@ public class PlantSaplingAction implements IAction {
     }
 
     // Plant oak sapling
-    level.setBlock(plantPosition, Blocks.OAK_SAPLING.defaultBlockState(), 3);
+    world.setBlock(plantPosition, Blocks.OAK_SAPLING.defaultBlockState(), 3);
 
     return ActionResult.SUCCESS;
   }
 
-  private BlockPos findPlantPosition(Level level, BlockPos treePos) {
-    // Move down to find the base
-    BlockPos checkPos = treePos;
-    while (level.isInsideBuildHeight(checkPos.getY())) {
-      BlockState below = level.getBlockState(checkPos.below());
-      if (below.is(BlockTags.LOGS)) {
-        checkPos = checkPos.below();
-      } else {
-        return checkPos;
+  /**
+   * Plant next to a known trunk base instead of the tree found earlier, which saves walking down
+   * the trunk.
+   *
+   * @param actionState State from {@link #createState()} that has not been executed yet
+   * @param base The lowest log of the tree
+   */
+  void startAt(Object actionState, BlockPos base) {
+    ((State) actionState).targetTree = base;
+  }
+
+  private BlockPos findPlantPosition(ActionContext context, BlockPos treePos) {
+    // Move down the trunk, or the column it left behind once harvested, to find the base
+    IWorldAccess world = context.getWorld();
+    BlockPos base = treePos;
+    while (world.isInsideBuildHeight(base.getY() - 1)) {
+      BlockState below = world.getBlockState(base.below());
+      if (!below.is(BlockTags.LOGS) && !below.isAir()) {
+        break;
       }
+      base = base.below();
     }
-    return null;
+
+    // Plant on the free soil closest to where the trunk stood
+    return world
+        .findNearestIndexed(
+            BlockIndex.PLANTABLE_SOIL, base, base.offset(-1, -1, -1), base.offset(1, -1, 1))
+        .map(BlockPos::above)
+        .orElse(null);
   }
 
   @Override
   public boolean canExecute(ActionContext context) {
-    return context.hasVariable("target_tree");
+    return context.hasVariable(FindTreeAction.TARGET_TREE);
   }
 
   @Override
@@ -88,27 +107,29 @@ public class PlantSaplingAction implements IAction {
   public CompoundTag serializeNBT() {
     CompoundTag tag = new CompoundTag();
     tag.putString("action_type", "plant_sapling");
-    if (targetTree != null) {
-      tag.putLong("target_tree", targetTree.asLong());
-    }
-    if (plantPosition != null) {
-      tag.putLong("plant_position", plantPosition.asLong());
-    }
     return tag;
   }
 
   @Override
-  public void deserializeNBT(CompoundTag tag) {
-    if (tag.getLong("target_tree").isPresent()) {
-      targetTree = BlockPos.of(tag.getLong("target_tree").get());
-    }
-    if (tag.getLong("plant_position").isPresent()) {
-      plantPosition = BlockPos.of(tag.getLong("plant_position").get());
-    }
+  public void deserializeNBT(CompoundTag tag) {}
+
+  @Override
+  public Object createState() {
+    return new State();
+  }
+
+  @Override
+  public List<VariableKey<?>> getVariableKeys() {
+    return List.of(FindTreeAction.TARGET_TREE);
   }
 
   @Override
   public IAction copy() {
     return new PlantSaplingAction();
   }
+
+  private static final class State {
+    private BlockPos targetTree;
+    private BlockPos plantPosition;
+  }
 }
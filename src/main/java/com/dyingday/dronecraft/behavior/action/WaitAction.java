@@ -10,7 +10,6 @@ import net.minecraft.network.chat.Component;
 
 public class WaitAction implements IAction {
   private int ticksToWait = 20;
-  private int ticksWaited = 0;
 
   public WaitAction() {}
 
@@ -20,14 +19,17 @@ public class WaitAction implements IAction {
 
   @Override
   public ActionResult execute(ActionContext context) {
-    ticksWaited++;
+    State state = context.getActionState(State.class);
+    state.ticksWaited++;
 
-    if (ticksWaited >= ticksToWait) {
-      ticksWaited = 0;
+    if (state.ticksWaited >= ticksToWait) {
       return ActionResult.SUCCESS;
     }
 
-    return ActionResult.CONTINUE;
+    // Sleep through the rest of the wait instead of being ticked for every remaining tick
+    int remaining = ticksToWait - state.ticksWaited;
+    state.ticksWaited = ticksToWait - 1;
+    return context.sleepFor(remaining);
   }
 
   @Override
@@ -35,6 +37,15 @@ public class WaitAction implements IAction {
     return true;
   }
 
+  @Override
+  public boolean isAlwaysExecutable() {
+    return true;
+  }
+
+  public int getTicksToWait() {
+    return ticksToWait;
+  }
+
   @Override
   public Component getDisplayName() {
     return Component.literal("Wait " + ticksToWait + " ticks");
@@ -50,18 +61,25 @@ public class WaitAction implements IAction {
     CompoundTag tag = new CompoundTag();
     tag.putString("action_type", "wait");
     tag.putInt("ticks_to_wait", ticksToWait);
-    tag.putInt("ticks_waited", ticksWaited);
     return tag;
   }
 
   @Override
   public void deserializeNBT(CompoundTag tag) {
     ticksToWait = tag.getInt("ticks_to_wait").orElse(0);
-    ticksWaited = tag.getInt("ticks_waited").orElse(0);
+  }
+
+  @Override
+  public Object createState() {
+    return new State();
   }
 
   @Override
   public IAction copy() {
     return new WaitAction(ticksToWait);
   }
+
+  private static final class State {
+    private int ticksWaited = 0;
+  }
 }
@@ -4,16 +4,17 @@ package com.dyingday.dronecraft.blockentity;
 import com.dyingday.dronecraft.DroneCraft;
 import com.dyingday.dronecraft.api.behavior.Behavior;
 import com.dyingday.dronecraft.api.behavior.BehaviorExecutor;
-import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.behavior.DroneTickScheduler;
+import com.dyingday.dronecraft.api.behavior.FailurePolicy;
 import com.dyingday.dronecraft.api.context.ActionContext;
 import com.dyingday.dronecraft.api.context.ResourceLimits;
 import com.dyingday.dronecraft.api.context.executor.IExecutorBlockEntity;
+import com.dyingday.dronecraft.behavior.BehaviorPasses;
 import com.dyingday.dronecraft.behavior.action.FindTreeAction;
 import com.dyingday.dronecraft.behavior.action.HarvestTreeAction;
 import com.dyingday.dronecraft.behavior.action.PlantSaplingAction;
 import com.dyingday.dronecraft.behavior.action.WaitAction;
 import com.dyingday.dronecraft.registration.DCBlockEntities;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import net.minecraft.core.BlockPos;
@@ -31,6 +32,25 @@ import org.jetbrains.annotations.NotNull;
 import org.jspecify.annotations.Nullable;
 
 public class DroneStationBE extends BlockEntity implements IExecutorBlockEntity {
+  /**
+   * The tree farm program, shared by every station and optimized once when loaded. Back off
+   * instead of rescanning every pass while there is no tree or nowhere to plant
+   */
+  private static final Behavior TREE_FARM =
+      BehaviorPasses.OPTIMIZER
+          .optimize(
+              new Behavior(
+                      Identifier.fromNamespaceAndPath(DroneCraft.MODID, "tree_farm"),
+                      List.of(
+                          new FindTreeAction(),
+                          new HarvestTreeAction(),
+                          new PlantSaplingAction(),
+                          new WaitAction(100)),
+                      true)
+                  .withFailurePolicy(0, FailurePolicy.retryThenSkip(8, 20, 1200))
+                  .withFailurePolicy(2, FailurePolicy.retryThenSkip(3, 10, 40)))
+          .behavior();
+
   private final ItemStacksResourceHandler inventory = new ItemStacksResourceHandler(27);
   private final SimpleEnergyHandler energy = new SimpleEnergyHandler(10_000, 1_000);
 
@@ -80,46 +100,56 @@ public class DroneStationBE extends BlockEntity implements IExecutorBlockEntity
   }
 
   private void startBehavior() {
-    List<IAction> actions = new ArrayList<>();
-    actions.add(new FindTreeAction());
-    actions.add(new HarvestTreeAction());
-    actions.add(new PlantSaplingAction());
-    actions.add(new WaitAction(100));
-
-    Behavior treeFarmBehavior =
-        new Behavior(Identifier.fromNamespaceAndPath(DroneCraft.MODID, "tree_farm"), actions, true);
-
     ActionContext context =
         new ActionContext.Builder((BlockEntity) this)
             .trackHistory(false)
             .maxTicksPerAction(1000)
-            .resourceLimits(ResourceLimits.UNLIMITED)
+            .resourceLimits(ResourceLimits.DEFAULT)
             .build();
-    this.behaviorExecutor = new BehaviorExecutor(treeFarmBehavior, context);
+    replaceExecutor(new BehaviorExecutor(TREE_FARM, context));
     setChanged();
   }
 
+  /**
+   * Swap the running executor, moving the scheduler registration over to the new one and
+   * cancelling the async work of the old one. The executor itself is ticked by the level's {@link
+   * DroneTickScheduler}, not by this block entity.
+   */
+  private void replaceExecutor(BehaviorExecutor executor) {
+    if (behaviorExecutor != null) {
+      if (behaviorExecutor.isScheduled()) {
+        DroneTickScheduler.get(level).unregister(behaviorExecutor);
+      }
+      behaviorExecutor.cancelWork();
+    }
+    this.behaviorExecutor = executor;
+    DroneTickScheduler.get(level).register(executor);
+  }
+
   public void tick(Level level, BlockPos pos, BlockState state) {
     if (level.isClientSide()) {
       return;
     }
 
-    if (behaviorExecutor == null) {
+    if (behaviorExecutor == null
+        || behaviorExecutor.getState() == BehaviorExecutor.BehaviorExecutorState.COMPLETED) {
       startBehavior();
     }
-
-    if (behaviorExecutor != null) {
-      behaviorExecutor.tick();
-
-      if (behaviorExecutor.getState() == BehaviorExecutor.BehaviorExecutorState.COMPLETED) {
-        startBehavior();
-      }
-    }
   }
 
   public void setBehavior(Behavior behavior) {
     ActionContext context =
         new ActionContext.Builder((BlockEntity) this).trackHistory(true).build();
-    this.behaviorExecutor = new BehaviorExecutor(behavior, context);
+    replaceExecutor(new BehaviorExecutor(behavior, context));
+  }
+
+  @Override
+  public void setRemoved() {
+    super.setRemoved();
+    if (level != null && !level.isClientSide() && behaviorExecutor != null) {
+      // Also called when the chunk unloads, a reloaded station starts a new executor
+      DroneTickScheduler.get(level).unregister(behaviorExecutor);
+      behaviorExecutor.cancelWork();
+    }
   }
 }
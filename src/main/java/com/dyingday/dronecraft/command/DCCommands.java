@@ -0,0 +1,93 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.command;
+
+import com.dyingday.dronecraft.DroneCraft;
+import com.dyingday.dronecraft.api.behavior.ProgramCompiler;
+import com.dyingday.dronecraft.api.profiling.ActionProfiler;
+import com.mojang.brigadier.context.CommandContext;
+import java.util.List;
+import java.util.Locale;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.neoforged.neoforge.event.RegisterCommandsEvent;
+
+public class DCCommands {
+  public static void register(RegisterCommandsEvent event) {
+    event
+        .getDispatcher()
+        .register(
+            Commands.literal(DroneCraft.MODID)
+                .requires(Commands.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                .then(
+                    Commands.literal("profile")
+                        .then(Commands.literal("on").executes(ctx -> setProfiling(ctx, true)))
+                        .then(Commands.literal("off").executes(ctx -> setProfiling(ctx, false)))
+                        .then(Commands.literal("reset").executes(DCCommands::resetProfile))
+                        .then(Commands.literal("report").executes(DCCommands::reportProfile))));
+  }
+
+  private static int setProfiling(CommandContext<CommandSourceStack> ctx, boolean enabled) {
+    ActionProfiler.setEnabled(enabled);
+    ctx.getSource()
+        .sendSuccess(
+            () -> Component.literal("Action profiling " + (enabled ? "enabled" : "disabled")),
+            true);
+    return 1;
+  }
+
+  private static int resetProfile(CommandContext<CommandSourceStack> ctx) {
+    ActionProfiler.reset();
+    ctx.getSource().sendSuccess(() -> Component.literal("Action profile reset"), true);
+    return 1;
+  }
+
+  private static int reportProfile(CommandContext<CommandSourceStack> ctx) {
+    List<ActionProfiler.ActionTiming> report = ActionProfiler.getReport();
+    CommandSourceStack source = ctx.getSource();
+    reportCompileFailures(source);
+    if (report.isEmpty()) {
+      source.sendSuccess(() -> Component.literal("No actions profiled"), false);
+      return 0;
+    }
+    source.sendSuccess(
+        () -> Component.literal("Action profile over " + ActionProfiler.getTicks() + " ticks:"),
+        false);
+    for (ActionProfiler.ActionTiming timing : report) {
+      String line =
+          String.format(
+              Locale.ROOT,
+              "%s: %d calls, %.1f/tick (max %d), p50 %s, p99 %s, max %s, total %s",
+              timing.actionId(),
+              timing.calls(),
+              timing.callsPerTick(),
+              timing.maxCallsPerTick(),
+              formatNanos(timing.p50Nanos()),
+              formatNanos(timing.p99Nanos()),
+              formatNanos(timing.maxNanos()),
+              formatNanos(timing.totalNanos()));
+      source.sendSuccess(() -> Component.literal(line), false);
+    }
+    return report.size();
+  }
+
+  private static void reportCompileFailures(CommandSourceStack source) {
+    int failures = ProgramCompiler.getFailureCount();
+    Throwable lastFailure = ProgramCompiler.getLastFailure();
+    if (failures == 0 || lastFailure == null) {
+      return;
+    }
+    source.sendFailure(
+        Component.literal(
+            failures
+                + " behavior program(s) could not be compiled and are interpreted, last error: "
+                + lastFailure));
+  }
+
+  private static String formatNanos(long nanos) {
+    if (nanos >= 1_000_000) {
+      return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000.0);
+    }
+    return String.format(Locale.ROOT, "%.1fus", nanos / 1_000.0);
+  }
+}
@@ -0,0 +1,103 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.config;
+
+import com.dyingday.dronecraft.api.behavior.DroneTickScheduler;
+import com.dyingday.dronecraft.api.behavior.ProgramCompiler;
+import com.dyingday.dronecraft.api.behavior.async.AsyncActions;
+import com.dyingday.dronecraft.api.context.ParallelBlockSearch;
+import com.dyingday.dronecraft.api.profiling.ActionProfiler;
+import net.neoforged.fml.event.config.ModConfigEvent;
+import net.neoforged.neoforge.common.ModConfigSpec;
+
+/** Server-side configuration for DroneCraft */
+public class DCConfig {
+  public static final ModConfigSpec SPEC;
+
+  public static final ModConfigSpec.IntValue SCHEDULER_TICK_BUDGET_MICROS;
+
+  public static final ModConfigSpec.BooleanValue PROFILING_ACTION_TIMING;
+
+  public static final ModConfigSpec.BooleanValue BEHAVIOR_COMPILE;
+
+  public static final ModConfigSpec.IntValue BEHAVIOR_COMPILE_THRESHOLD;
+
+  public static final ModConfigSpec.IntValue ASYNC_WORKER_THREADS;
+
+  public static final ModConfigSpec.IntValue ASYNC_SEARCH_THREADS;
+
+  static {
+    ModConfigSpec.Builder builder = new ModConfigSpec.Builder();
+
+    builder.push("scheduler");
+    SCHEDULER_TICK_BUDGET_MICROS =
+        builder
+            .comment(
+                "Maximum time in microseconds DroneCraft may spend ticking behavior executors per"
+                    + " level each server tick. Executors that do not fit are carried over to the"
+                    + " next tick in round-robin order.")
+            .defineInRange(
+                "tickBudgetMicros",
+                (int) DroneTickScheduler.DEFAULT_TICK_BUDGET_MICROS,
+                50,
+                50_000);
+    builder.pop();
+
+    builder.push("profiling");
+    PROFILING_ACTION_TIMING =
+        builder
+            .comment(
+                "Time every action execution and aggregate latency histograms per action. View the"
+                    + " results with /dronecraft profile report.")
+            .define("actionTiming", false);
+    builder.pop();
+
+    builder.push("behavior");
+    BEHAVIOR_COMPILE =
+        builder
+            .comment(
+                "Generate a class for each behavior program many executors run, which calls its"
+                    + " actions directly instead of through the interpreter. Experimental, programs"
+                    + " that fail to compile are listed by /dronecraft profile report.")
+            .define("compile", false);
+    BEHAVIOR_COMPILE_THRESHOLD =
+        builder
+            .comment(
+                "Action executions, summed over all executors running a program, after which the"
+                    + " program is compiled.")
+            .defineInRange(
+                "compileThreshold",
+                ProgramCompiler.DEFAULT_PROMOTION_THRESHOLD,
+                1,
+                Integer.MAX_VALUE);
+    builder.pop();
+
+    builder.push("async");
+    ASYNC_WORKER_THREADS =
+        builder
+            .comment(
+                "Worker threads that run the planning and scanning work of async actions off the"
+                    + " server thread.")
+            .defineInRange("workerThreads", AsyncActions.DEFAULT_WORKER_THREADS, 1, 64);
+    ASYNC_SEARCH_THREADS =
+        builder
+            .comment("Threads that split large block searches of async actions by chunk section.")
+            .defineInRange("searchThreads", ParallelBlockSearch.DEFAULT_PARALLELISM, 1, 64);
+    builder.pop();
+
+    SPEC = builder.build();
+  }
+
+  private DCConfig() {}
+
+  public static void onConfigChanged(ModConfigEvent event) {
+    if (event.getConfig().getSpec() != SPEC) {
+      return;
+    }
+    DroneTickScheduler.setTickBudgetMicros(SCHEDULER_TICK_BUDGET_MICROS.getAsInt());
+    ActionProfiler.setEnabled(PROFILING_ACTION_TIMING.getAsBoolean());
+    ProgramCompiler.setEnabled(BEHAVIOR_COMPILE.getAsBoolean());
+    ProgramCompiler.setPromotionThreshold(BEHAVIOR_COMPILE_THRESHOLD.getAsInt());
+    AsyncActions.setWorkerThreads(ASYNC_WORKER_THREADS.getAsInt());
+    ParallelBlockSearch.setParallelism(ASYNC_SEARCH_THREADS.getAsInt());
+  }
+}
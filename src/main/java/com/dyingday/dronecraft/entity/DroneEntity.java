@@ -4,6 +4,7 @@ package com.dyingday.dronecraft.entity;
 import com.dyingday.dronecraft.DroneCraft;
 import com.dyingday.dronecraft.api.behavior.Behavior;
 import com.dyingday.dronecraft.api.behavior.BehaviorExecutor;
+import com.dyingday.dronecraft.api.behavior.DroneTickScheduler;
 import com.dyingday.dronecraft.api.context.ActionContext;
 import com.dyingday.dronecraft.api.context.ResourceLimits;
 import com.dyingday.dronecraft.api.context.executor.IExecutorEntity;
@@ -50,20 +51,32 @@ public class DroneEntity extends PathfinderMob implements IExecutorEntity {
   }
 
   @Override
-  public void tick() {
-    super.tick();
-
+  public void onRemovedFromLevel() {
+    super.onRemovedFromLevel();
     if (!level().isClientSide() && behaviorExecutor != null) {
-      behaviorExecutor.tick();
+      DroneTickScheduler.get(level()).unregister(behaviorExecutor);
+      behaviorExecutor.cancelWork();
     }
   }
 
   public void setBehavior(Behavior behavior) {
+    if (level().isClientSide()) {
+      // Behaviors only run on the server, where the scheduler lives
+      return;
+    }
     ActionContext context =
         new ActionContext.Builder((Entity) this)
             .trackHistory(true)
             .resourceLimits(new ResourceLimits(32, 8, 5_000))
             .build();
+
+    // The executor is ticked by the level's scheduler rather than from tick()
+    DroneTickScheduler scheduler = DroneTickScheduler.get(level());
+    if (behaviorExecutor != null) {
+      scheduler.unregister(behaviorExecutor);
+      behaviorExecutor.cancelWork();
+    }
     this.behaviorExecutor = new BehaviorExecutor(behavior, context);
+    scheduler.register(behaviorExecutor);
   }
 }
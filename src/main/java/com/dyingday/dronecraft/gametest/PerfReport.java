@@ -0,0 +1,114 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.gametest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * Collects the results of the performance gametests and writes them to a JSON file. The file is
+ * rewritten after every test so it always holds every result of the current run. It is written to
+ * the path in the {@code dronecraft.perf.output} system property, or to {@code
+ * dronecraft-perf.json} in the server directory.
+ */
+public final class PerfReport {
+  private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+  /** Results of this run, by scenario name */
+  private static final Map<String, Result> RESULTS = new LinkedHashMap<>();
+
+  private PerfReport() {}
+
+  public static void write(MinecraftServer server, Result result) throws IOException {
+    RESULTS.put(result.scenario().name(), result);
+
+    JsonArray results = new JsonArray();
+    for (Result each : RESULTS.values()) {
+      results.add(each.toJson());
+    }
+    JsonObject root = new JsonObject();
+    root.addProperty("timestamp", System.currentTimeMillis());
+    root.addProperty("javaVersion", Runtime.version().toString());
+    root.add("results", results);
+
+    String configured = System.getProperty("dronecraft.perf.output");
+    Path path =
+        configured != null
+            ? Path.of(configured)
+            : server.getServerDirectory().resolve("dronecraft-perf.json");
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    Files.writeString(path, GSON.toJson(root));
+  }
+
+  /**
+   * Measurements of one scenario.
+   *
+   * @param scenario The scenario and its budgets
+   * @param ticks Number of ticks sampled
+   * @param avgNanos Average scheduler tick time
+   * @param p50Nanos Median scheduler tick time
+   * @param p99Nanos 99th percentile scheduler tick time
+   * @param maxNanos Longest scheduler tick time
+   * @param bytesPerTick Average bytes allocated per scheduler tick
+   * @param maxBytesPerTick Most bytes allocated in a single scheduler tick
+   * @param executorTicksPerTick Average number of executors ticked per scheduler tick
+   * @param budgetScale Factor the time budgets were scaled by
+   * @param passed Whether every measurement was within budget
+   */
+  public record Result(
+      StationLoadTest.Scenario scenario,
+      long ticks,
+      long avgNanos,
+      long p50Nanos,
+      long p99Nanos,
+      long maxNanos,
+      long bytesPerTick,
+      long maxBytesPerTick,
+      double executorTicksPerTick,
+      double budgetScale,
+      boolean passed) {
+    public String describe() {
+      return String.format(
+          "%d stations: avg %.3f ms (budget %.3f), p99 %.3f ms (budget %.3f), %d B/tick"
+              + " (budget %d)",
+          scenario.stations(),
+          avgNanos / 1e6,
+          scenario.maxAvgNanos() * budgetScale / 1e6,
+          p99Nanos / 1e6,
+          scenario.maxP99Nanos() * budgetScale / 1e6,
+          bytesPerTick,
+          scenario.maxBytesPerTick());
+    }
+
+    private JsonObject toJson() {
+      JsonObject budget = new JsonObject();
+      budget.addProperty("avgNanos", (long) (scenario.maxAvgNanos() * budgetScale));
+      budget.addProperty("p99Nanos", (long) (scenario.maxP99Nanos() * budgetScale));
+      budget.addProperty("bytesPerTick", scenario.maxBytesPerTick());
+
+      JsonObject json = new JsonObject();
+      json.addProperty("name", scenario.name());
+      json.addProperty("stations", scenario.stations());
+      json.addProperty("ticks", ticks);
+      json.addProperty("avgNanos", avgNanos);
+      json.addProperty("p50Nanos", p50Nanos);
+      json.addProperty("p99Nanos", p99Nanos);
+      json.addProperty("maxNanos", maxNanos);
+      json.addProperty("bytesPerTick", bytesPerTick);
+      json.addProperty("maxBytesPerTick", maxBytesPerTick);
+      json.addProperty("executorTicksPerTick", executorTicksPerTick);
+      json.add("budget", budget);
+      json.addProperty("passed", passed);
+      return json;
+    }
+  }
+}
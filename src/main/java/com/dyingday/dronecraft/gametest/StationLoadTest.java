@@ -0,0 +1,252 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.gametest;
+
+import com.dyingday.dronecraft.api.behavior.DroneTickScheduler;
+import com.dyingday.dronecraft.api.profiling.LatencyHistogram;
+import com.dyingday.dronecraft.registration.DCBlocks;
+import com.sun.management.ThreadMXBean;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Consumer;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.LeavesBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+
+/**
+ * Performance gametests that run a field of drone stations over a generated oak forest and check
+ * what the drone scheduler costs the server thread. Each station gets a cell of the test structure
+ * with a tree beside it, and stations run the normal tree farm behavior.
+ *
+ * <p>After a warmup the scheduler's tick time and the bytes it allocates are sampled every tick.
+ * The scheduler's time budget is lifted while a test runs so the full cost of every executor is
+ * measured instead of being spread over later ticks. Results are written to a JSON file, see
+ * {@link PerfReport}, and the test fails if the average or p99 tick time or the average allocation
+ * per tick is over the scenario's budget. Time budgets can be scaled for slower machines with the
+ * {@code dronecraft.perf.budgetScale} system property.
+ *
+ * <p>The tests are only registered in the gametest server run, see {@link
+ * com.dyingday.dronecraft.registration.DCGameTests#isEnabled()}.
+ */
+public final class StationLoadTest {
+  /** Width of the square cell each station and its tree occupy */
+  public static final int CELL_SIZE = 6;
+
+  /** Ticks run before sampling starts, long enough for every station to index its search area */
+  public static final int WARMUP_TICKS = 100;
+
+  /** Ticks sampled after the warmup */
+  public static final int MEASURED_TICKS = 600;
+
+  /** Time limit of each test */
+  public static final int MAX_TICKS = WARMUP_TICKS + MEASURED_TICKS + 20;
+
+  public static final Scenario STATIONS_10 =
+      new Scenario("stations_10", 10, 500_000, 2_000_000, 16 * 1024);
+  public static final Scenario STATIONS_100 =
+      new Scenario("stations_100", 100, 2_000_000, 6_000_000, 128 * 1024);
+  public static final Scenario STATIONS_1000 =
+      new Scenario("stations_1000", 1000, 12_000_000, 30_000_000, 1024 * 1024);
+
+  public static final List<Scenario> SCENARIOS = List.of(STATIONS_10, STATIONS_100, STATIONS_1000);
+
+  /** Scheduler budget used while measuring, large enough that no executor is ever deferred */
+  private static final long UNBOUNDED_BUDGET_MICROS = 60_000_000;
+
+  /** Seed of the forest layout, fixed so runs are comparable */
+  private static final long FOREST_SEED = 20_250_101L;
+
+  private static final double BUDGET_SCALE =
+      Double.parseDouble(System.getProperty("dronecraft.perf.budgetScale", "1"));
+
+  private StationLoadTest() {}
+
+  public static void run(GameTestHelper helper, Scenario scenario) {
+    plantForest(helper, scenario);
+
+    Recorder recorder = new Recorder(helper.getLevel());
+    long previousBudget = DroneTickScheduler.getTickBudgetMicros();
+    DroneTickScheduler.setTickBudgetMicros(UNBOUNDED_BUDGET_MICROS);
+    recorder.register();
+
+    // Runs however the test ends, including timeouts and exceptions
+    helper.addCleanup(
+        passed -> {
+          recorder.unregister();
+          DroneTickScheduler.setTickBudgetMicros(previousBudget);
+        });
+
+    helper.runAtTickTime(WARMUP_TICKS, () -> recorder.recording = true);
+    helper.runAtTickTime(
+        WARMUP_TICKS + MEASURED_TICKS,
+        () -> {
+          recorder.recording = false;
+
+          PerfReport.Result result = recorder.toResult(scenario);
+          try {
+            PerfReport.write(helper.getLevel().getServer(), result);
+          } catch (IOException e) {
+            helper.fail(Component.literal("Could not write performance results: " + e));
+            return;
+          }
+          if (!result.passed()) {
+            helper.fail(Component.literal(result.describe()));
+            return;
+          }
+          helper.succeed();
+        });
+  }
+
+  /**
+   * Get the number of cells along each side of a scenario's test structure.
+   *
+   * @param stations Number of stations in the scenario
+   * @return The smallest square grid that fits every station
+   */
+  public static int cellsPerSide(int stations) {
+    return (int) Math.ceil(Math.sqrt(stations));
+  }
+
+  /** Lay grass over the whole structure, grow a tree in every cell and place the stations */
+  private static void plantForest(GameTestHelper helper, Scenario scenario) {
+    RandomSource random = RandomSource.create(FOREST_SEED);
+    int cells = cellsPerSide(scenario.stations());
+    int size = cells * CELL_SIZE;
+
+    BlockState grass = Blocks.GRASS_BLOCK.defaultBlockState();
+    for (int x = 0; x < size; x++) {
+      for (int z = 0; z < size; z++) {
+        helper.setBlock(x, 0, z, grass);
+      }
+    }
+
+    BlockState station = DCBlocks.DRONE_STATION.get().defaultBlockState();
+    for (int i = 0; i < cells * cells; i++) {
+      int cellX = (i % cells) * CELL_SIZE;
+      int cellZ = (i / cells) * CELL_SIZE;
+      growTree(helper, cellX + 2 + random.nextInt(2), cellZ + 2 + random.nextInt(2), random);
+      if (i < scenario.stations()) {
+        helper.setBlock(cellX + 1, 1, cellZ + 1, station);
+      }
+    }
+  }
+
+  /** Grow an oak tree on the ground, with leaves that never decay */
+  private static void growTree(GameTestHelper helper, int x, int z, RandomSource random) {
+    BlockState log = Blocks.OAK_LOG.defaultBlockState();
+    BlockState leaves =
+        Blocks.OAK_LEAVES.defaultBlockState().setValue(LeavesBlock.PERSISTENT, true);
+    int top = 4 + random.nextInt(3);
+
+    for (int y = top - 2; y <= top + 1; y++) {
+      int radius = y > top - 1 ? 1 : 2;
+      for (int dx = -radius; dx <= radius; dx++) {
+        for (int dz = -radius; dz <= radius; dz++) {
+          boolean corner = Math.abs(dx) == radius && Math.abs(dz) == radius;
+          if (corner && (y == top + 1 || random.nextInt(2) == 0)) {
+            continue;
+          }
+          helper.setBlock(x + dx, y, z + dz, leaves);
+        }
+      }
+    }
+    for (int y = 1; y <= top; y++) {
+      helper.setBlock(x, y, z, log);
+    }
+  }
+
+  /**
+   * A number of stations and the budgets they must stay within.
+   *
+   * @param name Name of the scenario, also the path of its test and structure
+   * @param stations Number of drone stations placed
+   * @param maxAvgNanos Highest allowed average scheduler tick time
+   * @param maxP99Nanos Highest allowed 99th percentile scheduler tick time
+   * @param maxBytesPerTick Highest allowed average allocation per scheduler tick
+   */
+  public record Scenario(
+      String name, int stations, long maxAvgNanos, long maxP99Nanos, long maxBytesPerTick) {}
+
+  /**
+   * Samples the scheduler of one level. Allocation is measured between listeners that run before
+   * and after the scheduler's own level tick listener.
+   */
+  private static final class Recorder {
+    private final ServerLevel level;
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Consumer<LevelTickEvent.Post> beforeScheduler = this::beforeScheduler;
+    private final Consumer<LevelTickEvent.Post> afterScheduler = this::afterScheduler;
+    private final LatencyHistogram tickNanos = new LatencyHistogram();
+
+    private boolean recording = false;
+    private long allocatedBefore;
+    private long allocatedBytes = 0;
+    private long maxAllocatedBytes = 0;
+    private long executorTicks = 0;
+
+    private Recorder(ServerLevel level) {
+      this.level = level;
+    }
+
+    private void register() {
+      NeoForge.EVENT_BUS.addListener(
+          EventPriority.HIGHEST, LevelTickEvent.Post.class, beforeScheduler);
+      NeoForge.EVENT_BUS.addListener(
+          EventPriority.LOWEST, LevelTickEvent.Post.class, afterScheduler);
+    }
+
+    private void unregister() {
+      NeoForge.EVENT_BUS.unregister(beforeScheduler);
+      NeoForge.EVENT_BUS.unregister(afterScheduler);
+    }
+
+    private void beforeScheduler(LevelTickEvent.Post event) {
+      if (recording && event.getLevel() == level) {
+        allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+      }
+    }
+
+    private void afterScheduler(LevelTickEvent.Post event) {
+      if (!recording || event.getLevel() != level) {
+        return;
+      }
+      long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+      allocatedBytes += allocated;
+      maxAllocatedBytes = Math.max(maxAllocatedBytes, allocated);
+
+      DroneTickScheduler scheduler = DroneTickScheduler.get(level);
+      tickNanos.record(scheduler.getLastTickNanos());
+      executorTicks += scheduler.getTickedCount();
+    }
+
+    private PerfReport.Result toResult(Scenario scenario) {
+      long ticks = Math.max(1, tickNanos.getCount());
+      long avgNanos = tickNanos.getSum() / ticks;
+      long p99Nanos = tickNanos.getPercentile(0.99);
+      long bytesPerTick = allocatedBytes / ticks;
+      boolean passed =
+          avgNanos <= scenario.maxAvgNanos() * BUDGET_SCALE
+              && p99Nanos <= scenario.maxP99Nanos() * BUDGET_SCALE
+              && bytesPerTick <= scenario.maxBytesPerTick();
+      return new PerfReport.Result(
+          scenario,
+          tickNanos.getCount(),
+          avgNanos,
+          tickNanos.getPercentile(0.5),
+          p99Nanos,
+          tickNanos.getMax(),
+          bytesPerTick,
+          maxAllocatedBytes,
+          (double) executorTicks / ticks,
+          BUDGET_SCALE,
+          passed);
+    }
+  }
+}
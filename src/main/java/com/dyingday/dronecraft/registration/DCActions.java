@@ -0,0 +1,75 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.registration;
+
+import com.dyingday.dronecraft.DroneCraft;
+import com.dyingday.dronecraft.api.behavior.action.ActionCategory;
+import com.dyingday.dronecraft.api.behavior.action.ActionParameter;
+import com.dyingday.dronecraft.api.behavior.action.IAction;
+import com.dyingday.dronecraft.api.registry.ActionFactory;
+import com.dyingday.dronecraft.api.registry.ActionRegistry;
+import com.dyingday.dronecraft.behavior.action.FindTreeAction;
+import com.dyingday.dronecraft.behavior.action.HarvestPlanAction;
+import com.dyingday.dronecraft.behavior.action.HarvestTreeAction;
+import com.dyingday.dronecraft.behavior.action.PlantSaplingAction;
+import com.dyingday.dronecraft.behavior.action.WaitAction;
+import java.util.List;
+import java.util.function.Supplier;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.Identifier;
+
+public class DCActions {
+  public static final Identifier FIND_TREE = id("find_tree");
+  public static final Identifier HARVEST_TREE = id("harvest_tree");
+  public static final Identifier PLANT_SAPLING = id("plant_sapling");
+  public static final Identifier WAIT = id("wait");
+  public static final Identifier HARVEST_PLAN = id("harvest_plan");
+
+  public static void register() {
+    register(FIND_TREE, FindTreeAction::new, ActionCategory.UTILITY, "Find Tree");
+    register(HARVEST_TREE, HarvestTreeAction::new, ActionCategory.INTERACTION, "Harvest Tree");
+    register(PLANT_SAPLING, PlantSaplingAction::new, ActionCategory.INTERACTION, "Plant Sapling");
+    register(WAIT, WaitAction::new, ActionCategory.LOGIC, "Wait");
+    register(
+        HARVEST_PLAN,
+        HarvestPlanAction::new,
+        ActionCategory.INTERACTION,
+        "Harvest and Replant Tree");
+  }
+
+  private static <A extends IAction> void register(
+      Identifier id, Supplier<A> supplier, ActionCategory category, String displayName) {
+    ActionRegistry.registerAction(
+        id, new SimpleFactory<>(supplier, category, Component.literal(displayName), List.of()));
+  }
+
+  private static Identifier id(String path) {
+    return Identifier.fromNamespaceAndPath(DroneCraft.MODID, path);
+  }
+
+  private record SimpleFactory<A extends IAction>(
+      Supplier<A> supplier,
+      ActionCategory category,
+      Component displayName,
+      List<ActionParameter> parameters)
+      implements ActionFactory<A> {
+    @Override
+    public A create() {
+      return supplier.get();
+    }
+
+    @Override
+    public ActionCategory getCategory() {
+      return category;
+    }
+
+    @Override
+    public Component getDisplayName() {
+      return displayName;
+    }
+
+    @Override
+    public List<ActionParameter> getParameters() {
+      return parameters;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/* (C)2025 */
+package com.dyingday.dronecraft.registration;
+
+import com.dyingday.dronecraft.DroneCraft;
+import com.dyingday.dronecraft.gametest.StationLoadTest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.gametest.framework.FunctionGameTestInstance;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestData;
+import net.minecraft.gametest.framework.TestEnvironmentDefinition;
+import net.minecraft.resources.Identifier;
+import net.neoforged.neoforge.event.RegisterGameTestsEvent;
+import net.neoforged.neoforge.registries.DeferredHolder;
+import net.neoforged.neoforge.registries.DeferredRegister;
+import org.jetbrains.annotations.NotNull;
+
+public class DCGameTests {
+  public static final DeferredRegister<@NotNull Consumer<GameTestHelper>> TEST_FUNCTIONS =
+      DeferredRegister.create(Registries.TEST_FUNCTION, DroneCraft.MODID);
+
+  private static final Map<
+          StationLoadTest.Scenario,
+          DeferredHolder<@NotNull Consumer<GameTestHelper>, @NotNull Consumer<GameTestHelper>>>
+      PERF_FUNCTIONS = new HashMap<>();
+
+  static {
+    for (StationLoadTest.Scenario scenario : StationLoadTest.SCENARIOS) {
+      PERF_FUNCTIONS.put(
+          scenario,
+          TEST_FUNCTIONS.register(
+              "perf/" + scenario.name(),
+              () -> helper -> StationLoadTest.run(helper, scenario)));
+    }
+  }
+
+  /**
+   * Check if the gametests should be registered. They are only registered when the {@code
+   * dronecraft.gametests} system property is set, as the gametest server run does, so production
+   * servers never see them.
+   *
+   * @return True if the gametests should be registered
+   */
+  public static boolean isEnabled() {
+    return Boolean.getBoolean("dronecraft.gametests");
+  }
+
+  public static void registerTests(RegisterGameTestsEvent event) {
+    for (StationLoadTest.Scenario scenario : StationLoadTest.SCENARIOS) {
+      Identifier id = Identifier.fromNamespaceAndPath(DroneCraft.MODID, "perf/" + scenario.name());
+
+      // Tests sharing an environment run side by side, so give each its own to run them alone
+      Holder<TestEnvironmentDefinition> environment = event.registerEnvironment(id);
+      event.registerTest(
+          id,
+          new FunctionGameTestInstance(
+              PERF_FUNCTIONS.get(scenario).getKey(),
+              new TestData<>(environment, id, StationLoadTest.MAX_TICKS, 0, true)));
+    }
+  }
+}